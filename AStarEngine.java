@@ -0,0 +1,149 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.Arrays;
+import static academy.maze.solver.SolverUtils.checkCancelled;
+import static academy.maze.solver.SolverUtils.buildPath;
+
+/**
+ * Алгоритм A* на примитивных массивах, индексированных номером ячейки {@code y * width + x}.
+ * Открытое множество - {@link IndexedMinHeap} с настоящим decrease-key, g-стоимости хранятся в {@code int[]},
+ * родители - в 2-битных направлениях. Эвристика - манхэттенское расстояние.
+ * При равных f-стоимостях можно предпочитать узлы с большей g-стоимостью (ближе к цели),
+ * что сокращает число раскрытий на открытых участках.
+ * Буферы переиспользуются между поисками; экземпляр не потокобезопасен.
+ */
+public final class AStarEngine {
+    private final boolean preferLargerG;
+    private final PackedDirections parents = new PackedDirections();
+    private IndexedMinHeap openSet = new IndexedMinHeap(0);
+    private int[] gScores = new int[0];
+    private int[] stamps = new int[0];
+    private int epoch;
+    private int expanded;
+
+    /**
+     * Создает движок, предпочитающий при равных f-стоимостях узлы с большей g-стоимостью.
+     */
+    public AStarEngine() {
+        this(true);
+    }
+
+    /**
+     * Создает движок с указанным правилом разрешения равенства f-стоимостей.
+     *
+     * @param preferLargerG true чтобы при равных f-стоимостях раскрывать узлы с большей g-стоимостью
+     */
+    public AStarEngine(boolean preferLargerG) {
+        this.preferLargerG = preferLargerG;
+    }
+
+    /**
+     * Находит кратчайший путь между двумя точками.
+     *
+     * @param maze лабиринт
+     * @param start начальная точка
+     * @param end конечная точка
+     * @return кратчайший путь или пустой путь, если конечная точка недостижима
+     */
+    public Path findPath(Maze maze, Point start, Point end) {
+        AdjacencyMasks adjacency = maze.adjacency();
+        int width = maze.width();
+        int startIndex = maze.index(start);
+        int endIndex = maze.index(end);
+        reset((int) maze.cellCount());
+
+        setScore(startIndex, 0);
+        openSet.insert(startIndex, key(0, start.manhattanDistanceTo(end)));
+
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            if (current == endIndex) {
+                return buildPath(maze, adjacency, parents, startIndex, endIndex);
+            }
+            expanded++;
+            checkCancelled(expanded);
+
+            int x = current % width;
+            int y = current / width;
+            int tentative = gScores[current] + 1;
+            int mask = adjacency.mask(current);
+            while (mask != 0) {
+                int bit = Integer.lowestOneBit(mask);
+                mask &= mask - 1;
+                int direction = Integer.numberOfTrailingZeros(bit);
+                int neighbor = adjacency.neighbor(current, bit);
+                if (stamps[neighbor] == epoch && tentative >= gScores[neighbor]) {
+                    continue;
+                }
+                setScore(neighbor, tentative);
+                parents.set(neighbor, direction);
+                Direction step = Direction.ofBit(bit);
+                int heuristic = Math.abs(x + step.dx() - end.x()) + Math.abs(y + step.dy() - end.y());
+                openSet.insertOrDecrease(neighbor, key(tentative, heuristic));
+            }
+        }
+
+        return Path.empty();
+    }
+
+    /**
+     * Возвращает количество узлов, раскрытых последним поиском.
+     *
+     * @return количество раскрытых узлов
+     */
+    public int lastExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Упаковывает f-стоимость и правило разрешения равенства в ключ кучи.
+     *
+     * @param gScore стоимость пути от начала
+     * @param heuristic эвристическая оценка до цели
+     * @return ключ кучи
+     */
+    private long key(int gScore, int heuristic) {
+        long tieBreak = preferLargerG ? Integer.MAX_VALUE - gScore : gScore;
+        return ((long) (gScore + heuristic) << 32) | tieBreak;
+    }
+
+    /**
+     * Сохраняет g-стоимость ячейки для текущего поиска.
+     *
+     * @param index индекс ячейки
+     * @param score g-стоимость
+     */
+    private void setScore(int index, int score) {
+        gScores[index] = score;
+        stamps[index] = epoch;
+    }
+
+    /**
+     * Подготавливает буферы к новому поиску.
+     * Вместо очистки массива g-стоимостей увеличивается номер поиска:
+     * значения с другим номером считаются неустановленными.
+     *
+     * @param cellCount количество ячеек лабиринта
+     */
+    private void reset(int cellCount) {
+        if (openSet.capacity() < cellCount) {
+            openSet = new IndexedMinHeap(cellCount);
+            gScores = new int[cellCount];
+            stamps = new int[cellCount];
+            epoch = 0;
+        }
+        else {
+            openSet.clear();
+        }
+        parents.ensureCapacity(cellCount);
+        expanded = 0;
+        if (++epoch == 0) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+}
@@ -9,14 +9,36 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import static academy.maze.solver.SolverUtils.checkCancelled;
 import static academy.maze.solver.SolverUtils.validateInput;
 import static academy.maze.utils.Utils.validateStartAndEnd;
 
 /**
  * Реализация алгоритма A* для решения лабиринтов.
  * Находит кратчайший путь от начальной до конечной точки с использованием эвристики.
+ * Лабиринты, помещающиеся в массивы, решаются движком {@link AStarEngine} на индексированной куче;
+ * для остальных используется поиск на узлах {@link Node}.
  */
 public class AStarSolver implements SolverStrategy {
+    private final ThreadLocal<AStarEngine> engine;
+    private final ThreadLocal<AnytimeAStarEngine> anytimeEngine = ThreadLocal.withInitial(AnytimeAStarEngine::new);
+
+    /**
+     * Создает решатель, предпочитающий при равных f-стоимостях узлы с большей g-стоимостью.
+     */
+    public AStarSolver() {
+        this(true);
+    }
+
+    /**
+     * Создает решатель с указанным правилом разрешения равенства f-стоимостей.
+     *
+     * @param preferLargerG true чтобы при равных f-стоимостях раскрывать узлы с большей g-стоимостью
+     */
+    public AStarSolver(boolean preferLargerG) {
+        this.engine = ThreadLocal.withInitial(() -> new AStarEngine(preferLargerG));
+    }
 
     /**
      * Решает лабиринт с использованием алгоритма A*.
@@ -29,8 +51,59 @@ public class AStarSolver implements SolverStrategy {
      */
     @Override
     public Path solve(Maze maze, Point start, Point end) {
-        validateInput(maze, start, end);
+        if (!validateInput(maze, start, end)) {
+            return Path.empty();
+        }
+
+        if (BFSEngine.supports(maze)) {
+            return engine.get().findPath(maze, start, end);
+        }
+        return solveWithNodes(maze, start, end);
+    }
+
+    /**
+     * Решает лабиринт в пределах бюджета раскрытий и времени алгоритмом ARA* ({@link AnytimeAStarEngine}):
+     * сначала быстро находится путь взвешенным A*, затем, пока бюджет не исчерпан, вес эвристики уменьшается
+     * до 1 и путь улучшается. Лабиринты, не помещающиеся в массивы движка, решаются обычным A* без бюджета.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @param maxExpansions максимальное количество раскрытий узлов; 0 - без ограничения
+     * @param timeBudgetMillis бюджет времени в миллисекундах; 0 - без ограничения
+     * @return лучший найденный путь, признак оптимальности и достигнутая оценка субоптимальности
+     * @throws IllegalArgumentException если точки некорректны или бюджет отрицателен
+     */
+    public AnytimeResult solveWithin(Maze maze, Point start, Point end, long maxExpansions, long timeBudgetMillis) {
+        boolean reachable = validateInput(maze, start, end);
+        if (maxExpansions < 0 || timeBudgetMillis < 0) {
+            throw new IllegalArgumentException("Search budget cannot be negative: maxExpansions=" + maxExpansions
+                + ", timeBudgetMillis=" + timeBudgetMillis);
+        }
+        if (!reachable) {
+            return new AnytimeResult(Path.empty(), true, Double.POSITIVE_INFINITY, 0);
+        }
+
+        if (!BFSEngine.supports(maze)) {
+            Path path = solveWithNodes(maze, start, end);
+            return new AnytimeResult(path, true, path.isEmpty() ? Double.POSITIVE_INFINITY : 1.0, 0);
+        }
+        long expansions = maxExpansions == 0 ? Long.MAX_VALUE : maxExpansions;
+        long now = System.nanoTime();
+        long deadline = timeBudgetMillis == 0 ? now + Long.MAX_VALUE : now + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        return anytimeEngine.get().findPath(maze, start, end, expansions, deadline);
+    }
 
+    /**
+     * Решает лабиринт алгоритмом A* на узлах {@link Node} и очереди с приоритетом.
+     * Используется для лабиринтов, которые не помещаются в массивы {@link AStarEngine}.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return найденный путь или пустой путь, если решение не найдено
+     */
+    private Path solveWithNodes(Maze maze, Point start, Point end) {
         PriorityQueue<Node> openSet = new PriorityQueue<>();
         Map<Point, Node> allNodes = new HashMap<>();
         Node startNode = new Node(start, null, 0, start.manhattanDistanceTo(end));
@@ -38,8 +111,10 @@ public class AStarSolver implements SolverStrategy {
         openSet.add(startNode);
         allNodes.put(start, startNode);
 
+        long polled = 0;
         while (!openSet.isEmpty()) {
             Node node = openSet.poll();
+            checkCancelled(++polled);
 
             if (node.point().equals(end)) {
                 return reconstructPath(node);
@@ -0,0 +1,135 @@
+package academy.maze.dto;
+
+/**
+ * Предвычисленные маски смежности ячеек лабиринта.
+ * Для каждой проходимой ячейки хранится 4-битная маска открытых направлений
+ * (порядок битов совпадает с порядком {@link academy.maze.solver.Direction}: UP, DOWN, LEFT, RIGHT).
+ * Для стен и ячеек вне проходимой области маска равна нулю.
+ * Маски строятся одним проходом по лабиринту и обновляются лабиринтом при каждом {@code setCell}.
+ */
+public final class AdjacencyMasks {
+    /** Бит направления вверх */
+    public static final int UP = 1;
+
+    /** Бит направления вниз */
+    public static final int DOWN = 1 << 1;
+
+    /** Бит направления влево */
+    public static final int LEFT = 1 << 2;
+
+    /** Бит направления вправо */
+    public static final int RIGHT = 1 << 3;
+
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    private final Maze maze;
+    private final byte[] masks;
+    private final int[] offsets;
+
+    /**
+     * Создает пустой набор масок для лабиринта.
+     *
+     * @param maze лабиринт
+     */
+    private AdjacencyMasks(Maze maze) {
+        this.maze = maze;
+        this.masks = new byte[Math.toIntExact(maze.cellCount())];
+        this.offsets = new int[] {-maze.width(), maze.width(), -1, 1};
+    }
+
+    /**
+     * Строит маски смежности для всех ячеек лабиринта.
+     *
+     * @param maze лабиринт, количество ячеек которого помещается в {@code int}
+     * @return маски смежности
+     * @throws ArithmeticException если лабиринт слишком велик для массива масок
+     */
+    public static AdjacencyMasks build(Maze maze) {
+        AdjacencyMasks adjacency = new AdjacencyMasks(maze);
+        for (int y = 1; y < maze.height() - 1; y++) {
+            for (int x = 1; x < maze.width() - 1; x++) {
+                adjacency.masks[maze.index(x, y)] = (byte) computeMask(maze, x, y);
+            }
+        }
+        return adjacency;
+    }
+
+    /**
+     * Вычисляет маску смежности ячейки напрямую по лабиринту, без предвычисленной таблицы.
+     *
+     * @param maze лабиринт
+     * @param x координата X
+     * @param y координата Y
+     * @return маска открытых направлений или 0, если ячейка непроходима
+     */
+    public static int computeMask(Maze maze, int x, int y) {
+        if (!maze.isPassable(x, y)) {
+            return 0;
+        }
+        int mask = 0;
+        for (int dir = 0; dir < DX.length; dir++) {
+            if (maze.isPassable(x + DX[dir], y + DY[dir])) {
+                mask |= 1 << dir;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Возвращает маску смежности ячейки по индексу.
+     *
+     * @param index индекс ячейки
+     * @return маска открытых направлений
+     */
+    public int mask(int index) {
+        return masks[index];
+    }
+
+    /**
+     * Возвращает маску смежности ячейки (x, y).
+     *
+     * @param x координата X
+     * @param y координата Y
+     * @return маска открытых направлений
+     */
+    public int mask(int x, int y) {
+        return masks[maze.index(x, y)];
+    }
+
+    /**
+     * Вычисляет индекс соседней ячейки в направлении, заданном битом маски.
+     *
+     * @param index индекс ячейки
+     * @param bit бит направления (UP, DOWN, LEFT или RIGHT)
+     * @return индекс соседней ячейки
+     */
+    public int neighbor(int index, int bit) {
+        return index + offsets[Integer.numberOfTrailingZeros(bit)];
+    }
+
+    /**
+     * Пересчитывает маски ячейки (x, y) и ее соседей после изменения ячейки.
+     *
+     * @param x координата X измененной ячейки
+     * @param y координата Y измененной ячейки
+     */
+    void update(int x, int y) {
+        refresh(x, y);
+        for (int dir = 0; dir < DX.length; dir++) {
+            refresh(x + DX[dir], y + DY[dir]);
+        }
+    }
+
+    /**
+     * Пересчитывает маску одной ячейки, если она находится внутри лабиринта.
+     *
+     * @param x координата X
+     * @param y координата Y
+     */
+    private void refresh(int x, int y) {
+        if (maze.isValidPosition(x, y)) {
+            masks[maze.index(x, y)] = (byte) computeMask(maze, x, y);
+        }
+    }
+}
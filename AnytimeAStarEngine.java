@@ -0,0 +1,233 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.Arrays;
+import static academy.maze.solver.SolverUtils.buildPath;
+
+/**
+ * Anytime-поиск ARA*: взвешенный A* с последовательно уменьшаемым весом эвристики.
+ * Первый проход с весом 3 быстро находит путь, каждый следующий проход с меньшим весом
+ * переиспользует g-стоимости предыдущего и раскрывает только узлы, стоимость которых с тех пор уменьшилась
+ * (закрытые узлы с улучшенной стоимостью откладываются в список несогласованных до следующего прохода).
+ * После каждого прохода сохраняется лучший путь и оценка субоптимальности
+ * {@code min(w, g(цель) / min(g + h))} по открытым и несогласованным узлам. Поиск останавливается,
+ * когда исчерпан бюджет раскрытий или время, либо когда проход с весом 1 доказал оптимальность.
+ * Веса хранятся в четвертях, ключ кучи {@code (4g + w·h, -g)} упакован в {@code long}, поэтому,
+ * как и в {@link AStarEngine}, длины путей предполагаются много меньше {@code 2^30}.
+ * Буферы переиспользуются между поисками; экземпляр не потокобезопасен.
+ */
+public final class AnytimeAStarEngine {
+    /** Знаменатель весов эвристики */
+    private static final int WEIGHT_SCALE = 4;
+
+    /** Веса проходов в четвертях: 3, 2.5, 2, 1.5, 1.25, 1 */
+    private static final int[] WEIGHTS = {12, 10, 8, 6, 5, 4};
+
+    /** Количество раскрытий между проверками времени */
+    private static final int CLOCK_INTERVAL = 256;
+
+    private final PackedDirections parents = new PackedDirections();
+    private IndexedMinHeap openSet = new IndexedMinHeap(0);
+    private int[] gScores = new int[0];
+    private int[] stamps = new int[0];
+    private int[] closed = new int[0];
+    private int[] incons = new int[0];
+    private int[] pending = new int[0];
+    private int inconsSize;
+    private int epoch;
+    private int pass;
+    private long expanded;
+
+    private int width;
+    private int endX;
+    private int endY;
+
+    /**
+     * Находит путь в пределах бюджета.
+     *
+     * @param maze лабиринт
+     * @param start начальная точка
+     * @param end конечная точка
+     * @param maxExpansions максимальное количество раскрытий узлов
+     * @param deadlineNanos момент {@link System#nanoTime()}, после которого поиск прекращается
+     * @return лучший найденный путь с признаком оптимальности и оценкой субоптимальности
+     */
+    public AnytimeResult findPath(Maze maze, Point start, Point end, long maxExpansions, long deadlineNanos) {
+        AdjacencyMasks adjacency = maze.adjacency();
+        width = maze.width();
+        endX = end.x();
+        endY = end.y();
+        int startIndex = maze.index(start);
+        int endIndex = maze.index(end);
+        reset((int) maze.cellCount());
+
+        gScores[startIndex] = 0;
+        stamps[startIndex] = epoch;
+        pending[inconsSize++] = startIndex;
+
+        Path best = Path.empty();
+        double bound = Double.POSITIVE_INFINITY;
+        for (int weight : WEIGHTS) {
+            nextPass(weight);
+            if (!improvePath(adjacency, endIndex, weight, maxExpansions, deadlineNanos)) {
+                if (best.isEmpty() && stamps[endIndex] == epoch) {
+                    best = buildPath(maze, adjacency, parents, startIndex, endIndex);
+                }
+                return new AnytimeResult(best, false, bound, expanded);
+            }
+            if (stamps[endIndex] != epoch) {
+                return new AnytimeResult(Path.empty(), true, Double.POSITIVE_INFINITY, expanded);
+            }
+
+            best = buildPath(maze, adjacency, parents, startIndex, endIndex);
+            long lowerBound = lowerBound();
+            double reached = lowerBound == Long.MAX_VALUE ? 1.0 : (double) gScores[endIndex] / lowerBound;
+            bound = Math.max(1.0, Math.min((double) weight / WEIGHT_SCALE, reached));
+            if (weight == WEIGHT_SCALE || bound == 1.0) {
+                return new AnytimeResult(best, true, 1.0, expanded);
+            }
+            mergeInconsistent();
+        }
+        return new AnytimeResult(best, false, bound, expanded);
+    }
+
+    /**
+     * Выполняет один проход взвешенного A*, пока f-стоимость цели больше минимального ключа очереди.
+     *
+     * @return false если бюджет исчерпан до завершения прохода
+     */
+    private boolean improvePath(AdjacencyMasks adjacency, int endIndex, int weight,
+                                long maxExpansions, long deadlineNanos) {
+        while (!openSet.isEmpty()) {
+            if (stamps[endIndex] == epoch
+                && (long) gScores[endIndex] * WEIGHT_SCALE <= openSet.peekKey() >>> 32) {
+                return true;
+            }
+            if (expanded >= maxExpansions
+                || expanded % CLOCK_INTERVAL == 0 && System.nanoTime() - deadlineNanos >= 0) {
+                return false;
+            }
+            int current = openSet.poll();
+            closed[current] = pass;
+            expanded++;
+
+            int tentative = gScores[current] + 1;
+            int mask = adjacency.mask(current);
+            while (mask != 0) {
+                int bit = Integer.lowestOneBit(mask);
+                mask &= mask - 1;
+                int neighbor = adjacency.neighbor(current, bit);
+                if (stamps[neighbor] == epoch && tentative >= gScores[neighbor]) {
+                    continue;
+                }
+                gScores[neighbor] = tentative;
+                stamps[neighbor] = epoch;
+                parents.set(neighbor, Integer.numberOfTrailingZeros(bit));
+                if (closed[neighbor] != pass) {
+                    openSet.insertOrDecrease(neighbor, key(neighbor, weight));
+                }
+                else if (incons[neighbor] != pass) {
+                    incons[neighbor] = pass;
+                    pending[inconsSize++] = neighbor;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает нижнюю оценку длины кратчайшего пути: минимум {@code g + h} по открытым и несогласованным узлам.
+     *
+     * @return нижняя оценка или {@link Long#MAX_VALUE}, если таких узлов нет
+     */
+    private long lowerBound() {
+        long result = Long.MAX_VALUE;
+        for (int i = 0; i < openSet.size(); i++) {
+            int item = openSet.itemAt(i);
+            result = Math.min(result, (long) gScores[item] + heuristic(item));
+        }
+        for (int i = 0; i < inconsSize; i++) {
+            int item = pending[i];
+            result = Math.min(result, (long) gScores[item] + heuristic(item));
+        }
+        return result;
+    }
+
+    /**
+     * Откладывает открытые узлы вместе с несогласованными: их ключи зависят от веса
+     * и пересчитываются в начале следующего прохода.
+     */
+    private void mergeInconsistent() {
+        int openCount = openSet.size();
+        for (int i = 0; i < openCount; i++) {
+            pending[inconsSize + i] = openSet.itemAt(i);
+        }
+        openSet.clear();
+        inconsSize += openCount;
+    }
+
+    /**
+     * Начинает новый проход: закрытое множество очищается сменой номера прохода,
+     * а отложенные узлы ставятся в очередь с ключами нового веса.
+     *
+     * @param weight вес эвристики прохода в четвертях
+     */
+    private void nextPass(int weight) {
+        if (++pass == 0) {
+            Arrays.fill(closed, 0);
+            Arrays.fill(incons, 0);
+            pass = 1;
+        }
+        for (int i = 0; i < inconsSize; i++) {
+            openSet.insert(pending[i], key(pending[i], weight));
+        }
+        inconsSize = 0;
+    }
+
+    /**
+     * Вычисляет манхэттенское расстояние от ячейки до цели.
+     */
+    private int heuristic(int index) {
+        return Math.abs(index % width - endX) + Math.abs(index / width - endY);
+    }
+
+    /**
+     * Упаковывает взвешенную f-стоимость и предпочтение большей g-стоимости в ключ кучи.
+     */
+    private long key(int index, int weight) {
+        int gScore = gScores[index];
+        long fScore = (long) gScore * WEIGHT_SCALE + (long) weight * heuristic(index);
+        return (fScore << 32) | (Integer.MAX_VALUE - gScore);
+    }
+
+    /**
+     * Подготавливает буферы к новому поиску.
+     *
+     * @param cellCount количество ячеек лабиринта
+     */
+    private void reset(int cellCount) {
+        if (openSet.capacity() < cellCount) {
+            openSet = new IndexedMinHeap(cellCount);
+            gScores = new int[cellCount];
+            stamps = new int[cellCount];
+            closed = new int[cellCount];
+            incons = new int[cellCount];
+            pending = new int[cellCount];
+            epoch = 0;
+            pass = 0;
+        }
+        else {
+            openSet.clear();
+        }
+        parents.ensureCapacity(cellCount);
+        expanded = 0;
+        inconsSize = 0;
+        if (++epoch == 0) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+}
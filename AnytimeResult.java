@@ -0,0 +1,15 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Path;
+
+/**
+ * Результат поиска с ограниченным бюджетом.
+ *
+ * @param path лучший найденный путь; пустой, если путь не найден за отведенный бюджет или не существует
+ * @param optimal true если путь доказанно кратчайший (для пустого пути - если доказано, что пути нет)
+ * @param bound достигнутая оценка субоптимальности: длина пути не больше {@code bound} длин кратчайшего;
+ *      {@link Double#POSITIVE_INFINITY}, если путь не найден
+ * @param expanded количество раскрытых узлов
+ */
+public record AnytimeResult(Path path, boolean optimal, double bound, long expanded) {
+}
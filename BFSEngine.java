@@ -0,0 +1,113 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.Arrays;
+import static academy.maze.solver.SolverUtils.checkCancelled;
+import static academy.maze.solver.SolverUtils.buildPath;
+
+/**
+ * Поиск в ширину на примитивных массивах, индексированных номером ячейки {@code y * width + x}.
+ * Очередь - кольцевой буфер {@link IntRingQueue}, посещенные ячейки - битовое множество,
+ * родитель каждой ячейки - 2-битное направление, по которому в нее пришли.
+ * Соседи перебираются по маскам смежности в порядке UP, DOWN, LEFT, RIGHT, как в {@link BFSSolver},
+ * поэтому найденные пути совпадают. Буферы переиспользуются между поисками,
+ * так что единственное выделение памяти на поиск - итоговый {@link Path}.
+ * Экземпляр не потокобезопасен.
+ */
+public final class BFSEngine {
+    private static final int INITIAL_QUEUE_CAPACITY = 1 << 10;
+
+    private long[] visited = new long[0];
+    private final PackedDirections parents = new PackedDirections();
+    private final IntRingQueue queue = new IntRingQueue(INITIAL_QUEUE_CAPACITY);
+
+    /**
+     * Проверяет, может ли движок обработать лабиринт.
+     *
+     * @param maze лабиринт
+     * @return true если количество ячеек помещается в {@code int}
+     */
+    public static boolean supports(Maze maze) {
+        return maze.cellCount() <= Integer.MAX_VALUE - 8;
+    }
+
+    /**
+     * Находит кратчайший путь между двумя точками.
+     *
+     * @param maze лабиринт
+     * @param start начальная точка
+     * @param end конечная точка
+     * @return кратчайший путь или пустой путь, если конечная точка недостижима
+     */
+    public Path findPath(Maze maze, Point start, Point end) {
+        AdjacencyMasks adjacency = maze.adjacency();
+        int startIndex = maze.index(start);
+        int endIndex = maze.index(end);
+        reset((int) maze.cellCount());
+
+        markVisited(startIndex);
+        queue.add(startIndex);
+
+        long polled = 0;
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            checkCancelled(++polled);
+            if (current == endIndex) {
+                return buildPath(maze, adjacency, parents, startIndex, endIndex);
+            }
+
+            int mask = adjacency.mask(current);
+            while (mask != 0) {
+                int bit = Integer.lowestOneBit(mask);
+                mask &= mask - 1;
+                int neighbor = adjacency.neighbor(current, bit);
+                if (!isVisited(neighbor)) {
+                    markVisited(neighbor);
+                    parents.set(neighbor, Integer.numberOfTrailingZeros(bit));
+                    queue.add(neighbor);
+                }
+            }
+        }
+
+        return Path.empty();
+    }
+
+    /**
+     * Проверяет, посещена ли ячейка.
+     *
+     * @param index индекс ячейки
+     * @return true если ячейка посещена
+     */
+    private boolean isVisited(int index) {
+        return (visited[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Отмечает ячейку как посещенную.
+     *
+     * @param index индекс ячейки
+     */
+    private void markVisited(int index) {
+        visited[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Подготавливает буферы к новому поиску.
+     *
+     * @param cellCount количество ячеек лабиринта
+     */
+    private void reset(int cellCount) {
+        int words = (cellCount + 63) >>> 6;
+        if (visited.length < words) {
+            visited = new long[words];
+        }
+        else {
+            Arrays.fill(visited, 0, words, 0L);
+        }
+        parents.ensureCapacity(cellCount);
+        queue.clear();
+    }
+}
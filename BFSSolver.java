@@ -7,14 +7,43 @@ import academy.maze.solver.Iterator.NeighborIterator;
 
 import java.util.*;
 import static academy.maze.solver.SolverUtils.buildPath;
+import static academy.maze.solver.SolverUtils.checkCancelled;
 import static academy.maze.solver.SolverUtils.validateInput;
+import static academy.maze.solver.SolverUtils.validateSource;
+import static academy.maze.solver.SolverUtils.validateTargets;
 import static academy.maze.utils.Utils.validateStartAndEnd;
 
 /**
  * Реализация алгоритма BFS для решения лабиринтов.
  * Находит кратчайший путь от начальной до конечной точки.
+ * Лабиринты, помещающиеся в массивы, решаются на примитивных массивах {@link BFSEngine};
+ * для остальных используется поиск на коллекциях точек.
+ * Если задан параллельный поиск, лабиринты не меньше порогового размера решаются им ({@link ParallelBFS}).
  */
 public class BFSSolver implements SolverStrategy {
+    /** Количество ячеек, начиная с которого используется параллельный поиск, если он задан */
+    public static final long PARALLEL_THRESHOLD = 1L << 22;
+
+    private final ThreadLocal<BFSEngine> engine = ThreadLocal.withInitial(BFSEngine::new);
+    private final ThreadLocal<FloodFillEngine> floodFill = ThreadLocal.withInitial(FloodFillEngine::new);
+    private final ThreadLocal<NearestTargetEngine> nearestTargets = ThreadLocal.withInitial(NearestTargetEngine::new);
+    private final ParallelBFS parallel;
+
+    /**
+     * Создает однопоточный решатель.
+     */
+    public BFSSolver() {
+        this(null);
+    }
+
+    /**
+     * Создает решатель, решающий большие лабиринты параллельным поиском.
+     *
+     * @param parallel параллельный поиск или null для однопоточного решения
+     */
+    public BFSSolver(ParallelBFS parallel) {
+        this.parallel = parallel;
+    }
 
     /**
      * Решает лабиринт с использованием алгоритма BFS.
@@ -27,8 +56,57 @@ public class BFSSolver implements SolverStrategy {
      */
     @Override
     public Path solve(Maze maze, Point start, Point end) {
-        validateInput(maze, start, end);
+        if (!validateInput(maze, start, end)) {
+            return Path.empty();
+        }
+
+        if (parallel != null && ParallelBFS.supports(maze) && maze.cellCount() >= PARALLEL_THRESHOLD) {
+            return parallel.findPath(maze, start, end);
+        }
+        if (BFSEngine.supports(maze)) {
+            return engine.get().findPath(maze, start, end);
+        }
+        return solveWithCollections(maze, start, end);
+    }
+
+    /**
+     * Вычисляет расстояния в шагах от точки до всех ячеек лабиринта.
+     *
+     * @param maze лабиринт
+     * @param source исходная точка
+     * @return поле расстояний, из которого можно извлечь путь до любой достижимой ячейки
+     * @throws IllegalArgumentException если точка некорректна или лабиринт слишком велик
+     */
+    public DistanceField distanceField(Maze maze, Point source) {
+        validateSource(maze, source);
+        return floodFill.get().compute(maze, source);
+    }
 
+    /**
+     * Находит ближайшие по количеству шагов цели одним поиском в ширину от всех исходных точек.
+     *
+     * @param maze лабиринт
+     * @param sources исходные точки
+     * @param targets цели
+     * @param limit максимальное количество целей
+     * @return до {@code limit} достижимых целей в порядке неубывания расстояния с путями от ближайших исходных точек
+     * @throws IllegalArgumentException если точки некорректны, {@code limit < 1} или лабиринт слишком велик
+     */
+    public List<TargetMatch> nearestTargets(Maze maze, Collection<Point> sources, Collection<Point> targets, int limit) {
+        validateTargets(maze, sources, targets, limit);
+        return nearestTargets.get().findNearest(maze, sources, targets, limit, null);
+    }
+
+    /**
+     * Решает лабиринт поиском в ширину на коллекциях точек.
+     * Используется для лабиринтов, которые не помещаются в массивы {@link BFSEngine}.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return найденный путь или пустой путь, если решение не найдено
+     */
+    private Path solveWithCollections(Maze maze, Point start, Point end) {
         Queue<Point> queue = new LinkedList<>();
         Map<Point, Point> previous = new HashMap<>();
         Set<Point> visited = new HashSet<>();
@@ -37,8 +115,10 @@ public class BFSSolver implements SolverStrategy {
         visited.add(start);
         previous.put(start, null);
 
+        long polled = 0;
         while (!queue.isEmpty()) {
             Point current = queue.poll();
+            checkCancelled(++polled);
 
             if (current.equals(end)) {
                 return buildPath(previous, start, end);
@@ -0,0 +1,181 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.Arrays;
+import static academy.maze.solver.SolverUtils.checkCancelled;
+import static academy.maze.solver.SolverUtils.joinPaths;
+
+/**
+ * Двунаправленный A* на примитивных массивах и индексированных кучах.
+ * Прямой поиск использует манхэттенское расстояние до конечной точки, обратный - до начальной.
+ * Каждый раз раскрывается сторона с меньшим открытым множеством. Поиск останавливается,
+ * когда лучший найденный путь не длиннее большей из минимальных f-стоимостей двух сторон:
+ * при допустимых эвристиках ни один нераскрытый узел не может дать более короткий путь.
+ * Буферы переиспользуются между поисками; экземпляр не потокобезопасен.
+ */
+public final class BidirectionalAStarEngine {
+    private final Side forward = new Side();
+    private final Side backward = new Side();
+    private int epoch;
+
+    /**
+     * Находит кратчайший путь между двумя точками.
+     *
+     * @param maze лабиринт
+     * @param start начальная точка
+     * @param end конечная точка
+     * @return кратчайший путь или пустой путь, если конечная точка недостижима
+     */
+    public Path findPath(Maze maze, Point start, Point end) {
+        AdjacencyMasks adjacency = maze.adjacency();
+        int width = maze.width();
+        int startIndex = maze.index(start);
+        int endIndex = maze.index(end);
+        reset((int) maze.cellCount(), end, start);
+
+        forward.relax(startIndex, 0, 0, start.x(), start.y());
+        backward.relax(endIndex, 0, 0, end.x(), end.y());
+
+        int best = Integer.MAX_VALUE;
+        int meet = -1;
+
+        while (!forward.openSet.isEmpty() && !backward.openSet.isEmpty()) {
+            int bound = (int) Math.max(forward.openSet.peekKey() >>> 32, backward.openSet.peekKey() >>> 32);
+            if (best <= bound) {
+                break;
+            }
+
+            Side side = forward.openSet.size() <= backward.openSet.size() ? forward : backward;
+            Side other = side == forward ? backward : forward;
+
+            int current = side.openSet.poll();
+            side.expanded++;
+            checkCancelled(side.expanded);
+            int x = current % width;
+            int y = current / width;
+            int tentative = side.gScores[current] + 1;
+            int mask = adjacency.mask(current);
+            while (mask != 0) {
+                int bit = Integer.lowestOneBit(mask);
+                mask &= mask - 1;
+                int neighbor = adjacency.neighbor(current, bit);
+                if (!side.isSeen(neighbor) || tentative < side.gScores[neighbor]) {
+                    Direction step = Direction.ofBit(bit);
+                    side.relax(neighbor, tentative, Integer.numberOfTrailingZeros(bit), x + step.dx(), y + step.dy());
+                }
+                if (other.isSeen(neighbor)) {
+                    int candidate = side.gScores[neighbor] + other.gScores[neighbor];
+                    if (candidate < best) {
+                        best = candidate;
+                        meet = neighbor;
+                    }
+                }
+            }
+        }
+
+        if (meet == -1) {
+            return Path.empty();
+        }
+        return joinPaths(maze, adjacency, forward.parents, startIndex, meet, backward.parents, meet, endIndex);
+    }
+
+    /**
+     * Возвращает статистику последнего поиска.
+     *
+     * @return количество узлов, раскрытых каждой стороной
+     */
+    public SearchStats lastStats() {
+        return new SearchStats(forward.expanded, backward.expanded);
+    }
+
+    /**
+     * Подготавливает обе стороны к новому поиску.
+     *
+     * @param cellCount количество ячеек лабиринта
+     * @param forwardTarget цель прямого поиска
+     * @param backwardTarget цель обратного поиска
+     */
+    private void reset(int cellCount, Point forwardTarget, Point backwardTarget) {
+        boolean grown = forward.ensureCapacity(cellCount) | backward.ensureCapacity(cellCount);
+        if (grown) {
+            epoch = 0;
+        }
+        if (++epoch == 0) {
+            Arrays.fill(forward.stamps, 0);
+            Arrays.fill(backward.stamps, 0);
+            epoch = 1;
+        }
+        forward.reset(forwardTarget);
+        backward.reset(backwardTarget);
+    }
+
+    /**
+     * Состояние одной стороны поиска.
+     */
+    private final class Side {
+        private final PackedDirections parents = new PackedDirections();
+        private IndexedMinHeap openSet = new IndexedMinHeap(0);
+        private int[] gScores = new int[0];
+        private int[] stamps = new int[0];
+        private Point target;
+        private int expanded;
+
+        /**
+         * Гарантирует емкость буферов стороны.
+         *
+         * @param cellCount количество ячеек лабиринта
+         * @return true если буферы были пересозданы
+         */
+        private boolean ensureCapacity(int cellCount) {
+            parents.ensureCapacity(cellCount);
+            if (openSet.capacity() >= cellCount) {
+                return false;
+            }
+            openSet = new IndexedMinHeap(cellCount);
+            gScores = new int[cellCount];
+            stamps = new int[cellCount];
+            return true;
+        }
+
+        /**
+         * Подготавливает сторону к новому поиску.
+         *
+         * @param target цель этой стороны для эвристики
+         */
+        private void reset(Point target) {
+            openSet.clear();
+            this.target = target;
+            this.expanded = 0;
+        }
+
+        /**
+         * Проверяет, достигнута ли ячейка этой стороной в текущем поиске.
+         *
+         * @param index индекс ячейки
+         * @return true если для ячейки известна g-стоимость
+         */
+        private boolean isSeen(int index) {
+            return stamps[index] == epoch;
+        }
+
+        /**
+         * Устанавливает g-стоимость ячейки и добавляет ее в открытое множество.
+         *
+         * @param index индекс ячейки
+         * @param gScore стоимость пути от корня стороны
+         * @param direction направление, по которому пришли в ячейку
+         * @param x координата X ячейки
+         * @param y координата Y ячейки
+         */
+        private void relax(int index, int gScore, int direction, int x, int y) {
+            gScores[index] = gScore;
+            stamps[index] = epoch;
+            parents.set(index, direction);
+            int fScore = gScore + Math.abs(x - target.x()) + Math.abs(y - target.y());
+            openSet.insertOrDecrease(index, ((long) fScore << 32) | (Integer.MAX_VALUE - gScore));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import static academy.maze.solver.SolverUtils.validateInput;
+
+/**
+ * Двунаправленный алгоритм A* для решения лабиринтов.
+ * Находит кратчайший путь, встречая поиски от начальной и конечной точек посередине.
+ * Лабиринты, не помещающиеся в массивы, решаются обычным {@link AStarSolver}.
+ */
+public class BidirectionalAStarSolver implements SolverStrategy {
+    private final ThreadLocal<BidirectionalAStarEngine> engine = ThreadLocal.withInitial(BidirectionalAStarEngine::new);
+    private final AStarSolver fallback = new AStarSolver();
+
+    /**
+     * Решает лабиринт двунаправленным алгоритмом A*.
+     * Если путь не найден, возвращается пустой путь.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return найденный путь или пустой путь, если решение не найдено
+     */
+    @Override
+    public Path solve(Maze maze, Point start, Point end) {
+        if (!validateInput(maze, start, end)) {
+            return Path.empty();
+        }
+
+        if (BFSEngine.supports(maze)) {
+            return engine.get().findPath(maze, start, end);
+        }
+        return fallback.solve(maze, start, end);
+    }
+
+    /**
+     * Возвращает статистику последнего решения в текущем потоке.
+     *
+     * @return количество узлов, раскрытых каждой стороной
+     */
+    public SearchStats lastStats() {
+        return engine.get().lastStats();
+    }
+}
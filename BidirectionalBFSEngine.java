@@ -0,0 +1,164 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.Arrays;
+import static academy.maze.solver.SolverUtils.checkCancelled;
+import static academy.maze.solver.SolverUtils.joinPaths;
+
+/**
+ * Двунаправленный поиск в ширину на примитивных массивах.
+ * Поиски от начальной и конечной точек раскрывают уровни целиком, каждый раз продвигая сторону
+ * с меньшей очередью. Если при раскрытии уровня найдены ребра к ячейкам другой стороны,
+ * поиск завершается после окончания уровня с минимальной из найденных длин - такой путь кратчайший.
+ * Буферы переиспользуются между поисками; экземпляр не потокобезопасен.
+ */
+public final class BidirectionalBFSEngine {
+    private static final int INITIAL_QUEUE_CAPACITY = 1 << 10;
+
+    private final Side forward = new Side();
+    private final Side backward = new Side();
+    private int[] stamps = new int[0];
+    private int epoch;
+
+    /**
+     * Находит кратчайший путь между двумя точками.
+     *
+     * @param maze лабиринт
+     * @param start начальная точка
+     * @param end конечная точка
+     * @return кратчайший путь или пустой путь, если конечная точка недостижима
+     */
+    public Path findPath(Maze maze, Point start, Point end) {
+        AdjacencyMasks adjacency = maze.adjacency();
+        int startIndex = maze.index(start);
+        int endIndex = maze.index(end);
+        reset((int) maze.cellCount());
+
+        forward.visit(startIndex, 0, 0);
+        backward.visit(endIndex, 0, 0);
+
+        int best = Integer.MAX_VALUE;
+        int forwardMeet = -1;
+        int backwardMeet = -1;
+
+        while (!forward.queue.isEmpty() && !backward.queue.isEmpty()) {
+            Side side = forward.queue.size() <= backward.queue.size() ? forward : backward;
+            Side other = side == forward ? backward : forward;
+
+            for (int remaining = side.queue.size(); remaining > 0; remaining--) {
+                int current = side.queue.poll();
+                side.expanded++;
+                checkCancelled(side.expanded);
+                int mask = adjacency.mask(current);
+                while (mask != 0) {
+                    int bit = Integer.lowestOneBit(mask);
+                    mask &= mask - 1;
+                    int neighbor = adjacency.neighbor(current, bit);
+                    if (other.isVisited(neighbor)) {
+                        int candidate = side.distances[current] + 1 + other.distances[neighbor];
+                        if (candidate < best) {
+                            best = candidate;
+                            forwardMeet = side == forward ? current : neighbor;
+                            backwardMeet = side == forward ? neighbor : current;
+                        }
+                    }
+                    if (!side.isVisited(neighbor)) {
+                        side.visit(neighbor, side.distances[current] + 1, Integer.numberOfTrailingZeros(bit));
+                    }
+                }
+            }
+
+            if (best != Integer.MAX_VALUE) {
+                return joinPaths(maze, adjacency, forward.parents, startIndex, forwardMeet,
+                    backward.parents, backwardMeet, endIndex);
+            }
+        }
+
+        return Path.empty();
+    }
+
+    /**
+     * Возвращает статистику последнего поиска.
+     *
+     * @return количество узлов, раскрытых каждой стороной
+     */
+    public SearchStats lastStats() {
+        return new SearchStats(forward.expanded, backward.expanded);
+    }
+
+    /**
+     * Подготавливает буферы к новому поиску.
+     *
+     * @param cellCount количество ячеек лабиринта
+     */
+    private void reset(int cellCount) {
+        if (stamps.length < cellCount) {
+            stamps = new int[cellCount];
+            epoch = 0;
+        }
+        if (++epoch == 1 << 30) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+        forward.reset(cellCount, 1);
+        backward.reset(cellCount, 2);
+    }
+
+    /**
+     * Состояние одной стороны поиска.
+     * Ячейки обеих сторон отмечаются в общем массиве отметок: прямая сторона добавляет 1, обратная - 2,
+     * поэтому отметка ячейки, посещенной обеими сторонами, равна {@code epoch * 4 + 3}.
+     */
+    private final class Side {
+        private final PackedDirections parents = new PackedDirections();
+        private final IntRingQueue queue = new IntRingQueue(INITIAL_QUEUE_CAPACITY);
+        private int[] distances = new int[0];
+        private int flag;
+        private int expanded;
+
+        /**
+         * Подготавливает сторону к новому поиску.
+         *
+         * @param cellCount количество ячеек лабиринта
+         * @param flag бит стороны в отметках ячеек
+         */
+        private void reset(int cellCount, int flag) {
+            if (distances.length < cellCount) {
+                distances = new int[cellCount];
+            }
+            parents.ensureCapacity(cellCount);
+            queue.clear();
+            this.flag = flag;
+            this.expanded = 0;
+        }
+
+        /**
+         * Проверяет, посещена ли ячейка этой стороной в текущем поиске.
+         *
+         * @param index индекс ячейки
+         * @return true если ячейка посещена
+         */
+        private boolean isVisited(int index) {
+            int stamp = stamps[index];
+            return stamp >>> 2 == epoch && (stamp & flag) != 0;
+        }
+
+        /**
+         * Отмечает ячейку как посещенную и добавляет ее в очередь.
+         *
+         * @param index индекс ячейки
+         * @param distance расстояние от корня стороны
+         * @param direction направление, по которому пришли в ячейку
+         */
+        private void visit(int index, int distance, int direction) {
+            int stamp = stamps[index];
+            stamps[index] = (stamp >>> 2 == epoch ? stamp : epoch << 2) | flag;
+            distances[index] = distance;
+            parents.set(index, direction);
+            queue.add(index);
+        }
+    }
+}
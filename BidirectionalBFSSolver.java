@@ -0,0 +1,46 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import static academy.maze.solver.SolverUtils.validateInput;
+
+/**
+ * Двунаправленный поиск в ширину для решения лабиринтов.
+ * Находит кратчайший путь, встречая поиски от начальной и конечной точек посередине.
+ * Лабиринты, не помещающиеся в массивы, решаются обычным {@link BFSSolver}.
+ */
+public class BidirectionalBFSSolver implements SolverStrategy {
+    private final ThreadLocal<BidirectionalBFSEngine> engine = ThreadLocal.withInitial(BidirectionalBFSEngine::new);
+    private final BFSSolver fallback = new BFSSolver();
+
+    /**
+     * Решает лабиринт двунаправленным поиском в ширину.
+     * Если путь не найден, возвращается пустой путь.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return найденный путь или пустой путь, если решение не найдено
+     */
+    @Override
+    public Path solve(Maze maze, Point start, Point end) {
+        if (!validateInput(maze, start, end)) {
+            return Path.empty();
+        }
+
+        if (BFSEngine.supports(maze)) {
+            return engine.get().findPath(maze, start, end);
+        }
+        return fallback.solve(maze, start, end);
+    }
+
+    /**
+     * Возвращает статистику последнего решения в текущем потоке.
+     *
+     * @return количество узлов, раскрытых каждой стороной
+     */
+    public SearchStats lastStats() {
+        return engine.get().lastStats();
+    }
+}
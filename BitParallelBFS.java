@@ -0,0 +1,410 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.Arrays;
+
+/**
+ * Поиск в ширину, продвигающий фронт по 64 ячейки за операцию над строками-битсетами лабиринта.
+ * Проходимые ячейки каждой строки упакованы в слова {@code long}; следующий слой вычисляется как
+ * {@code (cur << 1 | cur >>> 1 | up | down) & open & ~visited} с переносом битов между соседними словами.
+ * Для каждой строки фронта хранится диапазон непустых слов, поэтому слой обрабатывается за время,
+ * пропорциональное числу слов фронта, а не площади лабиринта: узкие коридоры идеальных лабиринтов
+ * не замедляются, а на открытых участках одна операция раскрывает до 64 ячеек.
+ * Для восстановления пути расстояние каждой посещенной ячейки хранится по модулю 3 в двух битовых плоскостях:
+ * у соседей расстояния отличаются не больше чем на 1, поэтому предыдущая ячейка пути определяется по остатку.
+ * Буферы переиспользуются между поисками; экземпляр не потокобезопасен.
+ */
+public final class BitParallelBFS {
+    private static final int WORD_BITS = 64;
+
+    private int width;
+    private int height;
+    private int rowWords;
+    private long[] open = new long[0];
+    private long[] visited = new long[0];
+    private long[] frontier = new long[0];
+    private long[] next = new long[0];
+    private long[] plane1 = new long[0];
+    private long[] plane2 = new long[0];
+
+    private int[] rows = new int[0];
+    private int[] rowLow = new int[0];
+    private int[] rowHigh = new int[0];
+    private int rowCount;
+    private int[] nextRows = new int[0];
+    private int[] nextLow = new int[0];
+    private int[] nextHigh = new int[0];
+    private int nextRowCount;
+    private int[] rowSlots = new int[0];
+    private int[] slotStamps = new int[0];
+    private int layerStamp;
+
+    private long[] layers = new long[16];
+    private int layerCount;
+
+    /**
+     * Проверяет, помещаются ли строки-битсеты лабиринта в массивы поиска.
+     *
+     * @param maze лабиринт
+     * @return true если битсеты всех строк помещаются в массив {@code long}
+     */
+    public static boolean supports(Maze maze) {
+        return (long) maze.height() * wordsPerRow(maze.width()) <= Integer.MAX_VALUE - 8;
+    }
+
+    /**
+     * Вычисляет количество ячеек на каждом расстоянии от исходной точки.
+     *
+     * @param maze лабиринт
+     * @param source исходная точка
+     * @return массив, в котором элемент {@code d} - количество ячеек на расстоянии {@code d}
+     */
+    public long[] layerCounts(Maze maze, Point source) {
+        search(maze, source, null);
+        return Arrays.copyOf(layers, layerCount);
+    }
+
+    /**
+     * Вычисляет количество ячеек, достижимых из исходной точки, включая ее саму.
+     *
+     * @param maze лабиринт
+     * @param source исходная точка
+     * @return количество достижимых ячеек
+     */
+    public long reachableCount(Maze maze, Point source) {
+        search(maze, source, null);
+        long total = 0;
+        for (int layer = 0; layer < layerCount; layer++) {
+            total += layers[layer];
+        }
+        return total;
+    }
+
+    /**
+     * Вычисляет длину кратчайшего пути в шагах. Поиск останавливается на слое, содержащем конечную точку.
+     *
+     * @param maze лабиринт
+     * @param source начальная точка
+     * @param target конечная точка
+     * @return количество шагов или -1, если конечная точка недостижима
+     */
+    public int distance(Maze maze, Point source, Point target) {
+        return search(maze, source, target);
+    }
+
+    /**
+     * Проверяет, достижима ли конечная точка из начальной.
+     *
+     * @param maze лабиринт
+     * @param source начальная точка
+     * @param target конечная точка
+     * @return true если путь существует
+     */
+    public boolean isReachable(Maze maze, Point source, Point target) {
+        return search(maze, source, target) >= 0;
+    }
+
+    /**
+     * Находит кратчайший путь, восстанавливая его от конечной точки по остаткам расстояний.
+     *
+     * @param maze лабиринт
+     * @param source начальная точка
+     * @param target конечная точка
+     * @return кратчайший путь или пустой путь, если конечная точка недостижима
+     */
+    public Path findPath(Maze maze, Point source, Point target) {
+        int length = search(maze, source, target);
+        if (length < 0) {
+            return Path.empty();
+        }
+
+        long[] moves = new long[Path.wordCount(length)];
+        int x = target.x();
+        int y = target.y();
+        for (int step = length; step > 0; step--) {
+            int previous = (step - 1) % 3;
+            // Шаг к предыдущей ячейке противоположен коду, который записывается в путь.
+            if (y > 0 && isLayer(x, y - 1, previous)) {
+                y--;
+                Path.setMove(moves, step - 1, 1);
+            }
+            else if (y < height - 1 && isLayer(x, y + 1, previous)) {
+                y++;
+                Path.setMove(moves, step - 1, 0);
+            }
+            else if (x > 0 && isLayer(x - 1, y, previous)) {
+                x--;
+                Path.setMove(moves, step - 1, 3);
+            }
+            else {
+                x++;
+                Path.setMove(moves, step - 1, 2);
+            }
+        }
+        return Path.fromMoves(source, moves, length);
+    }
+
+    /**
+     * Выполняет поиск по слоям.
+     *
+     * @param target конечная точка или null для обхода всей компоненты
+     * @return расстояние до конечной точки или -1
+     */
+    private int search(Maze maze, Point source, Point target) {
+        load(maze);
+        layerCount = 0;
+
+        int sourceWord = source.y() * rowWords + (source.x() >>> 6);
+        long sourceBit = 1L << source.x();
+        if ((open[sourceWord] & sourceBit) == 0) {
+            return -1;
+        }
+        visited[sourceWord] = sourceBit;
+        frontier[sourceWord] = sourceBit;
+        rowCount = 0;
+        rows[rowCount] = source.y();
+        rowLow[rowCount] = source.x() >>> 6;
+        rowHigh[rowCount] = source.x() >>> 6;
+        rowCount++;
+        addLayer(1);
+
+        int targetWord = target == null ? -1 : target.y() * rowWords + (target.x() >>> 6);
+        long targetBit = target == null ? 0 : 1L << target.x();
+        if (sourceWord == targetWord && sourceBit == targetBit) {
+            clearFrontier();
+            return 0;
+        }
+
+        int distance = 0;
+        while (rowCount > 0) {
+            distance++;
+            long reached = expand(distance % 3);
+            clearFrontier();
+            swapFrontier();
+            if (reached == 0) {
+                break;
+            }
+            addLayer(reached);
+            if (targetWord >= 0 && (visited[targetWord] & targetBit) != 0) {
+                clearFrontier();
+                return distance;
+            }
+        }
+        clearFrontier();
+        return -1;
+    }
+
+    /**
+     * Вычисляет следующий слой по текущему фронту.
+     *
+     * @param remainder остаток расстояния слоя по модулю 3
+     * @return количество ячеек слоя
+     */
+    private long expand(int remainder) {
+        nextRowCount = 0;
+        if (++layerStamp == 0) {
+            Arrays.fill(slotStamps, 0);
+            layerStamp = 1;
+        }
+        for (int i = 0; i < rowCount; i++) {
+            int y = rows[i];
+            int low = rowLow[i];
+            int high = rowHigh[i];
+            touch(y, Math.max(0, low - 1), Math.min(rowWords - 1, high + 1));
+            if (y > 0) {
+                touch(y - 1, low, high);
+            }
+            if (y < height - 1) {
+                touch(y + 1, low, high);
+            }
+        }
+
+        long reached = 0;
+        int kept = 0;
+        for (int i = 0; i < nextRowCount; i++) {
+            int y = nextRows[i];
+            int base = y * rowWords;
+            int newLow = -1;
+            int newHigh = -1;
+            for (int w = nextLow[i]; w <= nextHigh[i]; w++) {
+                int index = base + w;
+                long current = frontier[index];
+                long candidates = current << 1 | current >>> 1;
+                if (w > 0) {
+                    candidates |= frontier[index - 1] >>> (WORD_BITS - 1);
+                }
+                if (w < rowWords - 1) {
+                    candidates |= frontier[index + 1] << (WORD_BITS - 1);
+                }
+                if (y > 0) {
+                    candidates |= frontier[index - rowWords];
+                }
+                if (y < height - 1) {
+                    candidates |= frontier[index + rowWords];
+                }
+                long result = candidates & open[index] & ~visited[index];
+                if (result == 0) {
+                    continue;
+                }
+                visited[index] |= result;
+                next[index] = result;
+                if (remainder == 1) {
+                    plane1[index] |= result;
+                }
+                else if (remainder == 2) {
+                    plane2[index] |= result;
+                }
+                reached += Long.bitCount(result);
+                if (newLow < 0) {
+                    newLow = w;
+                }
+                newHigh = w;
+            }
+            if (newLow >= 0) {
+                nextRows[kept] = y;
+                nextLow[kept] = newLow;
+                nextHigh[kept] = newHigh;
+                kept++;
+            }
+        }
+        nextRowCount = kept;
+        return reached;
+    }
+
+    /**
+     * Отмечает диапазон слов строки, который нужно проверить на следующем слое.
+     * Каждая строка попадает в список один раз: ее позиция в списке запоминается до конца слоя.
+     */
+    private void touch(int y, int low, int high) {
+        if (slotStamps[y] == layerStamp) {
+            int slot = rowSlots[y];
+            nextLow[slot] = Math.min(nextLow[slot], low);
+            nextHigh[slot] = Math.max(nextHigh[slot], high);
+            return;
+        }
+        slotStamps[y] = layerStamp;
+        rowSlots[y] = nextRowCount;
+        nextRows[nextRowCount] = y;
+        nextLow[nextRowCount] = low;
+        nextHigh[nextRowCount] = high;
+        nextRowCount++;
+    }
+
+    /**
+     * Обнуляет слова текущего фронта, чтобы массив можно было использовать для следующего слоя.
+     */
+    private void clearFrontier() {
+        for (int i = 0; i < rowCount; i++) {
+            int base = rows[i] * rowWords;
+            Arrays.fill(frontier, base + rowLow[i], base + rowHigh[i] + 1, 0);
+        }
+        rowCount = 0;
+    }
+
+    /**
+     * Делает вычисленный слой текущим фронтом.
+     */
+    private void swapFrontier() {
+        long[] words = frontier;
+        frontier = next;
+        next = words;
+        int[] swap = rows;
+        rows = nextRows;
+        nextRows = swap;
+        swap = rowLow;
+        rowLow = nextLow;
+        nextLow = swap;
+        swap = rowHigh;
+        rowHigh = nextHigh;
+        nextHigh = swap;
+        rowCount = nextRowCount;
+        nextRowCount = 0;
+    }
+
+    /**
+     * Проверяет, что ячейка посещена и ее расстояние имеет указанный остаток по модулю 3.
+     */
+    private boolean isLayer(int x, int y, int remainder) {
+        int index = y * rowWords + (x >>> 6);
+        long bit = 1L << x;
+        if ((visited[index] & bit) == 0) {
+            return false;
+        }
+        int actual = (plane1[index] & bit) != 0 ? 1 : (plane2[index] & bit) != 0 ? 2 : 0;
+        return actual == remainder;
+    }
+
+    private void addLayer(long count) {
+        if (layerCount == layers.length) {
+            layers = Arrays.copyOf(layers, layerCount << 1);
+        }
+        layers[layerCount++] = count;
+    }
+
+    /**
+     * Строит строки-битсеты проходимых внутренних ячеек ({@link Maze#isValidPosition(int, int)}) и очищает буферы поиска.
+     *
+     * @throws IllegalArgumentException если битсеты лабиринта не помещаются в массивы
+     */
+    private void load(Maze maze) {
+        if (!supports(maze)) {
+            throw new IllegalArgumentException("Maze is too large for bit-parallel BFS: "
+                + maze.width() + "x" + maze.height());
+        }
+        width = maze.width();
+        height = maze.height();
+        rowWords = wordsPerRow(width);
+        int words = height * rowWords;
+        if (open.length < words) {
+            open = new long[words];
+            visited = new long[words];
+            frontier = new long[words];
+            next = new long[words];
+            plane1 = new long[words];
+            plane2 = new long[words];
+        }
+        else {
+            Arrays.fill(visited, 0, words, 0);
+            Arrays.fill(plane1, 0, words, 0);
+            Arrays.fill(plane2, 0, words, 0);
+        }
+        if (rows.length < height) {
+            rows = new int[height];
+            rowLow = new int[height];
+            rowHigh = new int[height];
+            nextRows = new int[height];
+            nextLow = new int[height];
+            nextHigh = new int[height];
+            rowSlots = new int[height];
+            slotStamps = new int[height];
+            layerStamp = 0;
+        }
+
+        for (int y = 0; y < height; y++) {
+            long cell = maze.longIndex(0, y);
+            int base = y * rowWords;
+            for (int w = 0; w < rowWords; w++) {
+                long bits = 0;
+                int limit = Math.min(WORD_BITS, width - w * WORD_BITS);
+                for (int bit = 0; bit < limit; bit++) {
+                    if (maze.isPassableAt(cell++)) {
+                        bits |= 1L << bit;
+                    }
+                }
+                open[base + w] = bits;
+            }
+            // Как и решатели, поиск ходит только по внутренним ячейкам: крайние столбцы закрыты.
+            open[base] &= ~1L;
+            open[base + (width - 1) / WORD_BITS] &= ~(1L << (width - 1));
+        }
+        // Крайние строки тоже закрыты.
+        Arrays.fill(open, 0, rowWords, 0);
+        Arrays.fill(open, (height - 1) * rowWords, height * rowWords, 0);
+    }
+
+    private static int wordsPerRow(int width) {
+        return (width + WORD_BITS - 1) / WORD_BITS;
+    }
+}
@@ -0,0 +1,180 @@
+package academy.maze.dto.storage;
+
+import academy.maze.dto.CellType;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Битовое хранилище ячеек: один бит на ячейку в массиве {@code long[]}.
+ * Бит 0 - стена, бит 1 - проходимая ячейка. Проходимые ячейки, отличные от {@link CellType#PATH}
+ * (START, END, SAND, COIN и т.д.), хранятся в небольшой дополнительной таблице.
+ * Подходит для идеальных лабиринтов, которые почти целиком состоят из стен и проходов.
+ * После первого снимка массив слов становится общей неизменяемой основой, а записывающая сторона
+ * копирует только блок из {@link #BLOCK_WORDS} слов, в который пишет. Дополнительная таблица
+ * невелика и копируется целиком при первой записи после снимка.
+ */
+public final class BitmapCellStorage implements CellStorage {
+    /** Приблизительная стоимость одной записи дополнительной таблицы в байтах. */
+    private static final int SPECIAL_ENTRY_BYTES = 64;
+
+    /** Количество слов в блоке копирования при записи (4096 ячеек) */
+    private static final int BLOCK_WORDS = 64;
+    private static final int BLOCK_SHIFT = 6;
+
+    private final long[] words;
+    private long[][] blocks;
+    private boolean[] ownedBlocks;
+    private int copiedBlocks;
+    private Map<Long, CellType> specialCells;
+    private final long size;
+    private boolean specialShared;
+
+    /**
+     * Создает хранилище указанного размера, заполненное стенами.
+     *
+     * @param size количество ячеек
+     * @throws IllegalArgumentException если количество ячеек не помещается в массив слов
+     */
+    public BitmapCellStorage(long size) {
+        long wordCount = (size + 63) >>> 6;
+        if (size < 0 || wordCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Bitmap storage size is out of range: " + size);
+        }
+        this.words = new long[(int) wordCount];
+        this.specialCells = new HashMap<>();
+        this.size = size;
+    }
+
+    /**
+     * Создает снимок поверх разделяемых данных другого хранилища; все блоки снимка разделяемые.
+     *
+     * @param source исходное хранилище
+     */
+    private BitmapCellStorage(BitmapCellStorage source) {
+        this.words = source.words;
+        this.blocks = source.blocks.clone();
+        this.ownedBlocks = new boolean[blocks.length];
+        this.copiedBlocks = source.copiedBlocks;
+        this.specialCells = source.specialCells;
+        this.size = source.size;
+        this.specialShared = true;
+    }
+
+    @Override
+    public CellType get(long index) {
+        if (!isPassable(index)) {
+            return CellType.WALL;
+        }
+        if (specialCells.isEmpty()) {
+            return CellType.PATH;
+        }
+        return specialCells.getOrDefault(index, CellType.PATH);
+    }
+
+    @Override
+    public void set(long index, CellType type) {
+        checkIndex(index);
+        int wordIndex = (int) (index >>> 6);
+        long[] target = writableWords(wordIndex);
+        int offset = blocks == null ? wordIndex : wordIndex & (BLOCK_WORDS - 1);
+        if (specialShared && (type != CellType.PATH || !specialCells.isEmpty())) {
+            specialCells = new HashMap<>(specialCells);
+            specialShared = false;
+        }
+        if (type == CellType.WALL) {
+            target[offset] &= ~(1L << index);
+            specialCells.remove(index);
+            return;
+        }
+        target[offset] |= 1L << index;
+        if (type == CellType.PATH) {
+            specialCells.remove(index);
+        }
+        else {
+            specialCells.put(index, type);
+        }
+    }
+
+    @Override
+    public boolean isPassable(long index) {
+        checkIndex(index);
+        return (wordAt((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long footprintBytes() {
+        return ((long) words.length + (long) copiedBlocks * BLOCK_WORDS) * Long.BYTES
+            + (long) specialCells.size() * SPECIAL_ENTRY_BYTES;
+    }
+
+    @Override
+    public synchronized CellStorage snapshot() {
+        if (blocks == null) {
+            int blockCount = (words.length + BLOCK_WORDS - 1) >>> BLOCK_SHIFT;
+            ownedBlocks = new boolean[blockCount];
+            blocks = new long[blockCount][];
+        }
+        else {
+            Arrays.fill(ownedBlocks, false);
+        }
+        specialShared = true;
+        return new BitmapCellStorage(this);
+    }
+
+    /**
+     * Читает слово из скопированного блока или из общей основы.
+     */
+    private long wordAt(int wordIndex) {
+        if (blocks != null) {
+            long[] block = blocks[wordIndex >>> BLOCK_SHIFT];
+            if (block != null) {
+                return block[wordIndex & (BLOCK_WORDS - 1)];
+            }
+        }
+        return words[wordIndex];
+    }
+
+    /**
+     * Возвращает массив, в который можно писать слово: до первого снимка - основу,
+     * после - собственный блок, копируя его при первой записи.
+     */
+    private long[] writableWords(int wordIndex) {
+        if (blocks == null) {
+            return words;
+        }
+        int blockIndex = wordIndex >>> BLOCK_SHIFT;
+        if (!ownedBlocks[blockIndex]) {
+            long[] block = blocks[blockIndex];
+            if (block == null) {
+                int from = blockIndex << BLOCK_SHIFT;
+                block = Arrays.copyOfRange(words, from, Math.min(words.length, from + BLOCK_WORDS));
+                copiedBlocks++;
+            }
+            else {
+                block = block.clone();
+            }
+            blocks[blockIndex] = block;
+            ownedBlocks[blockIndex] = true;
+        }
+        return blocks[blockIndex];
+    }
+
+    /**
+     * Проверяет, что индекс находится в пределах хранилища.
+     * Последнее слово может содержать неиспользуемые биты, поэтому проверки массива недостаточно.
+     *
+     * @param index индекс ячейки
+     * @throws IndexOutOfBoundsException если индекс вне хранилища
+     */
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Cell index " + index + " out of bounds for size " + size);
+        }
+    }
+}
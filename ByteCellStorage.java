@@ -0,0 +1,126 @@
+package academy.maze.dto.storage;
+
+import academy.maze.dto.CellType;
+import java.util.Arrays;
+
+/**
+ * Хранилище ячеек в плоском массиве {@code byte[]}: один байт (порядковый номер {@link CellType}) на ячейку.
+ * Порядковый номер {@link CellType#WALL} равен нулю, поэтому новое хранилище уже заполнено стенами.
+ * До первого снимка запись идет прямо в массив. После снимка массив становится общей неизменяемой основой,
+ * а записывающая сторона копирует только блок из {@link #BLOCK_SIZE} ячеек, в который пишет,
+ * как {@link TiledCellStorage} копирует плитки.
+ */
+public final class ByteCellStorage implements CellStorage {
+    /** Количество ячеек в блоке копирования при записи */
+    public static final int BLOCK_SIZE = 1 << 12;
+
+    private static final int BLOCK_SHIFT = 12;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final byte WALL_ORDINAL = (byte) CellType.WALL.ordinal();
+
+    private final byte[] cells;
+    private byte[][] blocks;
+    private boolean[] ownedBlocks;
+    private int copiedBlocks;
+
+    /**
+     * Создает хранилище указанного размера, заполненное стенами.
+     *
+     * @param size количество ячеек
+     */
+    public ByteCellStorage(int size) {
+        this(new byte[size]);
+    }
+
+    /**
+     * Создает хранилище поверх готового массива порядковых номеров без копирования.
+     *
+     * @param cells массив порядковых номеров ячеек
+     */
+    public ByteCellStorage(byte[] cells) {
+        this.cells = cells;
+    }
+
+    /**
+     * Создает снимок поверх общей основы и блоков другого хранилища; все блоки снимка разделяемые.
+     *
+     * @param source исходное хранилище
+     */
+    private ByteCellStorage(ByteCellStorage source) {
+        this.cells = source.cells;
+        this.blocks = source.blocks.clone();
+        this.ownedBlocks = new boolean[blocks.length];
+        this.copiedBlocks = source.copiedBlocks;
+    }
+
+    @Override
+    public CellType get(long index) {
+        return CELL_TYPES[ordinalAt(Math.toIntExact(index))];
+    }
+
+    @Override
+    public void set(long index, CellType type) {
+        int position = Math.toIntExact(index);
+        if (blocks == null) {
+            cells[position] = (byte) type.ordinal();
+            return;
+        }
+        int blockIndex = position >>> BLOCK_SHIFT;
+        byte[] block = blocks[blockIndex];
+        if (!ownedBlocks[blockIndex]) {
+            if (block == null) {
+                int from = blockIndex << BLOCK_SHIFT;
+                block = Arrays.copyOfRange(cells, from, Math.min(cells.length, from + BLOCK_SIZE));
+                copiedBlocks++;
+            }
+            else {
+                block = block.clone();
+            }
+            blocks[blockIndex] = block;
+            ownedBlocks[blockIndex] = true;
+        }
+        block[position & BLOCK_MASK] = (byte) type.ordinal();
+    }
+
+    @Override
+    public boolean isPassable(long index) {
+        return ordinalAt(Math.toIntExact(index)) != WALL_ORDINAL;
+    }
+
+    @Override
+    public long size() {
+        return cells.length;
+    }
+
+    @Override
+    public long footprintBytes() {
+        return cells.length + (long) copiedBlocks * BLOCK_SIZE;
+    }
+
+    @Override
+    public synchronized CellStorage snapshot() {
+        if (blocks == null) {
+            int blockCount = (cells.length + BLOCK_MASK) >>> BLOCK_SHIFT;
+            ownedBlocks = new boolean[blockCount];
+            blocks = new byte[blockCount][];
+        }
+        else {
+            Arrays.fill(ownedBlocks, false);
+        }
+        return new ByteCellStorage(this);
+    }
+
+    /**
+     * Читает порядковый номер ячейки из скопированного блока или из общей основы.
+     */
+    private byte ordinalAt(int position) {
+        if (blocks != null) {
+            byte[] block = blocks[position >>> BLOCK_SHIFT];
+            if (block != null) {
+                return block[position & BLOCK_MASK];
+            }
+        }
+        return cells[position];
+    }
+}
@@ -0,0 +1,163 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import static academy.maze.solver.SolverUtils.validateInput;
+
+/**
+ * Декоратор стратегии решения, кэширующий найденные пути.
+ * Ключ кэша - хэш содержимого лабиринта ({@link Maze#contentHash()}) вместе с начальной и конечной точками,
+ * поэтому одинаковые лабиринты разделяют записи. Кэш ограничен суммарным количеством точек в путях
+ * и вытесняет давно не использованные записи (LRU). Записи адресуются содержимым, поэтому изменение
+ * лабиринта их не портит: записи для прежнего содержимого остаются верными для других лабиринтов
+ * с тем же содержимым, а невостребованные со временем вытесняются.
+ * Экземпляр потокобезопасен; решение при промахе выполняется вне блокировки.
+ */
+public class CachingSolver implements SolverStrategy {
+    /** Ограничение кэша по умолчанию, в точках пути */
+    public static final long DEFAULT_MAX_PATH_CELLS = 1L << 24;
+
+    private final SolverStrategy delegate;
+    private final long maxPathCells;
+    private final LinkedHashMap<Key, Path> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedCells;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Ключ записи кэша.
+     *
+     * @param contentHash хэш содержимого лабиринта
+     * @param start начальная точка
+     * @param end конечная точка
+     */
+    private record Key(long contentHash, Point start, Point end) {
+    }
+
+    /**
+     * Статистика кэша.
+     *
+     * @param hits количество попаданий
+     * @param misses количество промахов
+     * @param evictions количество записей, вытесненных из-за ограничения размера
+     * @param entries текущее количество записей
+     * @param cachedCells текущее суммарное количество точек в путях
+     */
+    public record Stats(long hits, long misses, long evictions, int entries, long cachedCells) {
+    }
+
+    /**
+     * Создает кэширующий решатель с ограничением по умолчанию.
+     *
+     * @param delegate стратегия, решающая лабиринт при промахе
+     */
+    public CachingSolver(SolverStrategy delegate) {
+        this(delegate, DEFAULT_MAX_PATH_CELLS);
+    }
+
+    /**
+     * Создает кэширующий решатель.
+     *
+     * @param delegate стратегия, решающая лабиринт при промахе
+     * @param maxPathCells максимальное суммарное количество точек в кэшированных путях
+     * @throws IllegalArgumentException если стратегия не задана или ограничение не положительно
+     */
+    public CachingSolver(SolverStrategy delegate, long maxPathCells) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate solver cannot be null");
+        }
+        if (maxPathCells < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxPathCells);
+        }
+        this.delegate = delegate;
+        this.maxPathCells = maxPathCells;
+    }
+
+    /**
+     * Создает кэширующий решатель поверх решателя {@link Solver}.
+     *
+     * @param solver решатель, используемый при промахе
+     * @param maxPathCells максимальное суммарное количество точек в кэшированных путях
+     */
+    public CachingSolver(Solver solver, long maxPathCells) {
+        this(solver::solve, maxPathCells);
+    }
+
+    /**
+     * Возвращает путь из кэша или решает лабиринт и сохраняет результат.
+     * Пустые пути тоже кэшируются и занимают одну точку ограничения.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return найденный путь или пустой путь, если решение не найдено
+     */
+    @Override
+    public Path solve(Maze maze, Point start, Point end) {
+        if (!validateInput(maze, start, end)) {
+            return Path.empty();
+        }
+
+        Key key = new Key(maze.contentHash(), start, end);
+        synchronized (this) {
+            Path cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        Path stored = delegate.solve(maze, start, end);
+        long weight = weight(stored);
+        if (weight > maxPathCells) {
+            return stored;
+        }
+        synchronized (this) {
+            Path replaced = entries.put(key, stored);
+            if (replaced != null) {
+                cachedCells -= weight(replaced);
+            }
+            cachedCells += weight;
+            evictOverflow();
+        }
+        return stored;
+    }
+
+    /**
+     * Возвращает снимок статистики кэша.
+     *
+     * @return статистика
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size(), cachedCells);
+    }
+
+    /**
+     * Удаляет все записи кэша. Счетчики не сбрасываются.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        cachedCells = 0;
+    }
+
+    /**
+     * Вытесняет самые давние записи, пока кэш превышает ограничение.
+     */
+    private void evictOverflow() {
+        Iterator<Path> iterator = entries.values().iterator();
+        while (cachedCells > maxPathCells && iterator.hasNext()) {
+            cachedCells -= weight(iterator.next());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private static long weight(Path path) {
+        return Math.max(1, path.length());
+    }
+}
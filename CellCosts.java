@@ -0,0 +1,118 @@
+package academy.maze.solver;
+
+import academy.maze.dto.CellType;
+import java.util.Arrays;
+
+/**
+ * Целочисленные стоимости входа в ячейку для каждого типа {@link CellType}.
+ * Стоимости по умолчанию: проход - 2, песок - 4, монетка - 1, что позволяет
+ * выразить "дешевле обычного" без дробных весов. Стены непроходимы и стоимости не имеют.
+ * Экземпляры неизменяемы.
+ */
+public final class CellCosts {
+    private static final CellCosts DEFAULTS = new CellCosts(new int[CellType.values().length])
+        .with(CellType.PATH, 2)
+        .with(CellType.START, 2)
+        .with(CellType.END, 2)
+        .with(CellType.SOLUTION_PATH, 2)
+        .with(CellType.SAND, 4)
+        .with(CellType.COIN, 1);
+
+    private static final CellCosts UNIFORM = new CellCosts(new int[CellType.values().length])
+        .with(CellType.PATH, 1)
+        .with(CellType.START, 1)
+        .with(CellType.END, 1)
+        .with(CellType.SOLUTION_PATH, 1)
+        .with(CellType.SAND, 1)
+        .with(CellType.COIN, 1);
+
+    private final int[] costs;
+    private final int maxCost;
+
+    /**
+     * Создает набор стоимостей из массива, индексированного порядковыми номерами типов ячеек.
+     *
+     * @param costs стоимости входа в ячейку
+     */
+    private CellCosts(int[] costs) {
+        this.costs = costs;
+        this.maxCost = Arrays.stream(costs).max().orElse(0);
+    }
+
+    /**
+     * Возвращает стоимости по умолчанию, учитывающие песок и монетки.
+     *
+     * @return стоимости по умолчанию
+     */
+    public static CellCosts defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Возвращает единичные стоимости для всех проходимых ячеек.
+     *
+     * @return единичные стоимости
+     */
+    public static CellCosts uniform() {
+        return UNIFORM;
+    }
+
+    /**
+     * Создает копию набора с измененной стоимостью для указанного типа ячейки.
+     *
+     * @param type тип проходимой ячейки
+     * @param cost стоимость входа в ячейку, не меньше нуля
+     * @return новый набор стоимостей
+     * @throws IllegalArgumentException если тип непроходим или стоимость отрицательна
+     */
+    public CellCosts with(CellType type, int cost) {
+        if (!type.isPassable()) {
+            throw new IllegalArgumentException("Impassable cell type has no cost: " + type);
+        }
+        if (cost < 0) {
+            throw new IllegalArgumentException("Cell cost must be non-negative: " + cost);
+        }
+        int[] updated = costs.clone();
+        updated[type.ordinal()] = cost;
+        return new CellCosts(updated);
+    }
+
+    /**
+     * Возвращает стоимость входа в ячейку указанного типа.
+     *
+     * @param type тип ячейки
+     * @return стоимость входа
+     */
+    public int costOf(CellType type) {
+        return costs[type.ordinal()];
+    }
+
+    /**
+     * Возвращает максимальную стоимость входа в ячейку.
+     *
+     * @return максимальная стоимость
+     */
+    public int maxCost() {
+        return maxCost;
+    }
+
+    /**
+     * Проверяет, равны ли стоимости всех проходимых ячеек.
+     *
+     * @return true если все проходимые ячейки стоят одинаково
+     */
+    public boolean isUniform() {
+        int first = -1;
+        for (CellType type : CellType.values()) {
+            if (type.isPassable()) {
+                if (first == -1) {
+                    first = costs[type.ordinal()];
+                }
+                else if (costs[type.ordinal()] != first) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
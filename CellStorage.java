@@ -0,0 +1,63 @@
+package academy.maze.dto.storage;
+
+import academy.maze.dto.CellType;
+
+/**
+ * Хранилище ячеек лабиринта.
+ * Ячейки адресуются плоским индексом {@code y * width + x} типа {@code long}; координаты и границы
+ * лабиринта проверяет {@link academy.maze.dto.Maze}.
+ */
+public interface CellStorage {
+
+    /**
+     * Возвращает тип ячейки по индексу.
+     *
+     * @param index индекс ячейки
+     * @return тип ячейки
+     */
+    CellType get(long index);
+
+    /**
+     * Устанавливает тип ячейки по индексу.
+     *
+     * @param index индекс ячейки
+     * @param type тип ячейки
+     */
+    void set(long index, CellType type);
+
+    /**
+     * Проверяет, проходима ли ячейка с указанным индексом.
+     *
+     * @param index индекс ячейки
+     * @return true если ячейка не является стеной
+     */
+    default boolean isPassable(long index) {
+        return get(index).isPassable();
+    }
+
+    /**
+     * Возвращает количество ячеек в хранилище.
+     *
+     * @return количество ячеек
+     */
+    long size();
+
+    /**
+     * Возвращает приблизительный объем памяти, занимаемый ячейками.
+     *
+     * @return размер в байтах
+     */
+    long footprintBytes();
+
+    /**
+     * Создает снимок хранилища.
+     * Снимок и исходное хранилище разделяют данные, пока одно из них не будет изменено:
+     * изменяемая сторона копирует затронутую часть данных перед записью (copy-on-write).
+     * Создание снимка не должно выполняться одновременно с записью в исходное хранилище,
+     * но несколько потоков могут одновременно создавать снимки одного хранилища
+     * (например, наложения {@link academy.maze.dto.Maze#overlay(java.util.Map)} при параллельной отрисовке).
+     *
+     * @return снимок с текущим содержимым хранилища
+     */
+    CellStorage snapshot();
+}
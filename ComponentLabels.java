@@ -0,0 +1,280 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Point;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Разметка компонент связности лабиринта для проверки достижимости за O(1).
+ * Строится двумя проходами по строкам: первый объединяет каждую проходимую ячейку с левым и верхним
+ * проходимым соседом в системе непересекающихся множеств со сжатием путей, второй заменяет ссылки
+ * на родителей номерами компонент в том же массиве {@code int[]}. Корнем множества всегда остается
+ * ячейка с наименьшим индексом, поэтому ссылка на родителя указывает назад и второй проход
+ * выполняется за один линейный просмотр. Большие лабиринты делятся на полосы строк, которые
+ * размечаются параллельно в пуле fork/join, после чего полосы сшиваются по граничным строкам.
+ * Как и решатели, разметка учитывает только внутренние ячейки ({@link Maze#isValidPosition(int, int)}):
+ * проходимые ячейки внешней рамки помечаются как {@link #WALL}, поэтому путь по рамке не связывает компоненты.
+ * Разметка отражает лабиринт на момент построения; изменение ячеек делает ее устаревшей.
+ * Разметка ссылается на лабиринт только слабой ссылкой, поэтому последняя построенная разметка,
+ * которую хранит класс, не удерживает лабиринт от сборки мусора.
+ */
+public final class ComponentLabels {
+    /** Метка непроходимой ячейки */
+    public static final int WALL = -1;
+
+    /** Количество ячеек, начиная с которого разметка строится параллельно */
+    private static final long PARALLEL_THRESHOLD = 1L << 20;
+
+    /** Минимальное количество строк в полосе */
+    private static final int MIN_BAND_ROWS = 64;
+
+    /** Последняя построенная разметка */
+    private static volatile ComponentLabels cache;
+
+    private final WeakReference<Maze> maze;
+    private final int width;
+    private final int height;
+    private final int modCount;
+    private final int[] labels;
+    private final int componentCount;
+
+    private ComponentLabels(Maze maze, int[] labels, int componentCount) {
+        this.maze = new WeakReference<>(maze);
+        this.width = maze.width();
+        this.height = maze.height();
+        this.modCount = maze.modCount();
+        this.labels = labels;
+        this.componentCount = componentCount;
+    }
+
+    /**
+     * Проверяет, помещаются ли ячейки лабиринта в массив разметки.
+     *
+     * @param maze лабиринт
+     * @return true если количество ячеек помещается в {@code int}
+     */
+    public static boolean supports(Maze maze) {
+        return BFSEngine.supports(maze);
+    }
+
+    /**
+     * Возвращает разметку лабиринта, переиспользуя последнюю построенную, если лабиринт тот же и не изменялся.
+     *
+     * @param maze лабиринт
+     * @return актуальная разметка
+     * @throws IllegalArgumentException если лабиринт слишком велик для массива разметки
+     */
+    public static ComponentLabels of(Maze maze) {
+        ComponentLabels current = cached(maze);
+        if (current != null) {
+            return current;
+        }
+        current = compute(maze);
+        cache = current;
+        return current;
+    }
+
+    /**
+     * Возвращает последнюю построенную разметку, если она относится к лабиринту и еще актуальна.
+     * Разметка при этом не строится.
+     *
+     * @param maze лабиринт
+     * @return актуальная разметка или null
+     */
+    public static ComponentLabels cached(Maze maze) {
+        ComponentLabels current = cache;
+        if (current != null && current.isCurrent(maze)) {
+            return current;
+        }
+        return null;
+    }
+
+    /**
+     * Строит разметку лабиринта, выбирая количество полос по размеру лабиринта и параллелизму общего пула.
+     *
+     * @param maze лабиринт
+     * @return разметка
+     * @throws IllegalArgumentException если лабиринт слишком велик для массива разметки
+     */
+    public static ComponentLabels compute(Maze maze) {
+        int bands = 1;
+        if (maze.cellCount() >= PARALLEL_THRESHOLD) {
+            bands = Math.max(1, Math.min(ForkJoinPool.commonPool().getParallelism() * 4, maze.height() / MIN_BAND_ROWS));
+        }
+        return compute(maze, bands);
+    }
+
+    /**
+     * Строит разметку лабиринта, размечая полосы строк параллельно.
+     *
+     * @param maze лабиринт
+     * @param bands количество полос; 1 - последовательная разметка
+     * @return разметка
+     * @throws IllegalArgumentException если лабиринт слишком велик или количество полос меньше 1
+     */
+    public static ComponentLabels compute(Maze maze, int bands) {
+        if (!supports(maze)) {
+            throw new IllegalArgumentException("Maze is too large for component labels: " + maze.cellCount() + " cells");
+        }
+        if (bands < 1) {
+            throw new IllegalArgumentException("Number of bands must be positive: " + bands);
+        }
+        int height = maze.height();
+        int[] parents = new int[(int) maze.cellCount()];
+        bands = Math.min(bands, height);
+
+        if (bands == 1) {
+            labelBand(maze, parents, 0, height);
+        }
+        else {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(bands);
+            for (int band = 0; band < bands; band++) {
+                int fromRow = (int) ((long) height * band / bands);
+                int toRow = (int) ((long) height * (band + 1) / bands);
+                tasks.add(ForkJoinPool.commonPool().submit(() -> labelBand(maze, parents, fromRow, toRow)));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+            for (int band = 1; band < bands; band++) {
+                stitchRow(maze.width(), parents, (int) ((long) height * band / bands));
+            }
+        }
+        return new ComponentLabels(maze, parents, relabel(parents));
+    }
+
+    /**
+     * Возвращает номер компоненты ячейки.
+     *
+     * @param point ячейка
+     * @return номер компоненты от 0 до {@link #componentCount()} - 1 или {@link #WALL} для непроходимой ячейки
+     * @throws IllegalArgumentException если точка вне лабиринта
+     */
+    public int componentOf(Point point) {
+        if (point.x() < 1 || point.x() >= width - 1 || point.y() < 1 || point.y() >= height - 1) {
+            throw new IllegalArgumentException("Point " + point + " is outside maze boundaries");
+        }
+        return labels[point.y() * width + point.x()];
+    }
+
+    /**
+     * Проверяет, лежат ли обе точки в одной компоненте проходимых ячеек.
+     *
+     * @param a первая точка
+     * @param b вторая точка
+     * @return true если обе точки проходимы и связаны
+     * @throws IllegalArgumentException если точка вне лабиринта
+     */
+    public boolean connected(Point a, Point b) {
+        int label = componentOf(a);
+        return label != WALL && label == componentOf(b);
+    }
+
+    /**
+     * Возвращает количество компонент проходимых ячеек.
+     *
+     * @return количество компонент
+     */
+    public int componentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Проверяет, построена ли разметка по текущему состоянию лабиринта.
+     *
+     * @param maze лабиринт
+     * @return true если разметка построена для этого лабиринта и лабиринт с тех пор не менялся
+     */
+    public boolean isCurrent(Maze maze) {
+        return this.maze.get() == maze && modCount == maze.modCount();
+    }
+
+    /**
+     * Первый проход по полосе строк {@code [fromRow, toRow)}: объединяет проходимые ячейки с левым и верхним соседом.
+     * Ссылки не выходят за пределы полосы, поэтому полосы размечаются независимо.
+     */
+    private static void labelBand(Maze maze, int[] parents, int fromRow, int toRow) {
+        int width = maze.width();
+        for (int y = fromRow; y < toRow; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                int index = row + x;
+                if (!maze.isValidPosition(x, y) || !maze.isPassableAt(index)) {
+                    parents[index] = WALL;
+                    continue;
+                }
+                parents[index] = index;
+                if (x > 0 && parents[index - 1] != WALL) {
+                    // Ячейка еще одна в своем множестве, поэтому достаточно подвесить ее к корню левого соседа.
+                    parents[index] = find(parents, index - 1);
+                }
+                if (y > fromRow && parents[index - width] != WALL) {
+                    union(parents, index, index - width);
+                }
+            }
+        }
+    }
+
+    /**
+     * Сшивает полосы по граничной строке: объединяет ее ячейки с проходимыми ячейками строки выше.
+     */
+    private static void stitchRow(int width, int[] parents, int y) {
+        int row = y * width;
+        for (int x = 0; x < width; x++) {
+            int index = row + x;
+            if (parents[index] != WALL && parents[index - width] != WALL) {
+                union(parents, index, index - width);
+            }
+        }
+    }
+
+    /**
+     * Второй проход: заменяет ссылки на родителей номерами компонент.
+     * Родитель каждой ячейки имеет меньший индекс и уже получил номер компоненты, а корень получает новый номер.
+     *
+     * @return количество компонент
+     */
+    private static int relabel(int[] parents) {
+        int count = 0;
+        for (int index = 0; index < parents.length; index++) {
+            int parent = parents[index];
+            if (parent == index) {
+                parents[index] = count++;
+            }
+            else if (parent != WALL) {
+                parents[index] = parents[parent];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Объединяет множества двух ячеек, подвешивая корень с большим индексом к корню с меньшим.
+     */
+    private static void union(int[] parents, int a, int b) {
+        int rootA = find(parents, a);
+        int rootB = find(parents, b);
+        if (rootA < rootB) {
+            parents[rootB] = rootA;
+        }
+        else if (rootB < rootA) {
+            parents[rootA] = rootB;
+        }
+    }
+
+    /**
+     * Находит корень множества ячейки, сокращая путь вдвое по ходу подъема.
+     */
+    private static int find(int[] parents, int index) {
+        while (parents[index] != index) {
+            int parent = parents[index];
+            parents[index] = parents[parent];
+            index = parent;
+        }
+        return index;
+    }
+}
@@ -3,6 +3,7 @@ package academy.maze.generator;
 import academy.maze.dto.CellType;
 import academy.maze.dto.Maze;
 import academy.maze.dto.Point;
+import academy.maze.dto.storage.MazeStorageType;
 import academy.maze.solver.Direction;
 import java.util.ArrayList;
 import java.util.List;
@@ -18,10 +19,23 @@ import static academy.maze.utils.Utils.createStartAndEnd;
  */
 public class DFSGenerator implements GeneratorStrategy {
 
+    private final MazeStorageType storageType;
+
     /**
      * Создает новый генератор лабиринтов по алгоритму DFS.
      */
-    public DFSGenerator() {}
+    public DFSGenerator() {
+        this(MazeStorageType.BYTE);
+    }
+
+    /**
+     * Создает новый генератор лабиринтов по алгоритму DFS с указанным способом хранения ячеек.
+     *
+     * @param storageType способ хранения ячеек генерируемых лабиринтов
+     */
+    public DFSGenerator(MazeStorageType storageType) {
+        this.storageType = storageType;
+    }
 
     /**
      * Генерирует лабиринт указанного размера с использованием алгоритма DFS.
@@ -33,7 +47,17 @@ public class DFSGenerator implements GeneratorStrategy {
      */
     @Override
     public Maze generate(int width, int height) {
-        Maze maze = new Maze(width, height);
+        return generate(new Maze(width, height, storageType));
+    }
+
+    /**
+     * Генерирует лабиринт в уже созданном лабиринте, заполненном стенами.
+     * Позволяет генерировать лабиринты в произвольном хранилище, например во внешней памяти или в файле.
+     *
+     * @param maze лабиринт, заполненный стенами
+     * @return тот же лабиринт со сгенерированными проходами
+     */
+    public Maze generate(Maze maze) {
         Point start = createPoint(1, 1);
 
         DFS(maze, start);
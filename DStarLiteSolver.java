@@ -0,0 +1,302 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.Arrays;
+import java.util.Collection;
+import static academy.maze.solver.SolverUtils.validateInput;
+
+/**
+ * Инкрементальный решатель D* Lite для лабиринтов, которые меняются между запросами.
+ * Поиск ведется от конечной точки к начальной и хранит для каждой ячейки оценку расстояния {@code g}
+ * и одношаговый прогноз {@code rhs}; после изменения ячеек пересчитываются только прогнозы самих ячеек
+ * и их соседей, а очередь восстанавливает согласованность лишь в затронутой части поиска.
+ * Начальную точку можно сдвигать без перезапуска: ключи очереди корректируются накопленной поправкой {@code km}.
+ * Ключ {@code [min(g, rhs) + h + km; min(g, rhs)]} упаковывается в один {@code long} индексированной кучи.
+ * Решатель привязан к одному лабиринту и паре точек, хранит состояние между вызовами и не потокобезопасен.
+ */
+public final class DStarLiteSolver {
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    /** Сдвиг первой компоненты ключа: вторая компонента занимает младший 31 бит */
+    private static final int KEY_SHIFT = 31;
+
+    private final Maze maze;
+    private final int width;
+    private final int goal;
+    private final int[] g;
+    private final int[] rhs;
+    private final IndexedMinHeap openSet;
+    private int start;
+    private int lastStart;
+    private long km;
+    private int expanded;
+    private int touched;
+
+    /**
+     * Создает решатель для лабиринта и пары точек. Сам поиск выполняется при первом вызове {@link #solve()}.
+     *
+     * @param maze лабиринт, который будет меняться через {@link Maze#setCell(Point, academy.maze.dto.CellType)}
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @throws IllegalArgumentException если точки некорректны или лабиринт слишком велик для массивов поиска
+     */
+    public DStarLiteSolver(Maze maze, Point start, Point end) {
+        validateInput(maze, start, end);
+        if (!BFSEngine.supports(maze)) {
+            throw new IllegalArgumentException("Maze is too large for D* Lite: " + maze.cellCount() + " cells");
+        }
+        this.maze = maze;
+        this.width = maze.width();
+        int cellCount = (int) maze.cellCount();
+        this.g = new int[cellCount];
+        this.rhs = new int[cellCount];
+        this.openSet = new IndexedMinHeap(cellCount);
+        Arrays.fill(g, INFINITY);
+        Arrays.fill(rhs, INFINITY);
+
+        this.goal = maze.index(end);
+        this.start = maze.index(start);
+        this.lastStart = this.start;
+        rhs[goal] = 0;
+        openSet.insert(goal, key(goal));
+    }
+
+    /**
+     * Возвращает кратчайший путь для текущего состояния лабиринта, дорабатывая поиск при необходимости.
+     *
+     * @return кратчайший путь или пустой путь, если конечная точка недостижима
+     */
+    public Path solve() {
+        expanded = 0;
+        touched = 0;
+        return currentPath();
+    }
+
+    /**
+     * Учитывает изменение ячеек лабиринта и возвращает обновленный путь.
+     * Ячейки должны быть уже изменены в лабиринте; порядок и повторы в наборе не важны.
+     *
+     * @param changedCells ячейки, тип которых изменился с прошлого вызова
+     * @return кратчайший путь или пустой путь, если конечная точка недостижима
+     * @throws IllegalArgumentException если ячейка лежит вне лабиринта
+     */
+    public Path replan(Collection<Point> changedCells) {
+        expanded = 0;
+        touched = 0;
+        shiftStart();
+
+        AdjacencyMasks adjacency = maze.adjacency();
+        for (Point cell : changedCells) {
+            if (!maze.isValidPosition(cell)) {
+                throw new IllegalArgumentException("Changed cell " + cell + " is outside maze boundaries");
+            }
+            int index = maze.index(cell);
+            refresh(adjacency, index);
+            // Проход между ячейкой и соседом мог появиться или исчезнуть, поэтому соседи берутся по сетке.
+            int x = cell.x();
+            int y = cell.y();
+            if (y > 0) {
+                refresh(adjacency, index - width);
+            }
+            if (y < maze.height() - 1) {
+                refresh(adjacency, index + width);
+            }
+            if (x > 0) {
+                refresh(adjacency, index - 1);
+            }
+            if (x < width - 1) {
+                refresh(adjacency, index + 1);
+            }
+        }
+        return currentPath();
+    }
+
+    /**
+     * Сдвигает начальную точку, сохраняя состояние поиска.
+     * Поправка ключей применяется при следующем запросе пути.
+     *
+     * @param point новая начальная точка
+     * @throws IllegalArgumentException если точка вне лабиринта или на непроходимой ячейке
+     */
+    public void moveStart(Point point) {
+        if (!maze.isValidPosition(point) || !maze.isPassable(point)) {
+            throw new IllegalArgumentException("Start point " + point + " is outside maze or on impassable cell");
+        }
+        start = maze.index(point);
+    }
+
+    /**
+     * Возвращает длину текущего кратчайшего пути, дорабатывая поиск при необходимости.
+     *
+     * @return количество шагов или -1, если конечная точка недостижима
+     */
+    public int distance() {
+        shiftStart();
+        computeShortestPath();
+        return g[start] == INFINITY ? -1 : g[start];
+    }
+
+    /**
+     * Возвращает количество ячеек, раскрытых последним вызовом.
+     *
+     * @return количество раскрытых ячеек
+     */
+    public int lastExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Возвращает количество обращений к ячейкам последним вызовом: раскрытий и пересчетов прогноза {@code rhs}.
+     *
+     * @return количество затронутых ячеек с учетом повторов
+     */
+    public int lastTouched() {
+        return touched;
+    }
+
+    /**
+     * Дорабатывает поиск и восстанавливает путь спуском по оценкам {@code g} от начальной точки.
+     */
+    private Path currentPath() {
+        shiftStart();
+        if (!maze.isPassableAt(start) || !maze.isPassableAt(goal)) {
+            return Path.empty();
+        }
+        computeShortestPath();
+        if (g[start] == INFINITY) {
+            return Path.empty();
+        }
+
+        AdjacencyMasks adjacency = maze.adjacency();
+        Point[] points = new Point[g[start] + 1];
+        int current = start;
+        points[0] = maze.pointAt(current);
+        for (int i = 1; i < points.length; i++) {
+            int next = -1;
+            int mask = adjacency.mask(current);
+            while (mask != 0) {
+                int neighbor = adjacency.neighbor(current, Integer.lowestOneBit(mask));
+                mask &= mask - 1;
+                if (next < 0 || g[neighbor] < g[next]) {
+                    next = neighbor;
+                }
+            }
+            current = next;
+            points[i] = maze.pointAt(current);
+        }
+        return new Path(points);
+    }
+
+    /**
+     * Учитывает сдвиг начальной точки в поправке ключей: эвристика от новой точки меньше прежней
+     * не более чем на расстояние сдвига, поэтому ключи очереди остаются нижними оценками.
+     */
+    private void shiftStart() {
+        km += heuristic(lastStart, start);
+        lastStart = start;
+    }
+
+    /**
+     * Обрабатывает очередь, пока начальная точка не станет согласованной и ее ключ не перестанет превышать минимум очереди.
+     */
+    private void computeShortestPath() {
+        AdjacencyMasks adjacency = maze.adjacency();
+        while (!openSet.isEmpty() && (openSet.peekKey() < key(start) || rhs[start] != g[start])) {
+            long oldKey = openSet.peekKey();
+            int current = openSet.poll();
+            long newKey = key(current);
+            if (oldKey < newKey) {
+                openSet.insert(current, newKey);
+                continue;
+            }
+            expanded++;
+            touched++;
+
+            int mask = adjacency.mask(current);
+            if (g[current] > rhs[current]) {
+                g[current] = rhs[current];
+                int candidate = g[current] + 1;
+                while (mask != 0) {
+                    int neighbor = adjacency.neighbor(current, Integer.lowestOneBit(mask));
+                    mask &= mask - 1;
+                    if (neighbor != goal && candidate < rhs[neighbor]) {
+                        rhs[neighbor] = candidate;
+                        touched++;
+                        updateVertex(neighbor);
+                    }
+                }
+            }
+            else {
+                int oldG = g[current];
+                g[current] = INFINITY;
+                while (mask != 0) {
+                    int neighbor = adjacency.neighbor(current, Integer.lowestOneBit(mask));
+                    mask &= mask - 1;
+                    if (rhs[neighbor] == oldG + 1) {
+                        refresh(adjacency, neighbor);
+                    }
+                }
+                updateVertex(current);
+            }
+        }
+    }
+
+    /**
+     * Пересчитывает прогноз {@code rhs} ячейки по ее текущим соседям и обновляет ее положение в очереди.
+     */
+    private void refresh(AdjacencyMasks adjacency, int cell) {
+        touched++;
+        if (cell != goal) {
+            int best = INFINITY;
+            if (maze.isPassableAt(cell)) {
+                int mask = adjacency.mask(cell);
+                while (mask != 0) {
+                    int neighbor = adjacency.neighbor(cell, Integer.lowestOneBit(mask));
+                    mask &= mask - 1;
+                    if (g[neighbor] != INFINITY && g[neighbor] + 1 < best) {
+                        best = g[neighbor] + 1;
+                    }
+                }
+            }
+            rhs[cell] = best;
+        }
+        else {
+            rhs[cell] = maze.isPassableAt(cell) ? 0 : INFINITY;
+        }
+        updateVertex(cell);
+    }
+
+    /**
+     * Ставит несогласованную ячейку в очередь с актуальным ключом или убирает согласованную из очереди.
+     */
+    private void updateVertex(int cell) {
+        if (g[cell] != rhs[cell]) {
+            openSet.insertOrUpdate(cell, key(cell));
+        }
+        else {
+            openSet.remove(cell);
+        }
+    }
+
+    /**
+     * Вычисляет упакованный ключ ячейки.
+     * Для ячейки без оценки (начальная точка до первого поиска) ключ больше любого ключа очереди.
+     */
+    private long key(int cell) {
+        int best = Math.min(g[cell], rhs[cell]);
+        if (best == INFINITY) {
+            return Long.MAX_VALUE;
+        }
+        return ((best + heuristic(start, cell) + km) << KEY_SHIFT) | best;
+    }
+
+    /**
+     * Вычисляет манхэттенское расстояние между ячейками.
+     */
+    private int heuristic(int from, int to) {
+        return Math.abs(from % width - to % width) + Math.abs(from / width - to / width);
+    }
+}
@@ -0,0 +1,122 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.Arrays;
+import static academy.maze.solver.SolverUtils.checkCancelled;
+import static academy.maze.solver.SolverUtils.buildPath;
+
+/**
+ * Алгоритм Дейкстры с кольцевой очередью корзин (алгоритм Дайала) для малых целых весов.
+ * Вес шага равен стоимости входа в ячейку по {@link CellCosts}. Корзин {@code maxCost + 1},
+ * корзина с номером {@code d mod (maxCost + 1)} содержит ячейки с расстоянием {@code d},
+ * поэтому поиск выполняется за O(V + D), где D - стоимость найденного пути.
+ * Корзины - общая очередь {@link IntBucketQueue}; устаревшие записи не удаляются, а пропускаются при извлечении.
+ * Буферы переиспользуются между поисками; экземпляр не потокобезопасен.
+ */
+public final class DialEngine {
+    private final CellCosts costs;
+    private final PackedDirections parents = new PackedDirections();
+    private final IntBucketQueue queue = new IntBucketQueue();
+    private int[] distances = new int[0];
+    private int[] stamps = new int[0];
+    private int epoch;
+
+    /**
+     * Создает движок с указанными стоимостями ячеек.
+     *
+     * @param costs стоимости входа в ячейки
+     */
+    public DialEngine(CellCosts costs) {
+        this.costs = costs;
+    }
+
+    /**
+     * Находит путь минимальной стоимости между двумя точками.
+     *
+     * @param maze лабиринт
+     * @param start начальная точка
+     * @param end конечная точка
+     * @return путь минимальной стоимости или пустой путь, если конечная точка недостижима
+     */
+    public Path findPath(Maze maze, Point start, Point end) {
+        AdjacencyMasks adjacency = maze.adjacency();
+        int startIndex = maze.index(start);
+        int endIndex = maze.index(end);
+        reset((int) maze.cellCount());
+
+        setDistance(startIndex, 0);
+        queue.add(0, startIndex);
+
+        long settled = 0;
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            int distance = queue.priority();
+            if (distances[current] != distance) {
+                continue;
+            }
+            checkCancelled(++settled);
+            if (current == endIndex) {
+                return buildPath(maze, adjacency, parents, startIndex, endIndex);
+            }
+            relaxNeighbors(maze, adjacency, current, distance);
+        }
+
+        return Path.empty();
+    }
+
+    /**
+     * Обновляет расстояния до соседей извлеченной ячейки.
+     *
+     * @param maze лабиринт
+     * @param adjacency маски смежности лабиринта
+     * @param current индекс извлеченной ячейки
+     * @param distance окончательное расстояние до нее
+     */
+    private void relaxNeighbors(Maze maze, AdjacencyMasks adjacency, int current, int distance) {
+        int mask = adjacency.mask(current);
+        while (mask != 0) {
+            int bit = Integer.lowestOneBit(mask);
+            mask &= mask - 1;
+            int neighbor = adjacency.neighbor(current, bit);
+            int candidate = distance + costs.costOf(maze.getCellAt(neighbor));
+            if (stamps[neighbor] != epoch || candidate < distances[neighbor]) {
+                setDistance(neighbor, candidate);
+                parents.set(neighbor, Integer.numberOfTrailingZeros(bit));
+                queue.add(candidate, neighbor);
+            }
+        }
+    }
+
+    /**
+     * Сохраняет расстояние до ячейки для текущего поиска.
+     *
+     * @param index индекс ячейки
+     * @param distance расстояние
+     */
+    private void setDistance(int index, int distance) {
+        distances[index] = distance;
+        stamps[index] = epoch;
+    }
+
+    /**
+     * Подготавливает буферы к новому поиску.
+     *
+     * @param cellCount количество ячеек лабиринта
+     */
+    private void reset(int cellCount) {
+        if (distances.length < cellCount) {
+            distances = new int[cellCount];
+            stamps = new int[cellCount];
+            epoch = 0;
+        }
+        parents.ensureCapacity(cellCount);
+        queue.reset(costs.maxCost() + 1);
+        if (++epoch == 0) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+}
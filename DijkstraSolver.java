@@ -4,8 +4,7 @@ import academy.maze.dto.Maze;
 import academy.maze.dto.Path;
 import academy.maze.dto.Point;
 import academy.maze.solver.Iterator.NeighborIterator;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -13,12 +12,38 @@ import java.util.Map;
 import java.util.PriorityQueue;
 import static academy.maze.solver.SolverUtils.buildPath;
 import static academy.maze.solver.SolverUtils.validateInput;
+import static academy.maze.solver.SolverUtils.validateSource;
+import static academy.maze.solver.SolverUtils.validateTargets;
 
 /**
  * Реализация алгоритма Дейкстры для решения лабиринтов.
- * Находит кратчайший путь от начальной до конечной точки без использования эвристики.
+ * Находит путь минимальной стоимости от начальной до конечной точки без использования эвристики.
+ * Стоимость шага равна стоимости входа в ячейку по {@link CellCosts}: песок дороже прохода, монетка дешевле.
+ * Лабиринты, помещающиеся в массивы, решаются очередью корзин {@link DialEngine};
+ * для остальных используется очередь с приоритетом на коллекциях точек.
  */
 public class DijkstraSolver implements SolverStrategy {
+    private final CellCosts costs;
+    private final ThreadLocal<DialEngine> engine;
+    private final ThreadLocal<FloodFillEngine> floodFill = ThreadLocal.withInitial(FloodFillEngine::new);
+    private final ThreadLocal<NearestTargetEngine> nearestTargets = ThreadLocal.withInitial(NearestTargetEngine::new);
+
+    /**
+     * Создает решатель со стоимостями ячеек по умолчанию.
+     */
+    public DijkstraSolver() {
+        this(CellCosts.defaults());
+    }
+
+    /**
+     * Создает решатель с указанными стоимостями ячеек.
+     *
+     * @param costs стоимости входа в ячейки
+     */
+    public DijkstraSolver(CellCosts costs) {
+        this.costs = costs;
+        this.engine = ThreadLocal.withInitial(() -> new DialEngine(costs));
+    }
 
     /**
      * Решает лабиринт с использованием алгоритма Дейкстры.
@@ -31,18 +56,65 @@ public class DijkstraSolver implements SolverStrategy {
      */
     @Override
     public Path solve(Maze maze, Point start, Point end) {
-        validateInput(maze, start, end);
+        if (!validateInput(maze, start, end)) {
+            return Path.empty();
+        }
+
+        if (BFSEngine.supports(maze)) {
+            return engine.get().findPath(maze, start, end);
+        }
+        return solveWithCollections(maze, start, end);
+    }
+
+    /**
+     * Вычисляет стоимости путей минимальной стоимости от точки до всех ячеек лабиринта.
+     *
+     * @param maze лабиринт
+     * @param source исходная точка
+     * @return поле расстояний, из которого можно извлечь путь до любой достижимой ячейки
+     * @throws IllegalArgumentException если точка некорректна или лабиринт слишком велик
+     */
+    public DistanceField distanceField(Maze maze, Point source) {
+        validateSource(maze, source);
+        return floodFill.get().compute(maze, source, costs);
+    }
 
+    /**
+     * Находит ближайшие по стоимости пути цели одной заливкой алгоритмом Дайала от всех исходных точек.
+     *
+     * @param maze лабиринт
+     * @param sources исходные точки
+     * @param targets цели
+     * @param limit максимальное количество целей
+     * @return до {@code limit} достижимых целей в порядке неубывания расстояния с путями от ближайших исходных точек
+     * @throws IllegalArgumentException если точки некорректны, {@code limit < 1} или лабиринт слишком велик
+     */
+    public List<TargetMatch> nearestTargets(Maze maze, Collection<Point> sources, Collection<Point> targets, int limit) {
+        validateTargets(maze, sources, targets, limit);
+        return nearestTargets.get().findNearest(maze, sources, targets, limit, costs);
+    }
+
+    /**
+     * Решает лабиринт алгоритмом Дейкстры на коллекциях точек.
+     * Используется для лабиринтов, которые не помещаются в массивы {@link DialEngine}.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return найденный путь или пустой путь, если решение не найдено
+     */
+    private Path solveWithCollections(Maze maze, Point start, Point end) {
         Map<Point, Integer> distances = new HashMap<>();
         Map<Point, Point> previous = new HashMap<>();
-        PriorityQueue<Point> queue = new PriorityQueue<>(Comparator.comparingDouble(x -> distances.getOrDefault(x, Integer.MAX_VALUE)));
+        PriorityQueue<QueueEntry> queue = new PriorityQueue<>(Comparator.comparingInt(QueueEntry::distance));
 
         distances.put(start, 0);
-        queue.add(start);
+        queue.add(new QueueEntry(start, 0));
 
         while (!queue.isEmpty()) {
-            Point point = queue.poll();
-            int curDistance = distances.get(point);
+            QueueEntry entry = queue.poll();
+            Point point = entry.point();
+            int curDistance = entry.distance();
 
             if (curDistance > distances.get(point)) {
                 continue;
@@ -56,7 +128,7 @@ public class DijkstraSolver implements SolverStrategy {
 
             while (neighborIterator.hasNext()) {
                 Point neighbor = neighborIterator.next();
-                processNeighbor(point, neighbor, curDistance, distances, previous, queue);
+                processNeighbor(maze, point, neighbor, curDistance, distances, previous, queue);
             }
         }
 
@@ -67,6 +139,7 @@ public class DijkstraSolver implements SolverStrategy {
      * Обрабатывает соседнюю ячейку в алгоритме Дейкстры.
      * Обновляет расстояние до соседа если найден более короткий путь.
      *
+     * @param maze лабиринт
      * @param current текущая точка
      * @param neighbor соседняя точка
      * @param currentDistance расстояние до текущей точки
@@ -74,13 +147,22 @@ public class DijkstraSolver implements SolverStrategy {
      * @param previous карта предыдущих точек для восстановления пути
      * @param queue очередь с приоритетом для обработки точек
      */
-    private void processNeighbor(Point current, Point neighbor, int currentDistance, Map<Point, Integer> distances, Map<Point, Point> previous, PriorityQueue<Point> queue) {
-        int newDistance = currentDistance + 1;
+    private void processNeighbor(Maze maze, Point current, Point neighbor, int currentDistance, Map<Point, Integer> distances, Map<Point, Point> previous, PriorityQueue<QueueEntry> queue) {
+        int newDistance = currentDistance + costs.costOf(maze.getCell(neighbor));
 
         if (newDistance < distances.getOrDefault(neighbor, Integer.MAX_VALUE)) {
             distances.put(neighbor, newDistance);
             previous.put(neighbor, current);
-            queue.add(neighbor);
+            queue.add(new QueueEntry(neighbor, newDistance));
         }
     }
+
+    /**
+     * Запись очереди с приоритетом: точка и расстояние до нее на момент добавления.
+     * Расстояние хранится в записи, чтобы порядок очереди не зависел от изменяемой карты расстояний.
+     *
+     * @param point точка
+     * @param distance расстояние до точки
+     */
+    private record QueueEntry(Point point, int distance) {}
 }
@@ -19,6 +19,8 @@ public enum Direction {
     /** Направление вправо */
     RIGHT(1, 0);
 
+    private static final Direction[] VALUES = values();
+
     private final int dx;
     private final int dy;
 
@@ -33,6 +35,43 @@ public enum Direction {
         this.dy = dy;
     }
 
+    /**
+     * Возвращает смещение по оси X.
+     *
+     * @return смещение по оси X
+     */
+    public int dx() {
+        return dx;
+    }
+
+    /**
+     * Возвращает смещение по оси Y.
+     *
+     * @return смещение по оси Y
+     */
+    public int dy() {
+        return dy;
+    }
+
+    /**
+     * Возвращает бит направления в маске смежности {@link academy.maze.dto.AdjacencyMasks}.
+     *
+     * @return бит направления
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Возвращает направление по биту маски смежности.
+     *
+     * @param bit бит направления
+     * @return направление, соответствующее биту
+     */
+    public static Direction ofBit(int bit) {
+        return VALUES[Integer.numberOfTrailingZeros(bit)];
+    }
+
     /**
      * Преобразует направление в точку со смещениями.
      *
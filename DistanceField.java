@@ -0,0 +1,139 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import static academy.maze.solver.SolverUtils.buildPath;
+
+/**
+ * Поле расстояний от одной исходной ячейки до всех ячеек лабиринта.
+ * Расстояния хранятся в {@code int[]} по индексам ячеек {@code y * width + x}, направления родителей -
+ * в 2-битном массиве {@link PackedDirections}, поэтому путь до любой достижимой ячейки извлекается
+ * за O(длины пути) без повторного поиска. Поле строится движком {@link FloodFillEngine}
+ * для единичных или взвешенных по {@link CellCosts} шагов и отражает лабиринт на момент построения.
+ */
+public final class DistanceField {
+    /** Расстояние до недостижимой или непроходимой ячейки */
+    public static final int UNREACHABLE = -1;
+
+    private final Maze maze;
+    private final int source;
+    private final int[] distances;
+    private final PackedDirections parents;
+    private final CellCosts costs;
+
+    /**
+     * Создает поле расстояний. Вызывается движком {@link FloodFillEngine}.
+     *
+     * @param maze лабиринт
+     * @param source индекс исходной ячейки
+     * @param distances расстояния по индексам ячеек
+     * @param parents направления родителей
+     * @param costs стоимости ячеек или null для единичных шагов
+     */
+    DistanceField(Maze maze, int source, int[] distances, PackedDirections parents, CellCosts costs) {
+        this.maze = maze;
+        this.source = source;
+        this.distances = distances;
+        this.parents = parents;
+        this.costs = costs;
+    }
+
+    /**
+     * Возвращает лабиринт, по которому построено поле.
+     *
+     * @return лабиринт
+     */
+    public Maze maze() {
+        return maze;
+    }
+
+    /**
+     * Возвращает исходную точку поля.
+     *
+     * @return исходная точка
+     */
+    public Point source() {
+        return maze.pointAt(source);
+    }
+
+    /**
+     * Проверяет, учитывались ли при построении стоимости ячеек.
+     *
+     * @return true если шаги взвешены по стоимостям ячеек
+     */
+    public boolean isWeighted() {
+        return costs != null;
+    }
+
+    /**
+     * Возвращает стоимости ячеек, использованные при построении.
+     *
+     * @return стоимости ячеек или null для единичных шагов
+     */
+    public CellCosts costs() {
+        return costs;
+    }
+
+    /**
+     * Возвращает расстояние до точки.
+     *
+     * @param point точка
+     * @return расстояние или {@link #UNREACHABLE}, если точка недостижима или вне лабиринта
+     */
+    public int distance(Point point) {
+        if (point.x() < 0 || point.y() < 0 || point.x() >= maze.width() || point.y() >= maze.height()) {
+            return UNREACHABLE;
+        }
+        return distances[maze.index(point)];
+    }
+
+    /**
+     * Возвращает расстояние до ячейки по индексу.
+     *
+     * @param index индекс ячейки
+     * @return расстояние или {@link #UNREACHABLE}
+     */
+    public int distanceAt(int index) {
+        return distances[index];
+    }
+
+    /**
+     * Проверяет, достижима ли точка из исходной.
+     *
+     * @param point точка
+     * @return true если точка достижима
+     */
+    public boolean isReachable(Point point) {
+        return distance(point) != UNREACHABLE;
+    }
+
+    /**
+     * Возвращает самую удаленную достижимую точку.
+     * При равных расстояниях выбирается точка с меньшим индексом.
+     *
+     * @return самая удаленная точка
+     */
+    public Point farthest() {
+        int best = source;
+        for (int index = 0; index < distances.length; index++) {
+            if (distances[index] > distances[best]) {
+                best = index;
+            }
+        }
+        return maze.pointAt(best);
+    }
+
+    /**
+     * Извлекает путь от исходной точки до целевой по направлениям родителей.
+     *
+     * @param target целевая точка
+     * @return путь или пустой путь, если точка недостижима
+     */
+    public Path pathTo(Point target) {
+        if (!isReachable(target)) {
+            return Path.empty();
+        }
+        return buildPath(maze, maze.adjacency(), parents, source, maze.index(target));
+    }
+}
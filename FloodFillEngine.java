@@ -0,0 +1,144 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Point;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import static academy.maze.solver.DistanceField.UNREACHABLE;
+
+/**
+ * Заливка лабиринта от одной или нескольких ячеек, строящая {@link DistanceField}.
+ * Без стоимостей выполняется поиск в ширину на {@link IntRingQueue}, со стоимостями - алгоритм Дайала
+ * на {@link IntBucketQueue}, как в {@link DialEngine}, но без остановки на цели. Массивы результата
+ * принадлежат полю расстояний и создаются на каждый вызов; очереди переиспользуются. Экземпляр не потокобезопасен.
+ */
+public final class FloodFillEngine {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final IntRingQueue queue = new IntRingQueue(INITIAL_CAPACITY);
+    private final IntBucketQueue buckets = new IntBucketQueue();
+
+    /**
+     * Вычисляет расстояния в шагах от точки до всех ячеек.
+     *
+     * @param maze лабиринт
+     * @param source исходная точка
+     * @return поле расстояний
+     */
+    public DistanceField compute(Maze maze, Point source) {
+        return compute(maze, source, null);
+    }
+
+    /**
+     * Вычисляет стоимости путей минимальной стоимости от точки до всех ячеек.
+     * Стоимость шага равна стоимости входа в ячейку.
+     *
+     * @param maze лабиринт
+     * @param source исходная точка
+     * @param costs стоимости входа в ячейки или null для расстояний в шагах
+     * @return поле расстояний
+     */
+    public DistanceField compute(Maze maze, Point source, CellCosts costs) {
+        int cellCount = (int) maze.cellCount();
+        int[] distances = new int[cellCount];
+        PackedDirections parents = new PackedDirections();
+        parents.ensureCapacity(cellCount);
+        Arrays.fill(distances, UNREACHABLE);
+
+        int sourceIndex = maze.index(source);
+        flood(maze, new int[] {sourceIndex}, distances, parents, costs, null);
+        return new DistanceField(maze, sourceIndex, distances, parents, costs);
+    }
+
+    /**
+     * Заливает лабиринт от исходных ячеек, записывая окончательные расстояния и направления к родителям.
+     * Исходные ячейки получают расстояние 0; повторы среди них не учитываются.
+     * Ячейки передаются обработчику в порядке окончательного вычисления расстояний, то есть неубывания расстояния.
+     *
+     * @param maze лабиринт
+     * @param sources индексы исходных ячеек
+     * @param distances расстояния, заполненные {@link DistanceField#UNREACHABLE} на всех ячейках лабиринта
+     * @param parents направления к родителям емкостью не меньше количества ячеек
+     * @param costs стоимости входа в ячейки или null для поиска по количеству шагов
+     * @param settled обработчик ячейки с окончательным расстоянием, возвращающий true для остановки, или null
+     */
+    void flood(Maze maze, int[] sources, int[] distances, PackedDirections parents, CellCosts costs,
+               IntPredicate settled) {
+        AdjacencyMasks adjacency = maze.adjacency();
+        if (costs == null) {
+            queue.clear();
+            for (int source : sources) {
+                if (distances[source] != 0) {
+                    distances[source] = 0;
+                    queue.add(source);
+                }
+            }
+            floodSteps(adjacency, distances, parents, settled);
+        }
+        else {
+            buckets.reset(costs.maxCost() + 1);
+            for (int source : sources) {
+                if (distances[source] != 0) {
+                    distances[source] = 0;
+                    buckets.add(0, source);
+                }
+            }
+            floodCosts(maze, adjacency, distances, parents, costs, settled);
+        }
+    }
+
+    /**
+     * Обходит лабиринт в ширину от ячеек, уже находящихся в очереди.
+     */
+    private void floodSteps(AdjacencyMasks adjacency, int[] distances, PackedDirections parents,
+                            IntPredicate settled) {
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            if (settled != null && settled.test(current)) {
+                return;
+            }
+            int next = distances[current] + 1;
+            int mask = adjacency.mask(current);
+            while (mask != 0) {
+                int bit = Integer.lowestOneBit(mask);
+                mask &= mask - 1;
+                int neighbor = adjacency.neighbor(current, bit);
+                if (distances[neighbor] == UNREACHABLE) {
+                    distances[neighbor] = next;
+                    parents.set(neighbor, Integer.numberOfTrailingZeros(bit));
+                    queue.add(neighbor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Обходит лабиринт алгоритмом Дайала от ячеек, уже находящихся в корзинах.
+     */
+    private void floodCosts(Maze maze, AdjacencyMasks adjacency, int[] distances, PackedDirections parents,
+                            CellCosts costs, IntPredicate settled) {
+        while (!buckets.isEmpty()) {
+            int current = buckets.poll();
+            int distance = buckets.priority();
+            if (distances[current] != distance) {
+                continue;
+            }
+            if (settled != null && settled.test(current)) {
+                return;
+            }
+            int mask = adjacency.mask(current);
+            while (mask != 0) {
+                int bit = Integer.lowestOneBit(mask);
+                mask &= mask - 1;
+                int neighbor = adjacency.neighbor(current, bit);
+                int candidate = distance + costs.costOf(maze.getCellAt(neighbor));
+                if (distances[neighbor] == UNREACHABLE || candidate < distances[neighbor]) {
+                    distances[neighbor] = candidate;
+                    parents.set(neighbor, Integer.numberOfTrailingZeros(bit));
+                    buckets.add(candidate, neighbor);
+                }
+            }
+        }
+    }
+}
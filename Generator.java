@@ -1,6 +1,7 @@
 package academy.maze.generator;
 
 import academy.maze.dto.Maze;
+import academy.maze.dto.storage.MazeStorageType;
 
 /**
  * Фабрика и обертка для генераторов лабиринтов.
@@ -39,10 +40,22 @@ public class Generator {
      * @throws IllegalArgumentException если алгоритм не поддерживается
      */
     public static Generator createGenerator(String algorithm) {
+        return createGenerator(algorithm, MazeStorageType.BYTE);
+    }
+
+    /**
+     * Создает генератор для указанного алгоритма и способа хранения ячеек.
+     *
+     * @param algorithm название алгоритма генерации
+     * @param storageType способ хранения ячеек генерируемых лабиринтов
+     * @return генератор лабиринтов
+     * @throws IllegalArgumentException если алгоритм не поддерживается
+     */
+    public static Generator createGenerator(String algorithm, MazeStorageType storageType) {
         return switch (algorithm.toLowerCase()) {
-            case "dfs" -> Generator.createDFSGenerator();
-            case "prim" -> Generator.createPrimGenerator();
-            case "wilson" -> Generator.createWilsonGenerator();
+            case "dfs" -> Generator.createDFSGenerator(storageType);
+            case "prim" -> Generator.createPrimGenerator(storageType);
+            case "wilson" -> Generator.createWilsonGenerator(storageType);
             default -> throw new IllegalArgumentException("Unknown algorithm: " + algorithm + ". Supported algorithms: dfs, prim, wilson");
         };
     }
@@ -50,27 +63,30 @@ public class Generator {
     /**
      * Создает генератор, использующий алгоритм DFS (поиск в глубину).
      *
+     * @param storageType способ хранения ячеек
      * @return генератор с алгоритмом DFS
      */
-    private static Generator createDFSGenerator() {
-        return new Generator(new DFSGenerator());
+    private static Generator createDFSGenerator(MazeStorageType storageType) {
+        return new Generator(new DFSGenerator(storageType));
     }
 
     /**
      * Создает генератор, использующий алгоритм Прима.
      *
+     * @param storageType способ хранения ячеек
      * @return генератор с алгоритмом Прима
      */
-    private static Generator createPrimGenerator() {
-        return new Generator(new PrimGenerator());
+    private static Generator createPrimGenerator(MazeStorageType storageType) {
+        return new Generator(new PrimGenerator(storageType));
     }
 
     /**
      * Создает генератор, использующий алгоритм Уилсона.
      *
+     * @param storageType способ хранения ячеек
      * @return генератор с алгоритмом Уилсона
      */
-    private static Generator createWilsonGenerator() {
-        return new Generator(new WilsonGenerator());
+    private static Generator createWilsonGenerator(MazeStorageType storageType) {
+        return new Generator(new WilsonGenerator(storageType));
     }
 }
@@ -0,0 +1,753 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Иерархический индекс лабиринта для алгоритма HPA*.
+ * Лабиринт делится на квадратные кластеры; на каждой границе соседних кластеров отрезки проходимых пар ячеек
+ * образуют входы, концы которых становятся абстрактными узлами. Внутри кластера заранее вычисляются
+ * расстояния между всеми его узлами (поиском в ширину, не выходящим за границы кластера).
+ * Запрос ищет путь A* по абстрактному графу, а затем уточняет каждое его ребро поиском внутри одного кластера.
+ * Если точки лежат в одном или соседних кластерах, дополнительно выполняется прямой поиск в их общем
+ * прямоугольнике. Готовый путь сглаживается: участки, помещающиеся в окно размером с кластер,
+ * заменяются кратчайшими внутри окна. Путь проходит через входы кластеров, поэтому может быть длиннее
+ * кратчайшего, и верхней оценки отношения длин нет: обходы, выходящие за окно сглаживания, сохраняются.
+ * На лабиринтах с циклами отношение длины к кратчайшей в среднем близко к 1, но отдельные пути
+ * могут быть в разы длиннее; для точного ответа используйте {@link BFSEngine} или {@link AStarEngine}.
+ * Построение выполняется параллельно, по задаче на кластер. Индекс работает с лабиринтами любого размера:
+ * расход памяти пропорционален количеству абстрактных узлов, а не ячеек.
+ * Запросы можно выполнять из нескольких потоков; {@link #update(Point)} блокирует их на время перестроения.
+ */
+public final class HierarchicalIndex {
+    /** Размер кластера по умолчанию, совпадающий с размером плитки {@link academy.maze.dto.storage.TiledCellStorage} */
+    public static final int DEFAULT_CLUSTER_SIZE = 64;
+
+    private static final int[] NO_ENTRANCES = new int[0];
+    private static final char UNREACHABLE = Character.MAX_VALUE;
+    private static final int LONG_ENTRANCE = 6;
+    private static final int ENTRANCE_SPACING = 8;
+
+    private final Maze maze;
+    private final int clusterSize;
+    private final int clustersX;
+    private final int clustersY;
+    private final Cluster[] clusters;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<LocalSearch> localSearch;
+    private final ThreadLocal<AbstractSearch> abstractSearch = ThreadLocal.withInitial(AbstractSearch::new);
+    private int[] nodeOffsets;
+    private int[] nodeClusters;
+    private volatile int modCount;
+
+    private HierarchicalIndex(Maze maze, int clusterSize) {
+        this.maze = maze;
+        this.clusterSize = clusterSize;
+        this.clustersX = (maze.width() + clusterSize - 1) / clusterSize;
+        this.clustersY = (maze.height() + clusterSize - 1) / clusterSize;
+        this.clusters = new Cluster[clustersX * clustersY];
+        this.localSearch = ThreadLocal.withInitial(() -> new LocalSearch(2 * clusterSize));
+    }
+
+    /**
+     * Строит индекс с размером кластера по умолчанию.
+     *
+     * @param maze лабиринт
+     * @return индекс
+     */
+    public static HierarchicalIndex build(Maze maze) {
+        return build(maze, DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * Строит индекс с указанным размером кластера.
+     *
+     * @param maze лабиринт
+     * @param clusterSize сторона кластера в ячейках
+     * @return индекс
+     * @throws IllegalArgumentException если размер кластера меньше 2 или больше 255
+     */
+    public static HierarchicalIndex build(Maze maze, int clusterSize) {
+        if (clusterSize < 2 || clusterSize > 255) {
+            throw new IllegalArgumentException("Cluster size must be between 2 and 255: " + clusterSize);
+        }
+        if (maze.cellCount() <= Integer.MAX_VALUE) {
+            // Маски смежности строятся лениво; строим их до запуска параллельных задач.
+            maze.adjacency();
+        }
+
+        HierarchicalIndex index = new HierarchicalIndex(maze, clusterSize);
+        for (int cy = 0; cy < index.clustersY; cy++) {
+            for (int cx = 0; cx < index.clustersX; cx++) {
+                index.clusters[cy * index.clustersX + cx] = index.new Cluster(cx, cy);
+            }
+        }
+        index.forEachCluster(Cluster::findEntrances);
+        index.forEachCluster(Cluster::computeDistances);
+        index.renumber();
+        index.modCount = maze.modCount();
+        return index;
+    }
+
+    /**
+     * Выполняет действие для каждого кластера в пуле fork/join, по задаче на кластер.
+     *
+     * @param action действие над кластером
+     */
+    private void forEachCluster(Consumer<Cluster> action) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(clusters.length);
+        for (Cluster cluster : clusters) {
+            tasks.add(ForkJoinPool.commonPool().submit(() -> action.accept(cluster)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    /**
+     * Перестраивает кластер, содержащий измененную ячейку, и соседей, у которых изменились общие входы.
+     * Вызывается после каждого изменения ячейки лабиринта. Индекс снова считается актуальным, только если
+     * с прошлой синхронизации изменена ровно одна ячейка; если изменений было больше, индекс остается
+     * устаревшим (см. {@link #isCurrent(Maze)}) и его нужно построить заново.
+     *
+     * @param point измененная ячейка
+     * @throws IllegalArgumentException если точка вне лабиринта
+     */
+    public void update(Point point) {
+        if (point.x() < 0 || point.y() < 0 || point.x() >= maze.width() || point.y() >= maze.height()) {
+            throw new IllegalArgumentException("Point is outside the maze: " + point);
+        }
+        lock.writeLock().lock();
+        try {
+            Cluster cluster = clusters[(point.y() / clusterSize) * clustersX + point.x() / clusterSize];
+            Cluster left = cluster.neighbor(-1, 0);
+            Cluster top = cluster.neighbor(0, -1);
+            Cluster right = cluster.neighbor(1, 0);
+            Cluster bottom = cluster.neighbor(0, 1);
+
+            int[] oldLeft = left == null ? null : left.right;
+            int[] oldTop = top == null ? null : top.bottom;
+            int[] oldRight = cluster.right;
+            int[] oldBottom = cluster.bottom;
+            cluster.findEntrances();
+            if (left != null) {
+                left.findEntrances();
+            }
+            if (top != null) {
+                top.findEntrances();
+            }
+
+            cluster.computeDistances();
+            if (left != null && !Arrays.equals(oldLeft, left.right)) {
+                left.computeDistances();
+            }
+            if (top != null && !Arrays.equals(oldTop, top.bottom)) {
+                top.computeDistances();
+            }
+            if (right != null && !Arrays.equals(oldRight, cluster.right)) {
+                right.computeDistances();
+            }
+            if (bottom != null && !Arrays.equals(oldBottom, cluster.bottom)) {
+                bottom.computeDistances();
+            }
+            renumber();
+            int current = maze.modCount();
+            if (modCount == current - 1) {
+                modCount = current;
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Проверяет, соответствует ли индекс текущему состоянию лабиринта.
+     *
+     * @param maze лабиринт
+     * @return true если индекс построен для этого лабиринта и все изменения учтены через {@link #update(Point)}
+     */
+    public boolean isCurrent(Maze maze) {
+        return this.maze == maze && modCount == maze.modCount();
+    }
+
+    /**
+     * Возвращает лабиринт, по которому построен индекс.
+     *
+     * @return лабиринт
+     */
+    public Maze maze() {
+        return maze;
+    }
+
+    /**
+     * Возвращает количество абстрактных узлов индекса.
+     *
+     * @return количество узлов
+     */
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return nodeOffsets[clusters.length];
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Находит путь между двумя точками по абстрактному графу с уточнением внутри кластеров.
+     *
+     * @param start начальная точка
+     * @param end конечная точка
+     * @return найденный путь или пустой путь, если конечная точка недостижима
+     */
+    public Path findPath(Point start, Point end) {
+        lock.readLock().lock();
+        try {
+            return abstractSearch.get().findPath(start, end);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Пересчитывает глобальные номера абстрактных узлов после изменения входов.
+     */
+    private void renumber() {
+        int[] offsets = new int[clusters.length + 1];
+        for (int i = 0; i < clusters.length; i++) {
+            offsets[i + 1] = offsets[i] + clusters[i].nodeCount();
+        }
+        int[] owners = new int[offsets[clusters.length]];
+        for (int i = 0; i < clusters.length; i++) {
+            Arrays.fill(owners, offsets[i], offsets[i + 1], i);
+        }
+        nodeOffsets = offsets;
+        nodeClusters = owners;
+    }
+
+    /**
+     * Кластер лабиринта. Хранит входы на своей правой и нижней границах;
+     * входы левой и верхней границ принадлежат соседям. Локальные номера узлов идут в порядке:
+     * верхняя, нижняя, левая, правая граница.
+     */
+    private final class Cluster {
+        private final int id;
+        private final int x0;
+        private final int y0;
+        private final int x1;
+        private final int y1;
+        private int[] right = NO_ENTRANCES;
+        private int[] bottom = NO_ENTRANCES;
+        private int[] nodeX = NO_ENTRANCES;
+        private int[] nodeY = NO_ENTRANCES;
+        private char[] distances = new char[0];
+
+        private Cluster(int cx, int cy) {
+            this.id = cy * clustersX + cx;
+            this.x0 = cx * clusterSize;
+            this.y0 = cy * clusterSize;
+            this.x1 = Math.min(x0 + clusterSize, maze.width());
+            this.y1 = Math.min(y0 + clusterSize, maze.height());
+        }
+
+        /**
+         * Создает окно поиска без входов: прямоугольник {@code [x0, x1) x [y0, y1)} со стороной не больше
+         * двух кластеров. Используется для прямого поиска и сглаживания пути.
+         */
+        private Cluster(int x0, int y0, int x1, int y1) {
+            this.id = -1;
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+        }
+
+        /**
+         * Возвращает соседний кластер.
+         *
+         * @param dx смещение по X в кластерах
+         * @param dy смещение по Y в кластерах
+         * @return соседний кластер или null на краю лабиринта
+         */
+        private Cluster neighbor(int dx, int dy) {
+            int cx = id % clustersX + dx;
+            int cy = id / clustersX + dy;
+            if (cx < 0 || cy < 0 || cx >= clustersX || cy >= clustersY) {
+                return null;
+            }
+            return clusters[cy * clustersX + cx];
+        }
+
+        private int[] top() {
+            Cluster above = neighbor(0, -1);
+            return above == null ? NO_ENTRANCES : above.bottom;
+        }
+
+        private int[] left() {
+            Cluster before = neighbor(-1, 0);
+            return before == null ? NO_ENTRANCES : before.right;
+        }
+
+        private int nodeCount() {
+            return nodeX.length;
+        }
+
+        /**
+         * Находит входы на правой и нижней границах кластера.
+         */
+        private void findEntrances() {
+            right = x1 < maze.width() ? entrances(x1 - 1, y0, 0, 1, 1, 0, y1 - y0) : NO_ENTRANCES;
+            bottom = y1 < maze.height() ? entrances(x0, y1 - 1, 1, 0, 0, 1, x1 - x0) : NO_ENTRANCES;
+        }
+
+        /**
+         * Ищет отрезки границы, где проходимы обе ячейки по разные ее стороны.
+         * Короткий отрезок дает один вход посередине, длинный - входы на концах и через каждые
+         * {@link #ENTRANCE_SPACING} ячеек между ними, чтобы путь через открытую область не уходил к концам отрезка.
+         *
+         * @return смещения входов вдоль границы
+         */
+        private int[] entrances(int x, int y, int alongX, int alongY, int acrossX, int acrossY, int length) {
+            int[] result = new int[length];
+            int count = 0;
+            int runStart = -1;
+            for (int i = 0; i <= length; i++) {
+                boolean open = i < length
+                    && maze.isPassable(x + i * alongX, y + i * alongY)
+                    && maze.isPassable(x + i * alongX + acrossX, y + i * alongY + acrossY);
+                if (open && runStart < 0) {
+                    runStart = i;
+                }
+                else if (!open && runStart >= 0) {
+                    int runLength = i - runStart;
+                    if (runLength >= LONG_ENTRANCE) {
+                        for (int offset = runStart; offset < i - 1; offset += ENTRANCE_SPACING) {
+                            result[count++] = offset;
+                        }
+                        result[count++] = i - 1;
+                    }
+                    else {
+                        result[count++] = runStart + runLength / 2;
+                    }
+                    runStart = -1;
+                }
+            }
+            return count == 0 ? NO_ENTRANCES : Arrays.copyOf(result, count);
+        }
+
+        /**
+         * Собирает координаты узлов кластера и вычисляет расстояния между ними внутри кластера.
+         */
+        private void computeDistances() {
+            int[] top = top();
+            int[] left = left();
+            int count = top.length + bottom.length + left.length + right.length;
+            int[] xs = new int[count];
+            int[] ys = new int[count];
+            int n = 0;
+            for (int offset : top) {
+                xs[n] = x0 + offset;
+                ys[n++] = y0;
+            }
+            for (int offset : bottom) {
+                xs[n] = x0 + offset;
+                ys[n++] = y1 - 1;
+            }
+            for (int offset : left) {
+                xs[n] = x0;
+                ys[n++] = y0 + offset;
+            }
+            for (int offset : right) {
+                xs[n] = x1 - 1;
+                ys[n++] = y0 + offset;
+            }
+
+            char[] table = new char[count * count];
+            LocalSearch search = localSearch.get();
+            for (int i = 0; i < count; i++) {
+                search.run(this, xs[i], ys[i]);
+                for (int j = 0; j < count; j++) {
+                    int distance = search.distance(this, xs[j], ys[j]);
+                    table[i * count + j] = distance < 0 ? UNREACHABLE : (char) distance;
+                }
+            }
+            nodeX = xs;
+            nodeY = ys;
+            distances = table;
+        }
+
+        /**
+         * Возвращает локальный номер узла в соседнем кластере, соединенного с узлом этого кластера.
+         *
+         * @param local локальный номер узла
+         * @return глобальный номер парного узла
+         */
+        private int partner(int local) {
+            int topCount = top().length;
+            int bottomCount = bottom.length;
+            int leftCount = left().length;
+            if (local < topCount) {
+                Cluster above = neighbor(0, -1);
+                return nodeOffsets[above.id] + above.top().length + local;
+            }
+            local -= topCount;
+            if (local < bottomCount) {
+                return nodeOffsets[neighbor(0, 1).id] + local;
+            }
+            local -= bottomCount;
+            if (local < leftCount) {
+                Cluster before = neighbor(-1, 0);
+                return nodeOffsets[before.id] + before.top().length + before.bottom.length + before.left().length + local;
+            }
+            local -= leftCount;
+            Cluster after = neighbor(1, 0);
+            return nodeOffsets[after.id] + after.top().length + after.bottom.length + local;
+        }
+
+        private boolean contains(int x, int y) {
+            return x >= x0 && x < x1 && y >= y0 && y < y1;
+        }
+    }
+
+    /**
+     * Поиск в ширину, не выходящий за границы одного кластера или окна поиска.
+     * Буферы размером с окно в два кластера переиспользуются; экземпляр не потокобезопасен.
+     */
+    private final class LocalSearch {
+        private final int[] distances;
+        private final int[] stamps;
+        private final byte[] parents;
+        private final int[] queue;
+        private int epoch;
+
+        private LocalSearch(int side) {
+            int size = side * side;
+            this.distances = new int[size];
+            this.stamps = new int[size];
+            this.parents = new byte[size];
+            this.queue = new int[size];
+        }
+
+        /**
+         * Вычисляет расстояния от ячейки до всех ячеек кластера.
+         */
+        private void run(Cluster cluster, int x, int y) {
+            if (++epoch == 0) {
+                Arrays.fill(stamps, 0);
+                epoch = 1;
+            }
+            int width = cluster.x1 - cluster.x0;
+            int origin = (y - cluster.y0) * width + (x - cluster.x0);
+            distances[origin] = 0;
+            stamps[origin] = epoch;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = origin;
+            while (head < tail) {
+                int current = queue[head++];
+                int cx = cluster.x0 + current % width;
+                int cy = cluster.y0 + current / width;
+                int mask = maze.adjacencyMask(cx, cy);
+                while (mask != 0) {
+                    int bit = Integer.lowestOneBit(mask);
+                    mask &= mask - 1;
+                    Direction direction = Direction.ofBit(bit);
+                    int nx = cx + direction.dx();
+                    int ny = cy + direction.dy();
+                    if (!cluster.contains(nx, ny)) {
+                        continue;
+                    }
+                    int next = (ny - cluster.y0) * width + (nx - cluster.x0);
+                    if (stamps[next] != epoch) {
+                        stamps[next] = epoch;
+                        distances[next] = distances[current] + 1;
+                        parents[next] = (byte) direction.ordinal();
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Возвращает расстояние до ячейки, найденное последним запуском.
+         *
+         * @return расстояние или -1, если ячейка недостижима внутри кластера
+         */
+        private int distance(Cluster cluster, int x, int y) {
+            int local = (y - cluster.y0) * (cluster.x1 - cluster.x0) + (x - cluster.x0);
+            return stamps[local] == epoch ? distances[local] : -1;
+        }
+
+        /**
+         * Добавляет в список путь от точки последнего запуска до ячейки, не включая начальную точку.
+         */
+        private void appendPath(Cluster cluster, int x, int y, List<Point> points) {
+            int length = distance(cluster, x, y);
+            Point[] segment = new Point[length];
+            int width = cluster.x1 - cluster.x0;
+            int cx = x;
+            int cy = y;
+            for (int i = length - 1; i >= 0; i--) {
+                segment[i] = new Point(cx, cy);
+                Direction direction = Direction.ofBit(1 << parents[(cy - cluster.y0) * width + (cx - cluster.x0)]);
+                cx -= direction.dx();
+                cy -= direction.dy();
+            }
+            points.addAll(Arrays.asList(segment));
+        }
+    }
+
+    /**
+     * Поиск A* по абстрактному графу. Начальная и конечная точки добавляются как временные узлы
+     * с номерами сразу после постоянных; если точки в одном или соседних кластерах, между ними добавляется
+     * прямое ребро с длиной пути внутри их общего прямоугольника. Буферы переиспользуются; экземпляр не потокобезопасен.
+     */
+    private final class AbstractSearch {
+        private IndexedMinHeap openSet = new IndexedMinHeap(0);
+        private int[] gScores = new int[0];
+        private int[] parents = new int[0];
+        private int[] stamps = new int[0];
+        private int[] startDistances = new int[0];
+        private int[] endDistances = new int[0];
+        private Cluster directWindow;
+        private int epoch;
+
+        private Path findPath(Point start, Point end) {
+            Cluster startCluster = clusterOf(start);
+            Cluster endCluster = clusterOf(end);
+            int total = nodeOffsets[clusters.length];
+            int startId = total;
+            int endId = total + 1;
+            reset(total + 2, startCluster.nodeCount(), endCluster.nodeCount());
+
+            LocalSearch search = localSearch.get();
+            search.run(startCluster, start.x(), start.y());
+            for (int i = 0; i < startCluster.nodeCount(); i++) {
+                startDistances[i] = search.distance(startCluster, startCluster.nodeX[i], startCluster.nodeY[i]);
+            }
+            directWindow = directWindow(startCluster, endCluster);
+            int direct = -1;
+            if (directWindow == startCluster) {
+                direct = search.distance(startCluster, end.x(), end.y());
+            }
+            else if (directWindow != null) {
+                search.run(directWindow, start.x(), start.y());
+                direct = search.distance(directWindow, end.x(), end.y());
+            }
+            search.run(endCluster, end.x(), end.y());
+            for (int i = 0; i < endCluster.nodeCount(); i++) {
+                endDistances[i] = search.distance(endCluster, endCluster.nodeX[i], endCluster.nodeY[i]);
+            }
+
+            relax(startId, 0, -1, start, end);
+            if (direct >= 0) {
+                relax(endId, direct, startId, end, end);
+            }
+
+            while (!openSet.isEmpty()) {
+                int current = openSet.poll();
+                if (current == endId) {
+                    return refine(start, end, startCluster, endCluster);
+                }
+                int gScore = gScores[current];
+                if (current == startId) {
+                    for (int i = 0; i < startCluster.nodeCount(); i++) {
+                        if (startDistances[i] >= 0) {
+                            relax(nodeOffsets[startCluster.id] + i, startDistances[i], current,
+                                startCluster.nodeX[i], startCluster.nodeY[i], end);
+                        }
+                    }
+                    continue;
+                }
+
+                Cluster cluster = clusters[nodeClusters[current]];
+                int base = nodeOffsets[cluster.id];
+                int local = current - base;
+                int count = cluster.nodeCount();
+                for (int j = 0; j < count; j++) {
+                    char distance = cluster.distances[local * count + j];
+                    if (j != local && distance != UNREACHABLE) {
+                        relax(base + j, gScore + distance, current, cluster.nodeX[j], cluster.nodeY[j], end);
+                    }
+                }
+                int partner = cluster.partner(local);
+                Cluster partnerCluster = clusters[nodeClusters[partner]];
+                int partnerLocal = partner - nodeOffsets[partnerCluster.id];
+                relax(partner, gScore + 1, current,
+                    partnerCluster.nodeX[partnerLocal], partnerCluster.nodeY[partnerLocal], end);
+                if (cluster == endCluster && endDistances[local] >= 0) {
+                    relax(endId, gScore + endDistances[local], current, end, end);
+                }
+            }
+            return Path.empty();
+        }
+
+        private Cluster clusterOf(Point point) {
+            return clusters[(point.y() / clusterSize) * clustersX + point.x() / clusterSize];
+        }
+
+        /**
+         * Возвращает окно прямого поиска: сам кластер, если точки в одном кластере, общий прямоугольник
+         * соседних (в том числе по диагонали) кластеров или null, если кластеры не соседние.
+         */
+        private Cluster directWindow(Cluster startCluster, Cluster endCluster) {
+            if (startCluster == endCluster) {
+                return startCluster;
+            }
+            if (Math.abs(startCluster.x0 - endCluster.x0) > clusterSize
+                || Math.abs(startCluster.y0 - endCluster.y0) > clusterSize) {
+                return null;
+            }
+            return new Cluster(Math.min(startCluster.x0, endCluster.x0), Math.min(startCluster.y0, endCluster.y0),
+                Math.max(startCluster.x1, endCluster.x1), Math.max(startCluster.y1, endCluster.y1));
+        }
+
+        /**
+         * Возвращает окно сглаживания размером с кластер с центром в точке, сдвинутое внутрь лабиринта.
+         */
+        private Cluster windowAround(Point point) {
+            int x0 = Math.max(0, Math.min(point.x() - clusterSize / 2, maze.width() - clusterSize));
+            int y0 = Math.max(0, Math.min(point.y() - clusterSize / 2, maze.height() - clusterSize));
+            return new Cluster(x0, y0, Math.min(x0 + clusterSize, maze.width()), Math.min(y0 + clusterSize, maze.height()));
+        }
+
+        private void relax(int node, int gScore, int parent, Point at, Point end) {
+            relax(node, gScore, parent, at.x(), at.y(), end);
+        }
+
+        private void relax(int node, int gScore, int parent, int x, int y, Point end) {
+            if (stamps[node] == epoch && gScore >= gScores[node]) {
+                return;
+            }
+            gScores[node] = gScore;
+            parents[node] = parent;
+            stamps[node] = epoch;
+            int heuristic = Math.abs(x - end.x()) + Math.abs(y - end.y());
+            openSet.insertOrDecrease(node, ((long) (gScore + heuristic) << 32) | (Integer.MAX_VALUE - gScore));
+        }
+
+        /**
+         * Разворачивает абстрактный путь в путь по ячейкам, уточняя каждое ребро внутри кластера.
+         */
+        private Path refine(Point start, Point end, Cluster startCluster, Cluster endCluster) {
+            int total = nodeOffsets[clusters.length];
+            List<Integer> chain = new ArrayList<>();
+            for (int node = total + 1; node != -1; node = parents[node]) {
+                chain.add(node);
+            }
+
+            List<Point> points = new ArrayList<>(gScores[total + 1] + 1);
+            points.add(start);
+            LocalSearch search = localSearch.get();
+            Point current = start;
+            Cluster currentCluster = startCluster;
+            for (int i = chain.size() - 2; i >= 0; i--) {
+                int node = chain.get(i);
+                Cluster nextCluster;
+                Point next;
+                if (node == total + 1) {
+                    nextCluster = endCluster;
+                    next = end;
+                }
+                else {
+                    nextCluster = clusters[nodeClusters[node]];
+                    int local = node - nodeOffsets[nextCluster.id];
+                    next = new Point(nextCluster.nodeX[local], nextCluster.nodeY[local]);
+                }
+                if (node == total + 1 && parents[node] == total) {
+                    // Прямое ребро от начальной точки к конечной
+                    search.run(directWindow, current.x(), current.y());
+                    search.appendPath(directWindow, next.x(), next.y(), points);
+                }
+                else if (nextCluster != currentCluster) {
+                    points.add(next);
+                }
+                else {
+                    search.run(currentCluster, current.x(), current.y());
+                    search.appendPath(currentCluster, next.x(), next.y(), points);
+                }
+                current = next;
+                currentCluster = nextCluster;
+            }
+            return new Path(smooth(points));
+        }
+
+        /**
+         * Сглаживает путь: от каждой опорной точки ищет в окне вокруг нее самую дальнюю точку пути,
+         * до которой кратчайший путь внутри окна не длиннее участка пути, и заменяет участок этим путем.
+         * Просмотр вперед ограничен площадью окна, чтобы сглаживание оставалось линейным по длине пути.
+         */
+        private List<Point> smooth(List<Point> path) {
+            int count = path.size();
+            if (count < 3) {
+                return path;
+            }
+            LocalSearch search = localSearch.get();
+            List<Point> result = new ArrayList<>(count);
+            result.add(path.get(0));
+            int reach = clusterSize * clusterSize;
+            int anchor = 0;
+            while (anchor < count - 1) {
+                Point from = path.get(anchor);
+                Cluster window = windowAround(from);
+                search.run(window, from.x(), from.y());
+                int best = -1;
+                for (int j = Math.min(count - 1, anchor + reach); j > anchor && best < 0; j--) {
+                    Point candidate = path.get(j);
+                    if (window.contains(candidate.x(), candidate.y())) {
+                        int distance = search.distance(window, candidate.x(), candidate.y());
+                        if (distance >= 0 && distance <= j - anchor) {
+                            best = j;
+                        }
+                    }
+                }
+                if (best < 0) {
+                    // Окно кластера из двух-трех ячеек может не содержать следующую точку пути
+                    best = anchor + 1;
+                    result.add(path.get(best));
+                }
+                else {
+                    Point to = path.get(best);
+                    search.appendPath(window, to.x(), to.y(), result);
+                }
+                anchor = best;
+            }
+            return result;
+        }
+
+        private void reset(int size, int startCount, int endCount) {
+            if (openSet.capacity() < size) {
+                openSet = new IndexedMinHeap(size);
+                gScores = new int[size];
+                parents = new int[size];
+                stamps = new int[size];
+                epoch = 0;
+            }
+            else {
+                openSet.clear();
+            }
+            if (startDistances.length < startCount) {
+                startDistances = new int[startCount];
+            }
+            if (endDistances.length < endCount) {
+                endDistances = new int[endCount];
+            }
+            if (++epoch == 0) {
+                Arrays.fill(stamps, 0);
+                epoch = 1;
+            }
+        }
+    }
+}
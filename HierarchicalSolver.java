@@ -0,0 +1,72 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import static academy.maze.solver.SolverUtils.validateInput;
+
+/**
+ * Решатель HPA*, отвечающий на запросы по иерархическому индексу {@link HierarchicalIndex}.
+ * Предназначен для многократных запросов к очень большим лабиринтам; найденный путь не обязательно
+ * кратчайший, и оценки сверху на его длину нет (см. {@link HierarchicalIndex}). Индекс строится при первом запросе или передается готовым
+ * и перестраивается целиком, если лабиринт изменен без вызова {@link HierarchicalIndex#update(Point)}.
+ */
+public class HierarchicalSolver implements SolverStrategy {
+    private final int clusterSize;
+    private volatile HierarchicalIndex index;
+
+    /**
+     * Создает решатель, строящий индекс с размером кластера по умолчанию при первом запросе.
+     */
+    public HierarchicalSolver() {
+        this.clusterSize = HierarchicalIndex.DEFAULT_CLUSTER_SIZE;
+    }
+
+    /**
+     * Создает решатель с заранее построенным индексом.
+     *
+     * @param index иерархический индекс лабиринта
+     */
+    public HierarchicalSolver(HierarchicalIndex index) {
+        this.clusterSize = HierarchicalIndex.DEFAULT_CLUSTER_SIZE;
+        this.index = index;
+    }
+
+    /**
+     * Решает лабиринт алгоритмом HPA*.
+     * Если путь не найден, возвращается пустой путь.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return найденный путь или пустой путь, если решение не найдено
+     */
+    @Override
+    public Path solve(Maze maze, Point start, Point end) {
+        if (!validateInput(maze, start, end)) {
+            return Path.empty();
+        }
+        return indexFor(maze).findPath(start, end);
+    }
+
+    /**
+     * Возвращает индекс для лабиринта, перестраивая его, если лабиринт другой или был изменен.
+     *
+     * @param maze лабиринт
+     * @return актуальный индекс
+     */
+    public HierarchicalIndex indexFor(Maze maze) {
+        HierarchicalIndex current = index;
+        if (current != null && current.isCurrent(maze)) {
+            return current;
+        }
+        synchronized (this) {
+            current = index;
+            if (current == null || !current.isCurrent(maze)) {
+                current = HierarchicalIndex.build(maze, clusterSize);
+                index = current;
+            }
+            return current;
+        }
+    }
+}
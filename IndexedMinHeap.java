@@ -0,0 +1,279 @@
+package academy.maze.solver;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Индексированная двоичная min-куча над целыми элементами {@code [0, capacity)} с ключами типа {@code long}.
+ * Позиция каждого элемента хранится в массиве, поэтому {@link #decreaseKey(int, long)} выполняется за O(log n)
+ * без поиска элемента в куче. Составные приоритеты (например, f-стоимость и правило разрешения равенства)
+ * упаковываются в один {@code long}.
+ */
+public final class IndexedMinHeap {
+    private static final int ABSENT = -1;
+
+    private int[] heap;
+    private long[] keys;
+    private int[] positions;
+    private int size;
+
+    /**
+     * Создает пустую кучу для элементов из диапазона {@code [0, capacity)}.
+     *
+     * @param capacity количество возможных элементов
+     */
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[Math.min(capacity, 1 << 10)];
+        this.keys = new long[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    /**
+     * Возвращает количество возможных элементов.
+     *
+     * @return размер диапазона элементов
+     */
+    public int capacity() {
+        return positions.length;
+    }
+
+    /**
+     * Проверяет, пуста ли куча.
+     *
+     * @return true если в куче нет элементов
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Возвращает количество элементов в куче.
+     *
+     * @return количество элементов
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает элемент, находящийся на указанной позиции массива кучи.
+     * Позиции {@code [0, size())} позволяют перебрать элементы без извлечения, в порядке кучи.
+     *
+     * @param position позиция в массиве кучи
+     * @return элемент
+     */
+    public int itemAt(int position) {
+        return heap[position];
+    }
+
+    /**
+     * Проверяет, находится ли элемент в куче.
+     *
+     * @param item элемент
+     * @return true если элемент находится в куче
+     */
+    public boolean contains(int item) {
+        return positions[item] != ABSENT;
+    }
+
+    /**
+     * Возвращает ключ элемента, находящегося в куче.
+     *
+     * @param item элемент
+     * @return ключ элемента
+     */
+    public long key(int item) {
+        return keys[item];
+    }
+
+    /**
+     * Добавляет элемент в кучу.
+     *
+     * @param item элемент, которого нет в куче
+     * @param key ключ элемента
+     * @throws IllegalStateException если элемент уже находится в куче
+     */
+    public void insert(int item, long key) {
+        if (contains(item)) {
+            throw new IllegalStateException("Item " + item + " is already in the heap");
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, Math.min(positions.length, heap.length << 1));
+        }
+        keys[item] = key;
+        heap[size] = item;
+        positions[item] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Уменьшает ключ элемента, находящегося в куче.
+     *
+     * @param item элемент
+     * @param key новый ключ, не больше текущего
+     * @throws IllegalArgumentException если новый ключ больше текущего
+     */
+    public void decreaseKey(int item, long key) {
+        if (key > keys[item]) {
+            throw new IllegalArgumentException("New key is greater than the current key");
+        }
+        keys[item] = key;
+        siftUp(positions[item]);
+    }
+
+    /**
+     * Добавляет элемент или уменьшает его ключ, если элемент уже в куче.
+     *
+     * @param item элемент
+     * @param key ключ элемента
+     */
+    public void insertOrDecrease(int item, long key) {
+        if (contains(item)) {
+            decreaseKey(item, key);
+        }
+        else {
+            insert(item, key);
+        }
+    }
+
+    /**
+     * Добавляет элемент или меняет его ключ в любую сторону, если элемент уже в куче.
+     *
+     * @param item элемент
+     * @param key ключ элемента
+     */
+    public void insertOrUpdate(int item, long key) {
+        if (!contains(item)) {
+            insert(item, key);
+            return;
+        }
+        long previous = keys[item];
+        keys[item] = key;
+        if (key < previous) {
+            siftUp(positions[item]);
+        }
+        else if (key > previous) {
+            siftDown(positions[item]);
+        }
+    }
+
+    /**
+     * Удаляет элемент из кучи, если он там находится.
+     *
+     * @param item элемент
+     * @return true если элемент был в куче
+     */
+    public boolean remove(int item) {
+        if (!contains(item)) {
+            return false;
+        }
+        removeAt(positions[item]);
+        return true;
+    }
+
+    /**
+     * Возвращает минимальный ключ кучи без извлечения элемента.
+     *
+     * @return минимальный ключ
+     * @throws NoSuchElementException если куча пуста
+     */
+    public long peekKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return keys[heap[0]];
+    }
+
+    /**
+     * Извлекает элемент с минимальным ключом.
+     *
+     * @return элемент с минимальным ключом
+     * @throws NoSuchElementException если куча пуста
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int min = heap[0];
+        removeAt(0);
+        return min;
+    }
+
+    /**
+     * Удаляет все элементы из кучи за время, пропорциональное их количеству.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    /**
+     * Удаляет элемент, находящийся на указанной позиции кучи.
+     *
+     * @param position позиция в массиве кучи
+     */
+    private void removeAt(int position) {
+        int removed = heap[position];
+        positions[removed] = ABSENT;
+        size--;
+        if (position == size) {
+            return;
+        }
+        int last = heap[size];
+        heap[position] = last;
+        positions[last] = position;
+        siftDown(position);
+        siftUp(positions[last]);
+    }
+
+    /**
+     * Поднимает элемент к корню, пока его ключ меньше ключа родителя.
+     *
+     * @param position позиция элемента
+     */
+    private void siftUp(int position) {
+        int item = heap[position];
+        long key = keys[item];
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            int parent = heap[parentPosition];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[position] = parent;
+            positions[parent] = position;
+            position = parentPosition;
+        }
+        heap[position] = item;
+        positions[item] = position;
+    }
+
+    /**
+     * Опускает элемент к листьям, пока его ключ больше ключа меньшего из детей.
+     *
+     * @param position позиция элемента
+     */
+    private void siftDown(int position) {
+        int item = heap[position];
+        long key = keys[item];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = (position << 1) + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            if (key <= keys[heap[child]]) {
+                break;
+            }
+            heap[position] = heap[child];
+            positions[heap[child]] = position;
+            position = child;
+        }
+        heap[position] = item;
+        positions[item] = position;
+    }
+}
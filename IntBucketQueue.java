@@ -0,0 +1,98 @@
+package academy.maze.solver;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Монотонная очередь с приоритетами на кольце корзин (очередь алгоритма Дайала) для целых элементов.
+ * Корзина с номером {@code p mod bucketCount} содержит элементы с приоритетом {@code p};
+ * добавляемый приоритет должен лежать в диапазоне {@code [priority(), priority() + bucketCount)},
+ * что выполняется, если вес шага не превышает {@code bucketCount - 1}.
+ * Элементы извлекаются в порядке неубывания приоритета; внутри корзины - в обратном порядке добавления.
+ * Используется поисковыми движками для ячеек с малыми целыми расстояниями; устаревшие записи
+ * не удаляются, и вызывающий код пропускает их, сравнивая {@link #priority()} с известным расстоянием.
+ */
+public final class IntBucketQueue {
+    private static final int INITIAL_BUCKET_CAPACITY = 16;
+
+    private int[][] buckets = new int[0][];
+    private int[] bucketSizes = new int[0];
+    private int bucket;
+    private int priority;
+    private long size;
+
+    /**
+     * Очищает очередь и подготавливает указанное количество корзин, сохраняя буферы, если количество не изменилось.
+     *
+     * @param bucketCount количество корзин: максимальный вес шага плюс один
+     * @throws IllegalArgumentException если количество корзин не положительно
+     */
+    public void reset(int bucketCount) {
+        if (bucketCount < 1) {
+            throw new IllegalArgumentException("Number of buckets must be positive: " + bucketCount);
+        }
+        if (buckets.length != bucketCount) {
+            buckets = new int[bucketCount][INITIAL_BUCKET_CAPACITY];
+            bucketSizes = new int[bucketCount];
+        }
+        else {
+            Arrays.fill(bucketSizes, 0);
+        }
+        bucket = 0;
+        priority = 0;
+        size = 0;
+    }
+
+    /**
+     * Проверяет, пуста ли очередь.
+     *
+     * @return true если очередь пуста
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Добавляет элемент с указанным приоритетом.
+     *
+     * @param priority приоритет элемента, не меньше {@link #priority()} и превышающий его меньше чем на количество корзин
+     * @param value элемент
+     */
+    public void add(int priority, int value) {
+        int target = priority % buckets.length;
+        if (bucketSizes[target] == buckets[target].length) {
+            buckets[target] = Arrays.copyOf(buckets[target], buckets[target].length << 1);
+        }
+        buckets[target][bucketSizes[target]++] = value;
+        size++;
+    }
+
+    /**
+     * Извлекает элемент с наименьшим приоритетом.
+     *
+     * @return элемент
+     * @throws NoSuchElementException если очередь пуста
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        while (bucketSizes[bucket] == 0) {
+            priority++;
+            if (++bucket == buckets.length) {
+                bucket = 0;
+            }
+        }
+        size--;
+        return buckets[bucket][--bucketSizes[bucket]];
+    }
+
+    /**
+     * Возвращает приоритет последнего извлеченного элемента.
+     *
+     * @return текущий приоритет очереди
+     */
+    public int priority() {
+        return priority;
+    }
+}
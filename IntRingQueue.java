@@ -0,0 +1,82 @@
+package academy.maze.solver;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Очередь целых чисел на кольцевом буфере {@code int[]}, удваивающемся при заполнении.
+ * Используется поисковыми движками для очередей индексов ячеек без упаковки в объекты.
+ */
+public final class IntRingQueue {
+    private int[] elements;
+    private int head;
+    private int size;
+
+    /**
+     * Создает очередь с указанной начальной емкостью.
+     *
+     * @param initialCapacity начальная емкость, округляется вверх до степени двойки
+     */
+    public IntRingQueue(int initialCapacity) {
+        this.elements = new int[Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1];
+    }
+
+    /**
+     * Проверяет, пуста ли очередь.
+     *
+     * @return true если очередь пуста
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Возвращает количество элементов в очереди.
+     *
+     * @return количество элементов
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Добавляет элемент в конец очереди.
+     *
+     * @param value элемент
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            int[] grown = new int[elements.length << 1];
+            int firstPart = elements.length - head;
+            System.arraycopy(elements, head, grown, 0, firstPart);
+            System.arraycopy(elements, 0, grown, firstPart, head);
+            elements = grown;
+            head = 0;
+        }
+        elements[(head + size) & (elements.length - 1)] = value;
+        size++;
+    }
+
+    /**
+     * Извлекает элемент из начала очереди.
+     *
+     * @return первый элемент очереди
+     * @throws NoSuchElementException если очередь пуста
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int value = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return value;
+    }
+
+    /**
+     * Удаляет все элементы из очереди, сохраняя буфер.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,246 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.Arrays;
+import static academy.maze.dto.AdjacencyMasks.DOWN;
+import static academy.maze.dto.AdjacencyMasks.LEFT;
+import static academy.maze.dto.AdjacencyMasks.RIGHT;
+import static academy.maze.dto.AdjacencyMasks.UP;
+import static academy.maze.solver.SolverUtils.checkCancelled;
+
+/**
+ * Jump Point Search для 4-связной сетки.
+ * Среди симметричных кратчайших путей выбираются канонические: сначала вертикальные шаги, затем горизонтальные.
+ * Горизонтальный прыжок идет по прямой до ячейки, у которой появляется вертикальный проход,
+ * отсутствующий у предыдущей ячейки (вынужденный сосед). Вертикальный прыжок в каждой ячейке
+ * пробует горизонтальные прыжки и останавливается, если один из них находит точку прыжка.
+ * В открытое множество попадают только точки прыжка; путь между ними восстанавливается по прямым отрезкам.
+ * Буферы переиспользуются между поисками; экземпляр не потокобезопасен.
+ */
+public final class JumpPointEngine {
+    private final PackedDirections arrivals = new PackedDirections();
+    private IndexedMinHeap openSet = new IndexedMinHeap(0);
+    private int[] gScores = new int[0];
+    private int[] jumpParents = new int[0];
+    private int[] stamps = new int[0];
+    private int epoch;
+    private int expanded;
+
+    private AdjacencyMasks adjacency;
+    private int width;
+    private int goal;
+
+    /**
+     * Находит кратчайший путь между двумя точками.
+     *
+     * @param maze лабиринт
+     * @param start начальная точка
+     * @param end конечная точка
+     * @return кратчайший путь или пустой путь, если конечная точка недостижима
+     */
+    public Path findPath(Maze maze, Point start, Point end) {
+        this.adjacency = maze.adjacency();
+        this.width = maze.width();
+        this.goal = maze.index(end);
+        int startIndex = maze.index(start);
+        reset((int) maze.cellCount());
+
+        gScores[startIndex] = 0;
+        jumpParents[startIndex] = -1;
+        stamps[startIndex] = epoch;
+        openSet.insert(startIndex, key(0, start.manhattanDistanceTo(end)));
+
+        long polled = 0;
+        try {
+            while (!openSet.isEmpty()) {
+                int current = openSet.poll();
+                checkCancelled(++polled);
+                if (current == goal) {
+                    return buildPath(maze, current);
+                }
+                expanded++;
+
+                if (jumpParents[current] == -1) {
+                    relax(current, jumpVertical(current, UP));
+                    relax(current, jumpVertical(current, DOWN));
+                    relax(current, jumpHorizontal(current, LEFT));
+                    relax(current, jumpHorizontal(current, RIGHT));
+                    continue;
+                }
+
+                int arrival = 1 << arrivals.get(current);
+                if (arrival == LEFT || arrival == RIGHT) {
+                    relax(current, jumpHorizontal(current, arrival));
+                    int forced = adjacency.mask(current) & ~adjacency.mask(previous(current, arrival)) & (UP | DOWN);
+                    if ((forced & UP) != 0) {
+                        relax(current, jumpVertical(current, UP));
+                    }
+                    if ((forced & DOWN) != 0) {
+                        relax(current, jumpVertical(current, DOWN));
+                    }
+                }
+                else {
+                    relax(current, jumpVertical(current, arrival));
+                    relax(current, jumpHorizontal(current, LEFT));
+                    relax(current, jumpHorizontal(current, RIGHT));
+                }
+            }
+            return Path.empty();
+        }
+        finally {
+            this.adjacency = null;
+        }
+    }
+
+    /**
+     * Возвращает количество точек прыжка, раскрытых последним поиском.
+     *
+     * @return количество раскрытых узлов
+     */
+    public int lastExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Прыгает по горизонтали от ячейки до следующей точки прыжка.
+     *
+     * @param from ячейка, из которой начинается прыжок
+     * @param direction бит направления {@link AdjacencyMasks#LEFT} или {@link AdjacencyMasks#RIGHT}
+     * @return индекс точки прыжка или -1, если прыжок упирается в стену
+     */
+    private int jumpHorizontal(int from, int direction) {
+        int current = from;
+        int mask = adjacency.mask(current);
+        while ((mask & direction) != 0) {
+            int previousMask = mask;
+            current = adjacency.neighbor(current, direction);
+            mask = adjacency.mask(current);
+            if (current == goal || (mask & ~previousMask & (UP | DOWN)) != 0) {
+                return current;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Прыгает по вертикали от ячейки до следующей точки прыжка.
+     * Ячейка становится точкой прыжка, если из нее горизонтальный прыжок находит точку прыжка.
+     *
+     * @param from ячейка, из которой начинается прыжок
+     * @param direction бит направления {@link AdjacencyMasks#UP} или {@link AdjacencyMasks#DOWN}
+     * @return индекс точки прыжка или -1, если прыжок упирается в стену
+     */
+    private int jumpVertical(int from, int direction) {
+        int current = from;
+        while ((adjacency.mask(current) & direction) != 0) {
+            current = adjacency.neighbor(current, direction);
+            if (current == goal || jumpHorizontal(current, LEFT) != -1 || jumpHorizontal(current, RIGHT) != -1) {
+                return current;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Обновляет стоимость точки прыжка, достигнутой из текущей.
+     *
+     * @param from текущая точка прыжка
+     * @param to найденная точка прыжка или -1
+     */
+    private void relax(int from, int to) {
+        if (to == -1) {
+            return;
+        }
+        int fromX = from % width;
+        int fromY = from / width;
+        int toX = to % width;
+        int toY = to / width;
+        int tentative = gScores[from] + Math.abs(toX - fromX) + Math.abs(toY - fromY);
+        if (stamps[to] == epoch && tentative >= gScores[to]) {
+            return;
+        }
+        gScores[to] = tentative;
+        jumpParents[to] = from;
+        stamps[to] = epoch;
+        Direction arrival = toX != fromX
+            ? (toX > fromX ? Direction.RIGHT : Direction.LEFT)
+            : (toY > fromY ? Direction.DOWN : Direction.UP);
+        arrivals.set(to, arrival.ordinal());
+        int heuristic = Math.abs(toX - goal % width) + Math.abs(toY - goal / width);
+        openSet.insertOrDecrease(to, key(tentative, heuristic));
+    }
+
+    /**
+     * Возвращает ячейку, из которой пришли в текущую по указанному направлению.
+     *
+     * @param index индекс ячейки
+     * @param arrival бит направления прихода
+     * @return индекс предыдущей ячейки
+     */
+    private int previous(int index, int arrival) {
+        return arrival == RIGHT ? index - 1 : index + 1;
+    }
+
+    /**
+     * Упаковывает f-стоимость в ключ кучи, предпочитая при равенстве узлы с большей g-стоимостью.
+     *
+     * @param gScore стоимость пути от начала
+     * @param heuristic эвристическая оценка до цели
+     * @return ключ кучи
+     */
+    private static long key(int gScore, int heuristic) {
+        return ((long) (gScore + heuristic) << 32) | (Integer.MAX_VALUE - gScore);
+    }
+
+    /**
+     * Разворачивает цепочку точек прыжка в полный путь по ячейкам.
+     *
+     * @param maze лабиринт
+     * @param endIndex индекс конечной точки
+     * @return путь от начальной до конечной точки
+     */
+    private Path buildPath(Maze maze, int endIndex) {
+        Point[] points = new Point[gScores[endIndex] + 1];
+        int position = points.length - 1;
+        int current = endIndex;
+        points[position] = maze.pointAt(current);
+        while (jumpParents[current] != -1) {
+            int parent = jumpParents[current];
+            int step = current / width == parent / width
+                ? (parent > current ? 1 : -1)
+                : (parent > current ? width : -width);
+            while (current != parent) {
+                current += step;
+                points[--position] = maze.pointAt(current);
+            }
+        }
+        return new Path(points);
+    }
+
+    /**
+     * Подготавливает буферы к новому поиску.
+     *
+     * @param cellCount количество ячеек лабиринта
+     */
+    private void reset(int cellCount) {
+        if (openSet.capacity() < cellCount) {
+            openSet = new IndexedMinHeap(cellCount);
+            gScores = new int[cellCount];
+            jumpParents = new int[cellCount];
+            stamps = new int[cellCount];
+            epoch = 0;
+        }
+        else {
+            openSet.clear();
+        }
+        arrivals.ensureCapacity(cellCount);
+        expanded = 0;
+        if (++epoch == 0) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import static academy.maze.solver.SolverUtils.validateInput;
+
+/**
+ * Jump Point Search для решения лабиринтов с открытыми участками и циклами.
+ * Находит кратчайший путь, добавляя в очередь только точки прыжка вместо каждой ячейки.
+ * Лабиринты, не помещающиеся в массивы, решаются обычным {@link AStarSolver}.
+ */
+public class JumpPointSolver implements SolverStrategy {
+    private final ThreadLocal<JumpPointEngine> engine = ThreadLocal.withInitial(JumpPointEngine::new);
+    private final AStarSolver fallback = new AStarSolver();
+
+    /**
+     * Решает лабиринт алгоритмом Jump Point Search.
+     * Если путь не найден, возвращается пустой путь.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return найденный путь или пустой путь, если решение не найдено
+     */
+    @Override
+    public Path solve(Maze maze, Point start, Point end) {
+        if (!validateInput(maze, start, end)) {
+            return Path.empty();
+        }
+
+        if (BFSEngine.supports(maze)) {
+            return engine.get().findPath(maze, start, end);
+        }
+        return fallback.solve(maze, start, end);
+    }
+
+    /**
+     * Возвращает количество точек прыжка, раскрытых последним решением в текущем потоке.
+     *
+     * @return количество раскрытых узлов
+     */
+    public int lastExpanded() {
+        return engine.get().lastExpanded();
+    }
+}
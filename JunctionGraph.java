@@ -0,0 +1,364 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import java.util.Arrays;
+import static academy.maze.solver.SolverUtils.checkCancelled;
+
+/**
+ * Граф развилок лабиринта: коридоры из ячеек с ровно двумя проходимыми соседями стянуты в ребра.
+ * Узлы графа - развилки, тупики и изолированные ячейки; в коридорах-кольцах без развилок
+ * узлом назначается одна из ячеек кольца. Вес ребра - длина коридора в шагах.
+ * Ячейки коридора хранятся не списком точек, а 2-битными шагами в общем массиве {@link PackedDirections},
+ * поэтому граф занимает порядка четверти байта на ячейку коридора.
+ * Граф не меняется после построения и может использоваться несколькими потоками;
+ * после изменения лабиринта его нужно построить заново (см. {@link #isCurrent(Maze)}).
+ */
+public final class JunctionGraph {
+    private final Maze maze;
+    private final int modCount;
+    private final int[] nodeCells;
+    private final long[] nodeBits;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final int[] edgeLengths;
+    private final int[] edgeOffsets;
+    private final PackedDirections moves;
+    private final int[] linkStarts;
+    private final int[] links;
+
+    private JunctionGraph(Maze maze, int[] nodeCells, long[] nodeBits, int[] edgeFrom, int[] edgeTo,
+                          int[] edgeLengths, int[] edgeOffsets, PackedDirections moves) {
+        this.maze = maze;
+        this.modCount = maze.modCount();
+        this.nodeCells = nodeCells;
+        this.nodeBits = nodeBits;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.edgeLengths = edgeLengths;
+        this.edgeOffsets = edgeOffsets;
+        this.moves = moves;
+
+        int nodeCount = nodeCells.length;
+        this.linkStarts = new int[nodeCount + 1];
+        for (int edge = 0; edge < edgeFrom.length; edge++) {
+            linkStarts[edgeFrom[edge] + 1]++;
+            linkStarts[edgeTo[edge] + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            linkStarts[node + 1] += linkStarts[node];
+        }
+        this.links = new int[linkStarts[nodeCount]];
+        int[] fill = Arrays.copyOf(linkStarts, nodeCount);
+        for (int edge = 0; edge < edgeFrom.length; edge++) {
+            links[fill[edgeFrom[edge]]++] = edge << 1;
+            links[fill[edgeTo[edge]]++] = (edge << 1) | 1;
+        }
+    }
+
+    /**
+     * Строит граф развилок для лабиринта.
+     *
+     * @param maze лабиринт
+     * @return граф развилок
+     * @throws IllegalArgumentException если лабиринт слишком велик для индексации ячеек типом {@code int}
+     * @throws java.util.concurrent.CancellationException если поток прерван во время построения
+     */
+    public static JunctionGraph build(Maze maze) {
+        if (!BFSEngine.supports(maze)) {
+            throw new IllegalArgumentException("Maze is too large for a junction graph: " + maze.cellCount() + " cells");
+        }
+        AdjacencyMasks adjacency = maze.adjacency();
+        int cellCount = (int) maze.cellCount();
+        long[] nodeBits = new long[(cellCount + 63) >>> 6];
+        long[] corridorBits = new long[(cellCount + 63) >>> 6];
+        IntBuffer nodes = new IntBuffer();
+
+        // Каждая ячейка коридора дает один шаг, а каждое ребро - еще один шаг в конечный узел;
+        // ребер ровно половина от суммы степеней узлов.
+        long moveTotal = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            checkCancelled(cell);
+            if (!maze.isPassableAt(cell)) {
+                continue;
+            }
+            int degree = Integer.bitCount(adjacency.mask(cell));
+            if (degree == 2) {
+                moveTotal += 2;
+            }
+            else {
+                setBit(nodeBits, cell);
+                nodes.add(cell);
+                moveTotal += degree;
+            }
+        }
+        if (moveTotal / 2 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maze has too many corridor steps for a junction graph: " + moveTotal / 2);
+        }
+
+        PackedDirections moves = new PackedDirections();
+        moves.ensureCapacity((int) (moveTotal / 2));
+        IntBuffer fromCells = new IntBuffer();
+        IntBuffer toCells = new IntBuffer();
+        IntBuffer lengths = new IntBuffer();
+        IntBuffer offsets = new IntBuffer();
+        int moveCount = 0;
+
+        for (int i = 0; i < nodes.size(); i++) {
+            checkCancelled(i);
+            moveCount = traceCorridors(adjacency, nodes.get(i), nodeBits, corridorBits, moves, moveCount,
+                fromCells, toCells, lengths, offsets);
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            checkCancelled(cell);
+            if (maze.isPassableAt(cell) && !testBit(nodeBits, cell) && !testBit(corridorBits, cell)) {
+                setBit(nodeBits, cell);
+                nodes.add(cell);
+                moveCount = traceCorridors(adjacency, cell, nodeBits, corridorBits, moves, moveCount,
+                    fromCells, toCells, lengths, offsets);
+            }
+        }
+
+        int[] nodeCells = nodes.toArray();
+        Arrays.sort(nodeCells);
+        int edgeCount = lengths.size();
+        int[] edgeFrom = new int[edgeCount];
+        int[] edgeTo = new int[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            edgeFrom[edge] = Arrays.binarySearch(nodeCells, fromCells.get(edge));
+            edgeTo[edge] = Arrays.binarySearch(nodeCells, toCells.get(edge));
+        }
+        return new JunctionGraph(maze, nodeCells, nodeBits, edgeFrom, edgeTo, lengths.toArray(), offsets.toArray(), moves);
+    }
+
+    /**
+     * Проходит все еще не пройденные коридоры, выходящие из узла, и записывает их как ребра.
+     * Коридор нулевой длины (соседние узлы) записывается узлом с меньшим индексом.
+     *
+     * @return количество записанных шагов после обработки узла
+     */
+    private static int traceCorridors(AdjacencyMasks adjacency, int node, long[] nodeBits, long[] corridorBits,
+                                      PackedDirections moves, int moveCount, IntBuffer fromCells, IntBuffer toCells,
+                                      IntBuffer lengths, IntBuffer offsets) {
+        int mask = adjacency.mask(node);
+        while (mask != 0) {
+            int bit = Integer.lowestOneBit(mask);
+            mask &= mask - 1;
+            int first = adjacency.neighbor(node, bit);
+            if (testBit(nodeBits, first) ? first < node : testBit(corridorBits, first)) {
+                continue;
+            }
+
+            int offset = moveCount;
+            int current = node;
+            int step = bit;
+            while (true) {
+                moves.set(moveCount++, Integer.numberOfTrailingZeros(step));
+                current = adjacency.neighbor(current, step);
+                if (testBit(nodeBits, current)) {
+                    break;
+                }
+                setBit(corridorBits, current);
+                step = adjacency.mask(current) & ~oppositeBit(step);
+            }
+            fromCells.add(node);
+            toCells.add(current);
+            lengths.add(moveCount - offset);
+            offsets.add(offset);
+        }
+        return moveCount;
+    }
+
+    /**
+     * Проверяет, построен ли граф по текущему состоянию лабиринта.
+     *
+     * @param maze лабиринт
+     * @return true если граф построен для этого лабиринта и лабиринт с тех пор не менялся
+     */
+    public boolean isCurrent(Maze maze) {
+        return this.maze == maze && modCount == maze.modCount();
+    }
+
+    /**
+     * Возвращает лабиринт, по которому построен граф.
+     *
+     * @return лабиринт
+     */
+    public Maze maze() {
+        return maze;
+    }
+
+    /**
+     * Возвращает количество узлов графа.
+     *
+     * @return количество узлов
+     */
+    public int nodeCount() {
+        return nodeCells.length;
+    }
+
+    /**
+     * Возвращает количество ребер (коридоров) графа.
+     *
+     * @return количество ребер
+     */
+    public int edgeCount() {
+        return edgeLengths.length;
+    }
+
+    /**
+     * Проверяет, является ли ячейка узлом графа.
+     *
+     * @param cell индекс ячейки
+     * @return true если ячейка - узел
+     */
+    public boolean isNode(int cell) {
+        return testBit(nodeBits, cell);
+    }
+
+    /**
+     * Возвращает номер узла по индексу ячейки.
+     *
+     * @param cell индекс ячейки
+     * @return номер узла или отрицательное число, если ячейка не является узлом
+     */
+    public int nodeOf(int cell) {
+        return isNode(cell) ? Arrays.binarySearch(nodeCells, cell) : -1;
+    }
+
+    /**
+     * Возвращает индекс ячейки узла.
+     *
+     * @param node номер узла
+     * @return индекс ячейки
+     */
+    public int cellOf(int node) {
+        return nodeCells[node];
+    }
+
+    /**
+     * Возвращает начало списка связей узла в {@link #link(int)}.
+     *
+     * @param node номер узла
+     * @return индекс первой связи
+     */
+    public int firstLink(int node) {
+        return linkStarts[node];
+    }
+
+    /**
+     * Возвращает конец (исключительно) списка связей узла.
+     *
+     * @param node номер узла
+     * @return индекс после последней связи
+     */
+    public int endLink(int node) {
+        return linkStarts[node + 1];
+    }
+
+    /**
+     * Возвращает связь по индексу: номер ребра, сдвинутый на один бит, и младший бит направления обхода
+     * (0 - от начала ребра к концу, 1 - обратно).
+     *
+     * @param index индекс связи
+     * @return связь
+     */
+    public int link(int index) {
+        return links[index];
+    }
+
+    /**
+     * Возвращает узел, в который ведет связь.
+     *
+     * @param link связь
+     * @return номер узла
+     */
+    public int target(int link) {
+        return (link & 1) == 0 ? edgeTo[link >>> 1] : edgeFrom[link >>> 1];
+    }
+
+    /**
+     * Возвращает длину коридора связи.
+     *
+     * @param link связь
+     * @return длина в шагах
+     */
+    public int length(int link) {
+        return edgeLengths[link >>> 1];
+    }
+
+    /**
+     * Записывает ячейки коридора связи, исключая исходный узел и включая конечный.
+     *
+     * @param link связь
+     * @param cells массив индексов ячеек
+     * @param position позиция, с которой начинается запись
+     * @return позиция после последней записанной ячейки
+     */
+    public int expand(int link, int[] cells, int position) {
+        int edge = link >>> 1;
+        int offset = edgeOffsets[edge];
+        int length = edgeLengths[edge];
+        AdjacencyMasks adjacency = maze.adjacency();
+        if ((link & 1) == 0) {
+            int current = nodeCells[edgeFrom[edge]];
+            for (int i = 0; i < length; i++) {
+                current = adjacency.neighbor(current, 1 << moves.get(offset + i));
+                cells[position++] = current;
+            }
+        }
+        else {
+            int current = nodeCells[edgeTo[edge]];
+            for (int i = length - 1; i >= 0; i--) {
+                current = adjacency.neighbor(current, 1 << PackedDirections.opposite(moves.get(offset + i)));
+                cells[position++] = current;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Возвращает бит противоположного направления.
+     *
+     * @param bit бит направления
+     * @return бит противоположного направления
+     */
+    static int oppositeBit(int bit) {
+        return 1 << PackedDirections.opposite(Integer.numberOfTrailingZeros(bit));
+    }
+
+    private static boolean testBit(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void setBit(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Растущий массив {@code int} для сбора узлов и ребер при построении.
+     */
+    private static final class IntBuffer {
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        private int get(int index) {
+            return values[index];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.Arrays;
+import static academy.maze.solver.JunctionGraph.oppositeBit;
+import static academy.maze.solver.SolverUtils.checkCancelled;
+
+/**
+ * Поиск кратчайшего пути по графу развилок {@link JunctionGraph}.
+ * Начальная и конечная точки, лежащие внутри коридоров, временно добавляются в граф как виртуальные узлы,
+ * связанные с узлами на концах своего коридора; если обе точки лежат в одном коридоре,
+ * учитывается и прямой путь по нему. Поиск - A* с манхэттенской эвристикой по ячейкам узлов,
+ * найденная цепочка ребер разворачивается обратно в полный путь по ячейкам.
+ * Буферы переиспользуются между поисками; экземпляр не потокобезопасен.
+ */
+public final class JunctionGraphEngine {
+    private static final int NO_LINK = -1;
+    private static final int START_ANCHOR = -2;
+    private static final int END_ANCHOR = -4;
+    private static final int DIRECT = -6;
+
+    private final int[] startAnchorNodes = new int[2];
+    private final int[] startAnchorLengths = new int[2];
+    private final int[] startAnchorBits = new int[2];
+    private final int[] endAnchorNodes = new int[2];
+    private final int[] endAnchorLengths = new int[2];
+    private final int[] endAnchorBits = new int[2];
+    private int directLength;
+    private int directBit;
+
+    private IndexedMinHeap openSet = new IndexedMinHeap(0);
+    private int[] gScores = new int[0];
+    private int[] parents = new int[0];
+    private int[] parentLinks = new int[0];
+    private int[] stamps = new int[0];
+    private int[] cells = new int[0];
+    private int epoch;
+    private int expanded;
+
+    /**
+     * Находит кратчайший путь между двумя точками.
+     *
+     * @param graph граф развилок лабиринта
+     * @param start начальная точка
+     * @param end конечная точка
+     * @return кратчайший путь или пустой путь, если конечная точка недостижима
+     */
+    public Path findPath(JunctionGraph graph, Point start, Point end) {
+        Maze maze = graph.maze();
+        AdjacencyMasks adjacency = maze.adjacency();
+        int width = maze.width();
+        int startCell = maze.index(start);
+        int endCell = maze.index(end);
+        int nodeCount = graph.nodeCount();
+        reset(nodeCount + 2);
+
+        directLength = -1;
+        int startId = graph.isNode(startCell) ? graph.nodeOf(startCell) : nodeCount;
+        int endId = graph.isNode(endCell) ? graph.nodeOf(endCell) : nodeCount + 1;
+        if (startId == nodeCount) {
+            anchor(graph, adjacency, startCell, endCell, startAnchorNodes, startAnchorLengths, startAnchorBits);
+        }
+        if (endId == nodeCount + 1) {
+            anchor(graph, adjacency, endCell, -1, endAnchorNodes, endAnchorLengths, endAnchorBits);
+        }
+
+        relax(startId, 0, -1, NO_LINK, 0);
+        if (directLength >= 0) {
+            relax(endId, directLength, startId, DIRECT, 0);
+        }
+
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            if (current == endId) {
+                return buildPath(graph, maze, startCell, endCell, endId);
+            }
+            expanded++;
+            checkCancelled(expanded);
+            int gScore = gScores[current];
+
+            if (current == nodeCount) {
+                for (int k = 0; k < 2; k++) {
+                    int node = startAnchorNodes[k];
+                    relax(node, gScore + startAnchorLengths[k], current, START_ANCHOR - k,
+                        heuristic(graph.cellOf(node), endCell, width));
+                }
+                continue;
+            }
+
+            for (int i = graph.firstLink(current), last = graph.endLink(current); i < last; i++) {
+                int link = graph.link(i);
+                int target = graph.target(link);
+                relax(target, gScore + graph.length(link), current, link, heuristic(graph.cellOf(target), endCell, width));
+            }
+            if (endId == nodeCount + 1) {
+                for (int k = 0; k < 2; k++) {
+                    if (endAnchorNodes[k] == current) {
+                        relax(endId, gScore + endAnchorLengths[k], current, END_ANCHOR - k, 0);
+                    }
+                }
+            }
+        }
+
+        return Path.empty();
+    }
+
+    /**
+     * Возвращает количество узлов, раскрытых последним поиском.
+     *
+     * @return количество раскрытых узлов
+     */
+    public int lastExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Находит узлы на обоих концах коридора, в котором лежит ячейка.
+     * Если по пути встречается ячейка {@code target}, запоминается прямой путь до нее.
+     */
+    private void anchor(JunctionGraph graph, AdjacencyMasks adjacency, int cell, int target,
+                        int[] nodes, int[] lengths, int[] bits) {
+        int mask = adjacency.mask(cell);
+        for (int k = 0; k < 2; k++) {
+            int bit = Integer.lowestOneBit(mask);
+            mask &= mask - 1;
+            int current = cell;
+            int step = bit;
+            int length = 0;
+            while (true) {
+                current = adjacency.neighbor(current, step);
+                length++;
+                if (current == target && directLength < 0) {
+                    directLength = length;
+                    directBit = bit;
+                }
+                if (graph.isNode(current)) {
+                    break;
+                }
+                step = adjacency.mask(current) & ~oppositeBit(step);
+            }
+            nodes[k] = graph.nodeOf(current);
+            lengths[k] = length;
+            bits[k] = bit;
+        }
+    }
+
+    /**
+     * Обновляет стоимость узла, если найден более короткий путь к нему.
+     */
+    private void relax(int node, int gScore, int parent, int link, int heuristic) {
+        if (stamps[node] == epoch && gScore >= gScores[node]) {
+            return;
+        }
+        gScores[node] = gScore;
+        parents[node] = parent;
+        parentLinks[node] = link;
+        stamps[node] = epoch;
+        openSet.insertOrDecrease(node, ((long) (gScore + heuristic) << 32) | (Integer.MAX_VALUE - gScore));
+    }
+
+    /**
+     * Вычисляет манхэттенское расстояние между ячейками.
+     */
+    private static int heuristic(int cell, int target, int width) {
+        return Math.abs(cell % width - target % width) + Math.abs(cell / width - target / width);
+    }
+
+    /**
+     * Разворачивает найденную цепочку узлов в путь по ячейкам.
+     */
+    private Path buildPath(JunctionGraph graph, Maze maze, int startCell, int endCell, int endId) {
+        int hops = 0;
+        for (int node = endId; parents[node] != -1; node = parents[node]) {
+            hops++;
+        }
+        int[] chain = new int[hops];
+        for (int node = endId, i = hops - 1; i >= 0; node = parents[node], i--) {
+            chain[i] = node;
+        }
+
+        int length = gScores[endId] + 1;
+        if (cells.length < length) {
+            cells = new int[length];
+        }
+        AdjacencyMasks adjacency = maze.adjacency();
+        int position = 0;
+        cells[position++] = startCell;
+        for (int node : chain) {
+            int link = parentLinks[node];
+            if (link >= 0) {
+                position = graph.expand(link, cells, position);
+            }
+            else if (link == DIRECT) {
+                position = walk(adjacency, startCell, directBit, endCell, cells, position);
+            }
+            else if (link <= START_ANCHOR && link > END_ANCHOR) {
+                int k = START_ANCHOR - link;
+                position = walk(adjacency, startCell, startAnchorBits[k], graph.cellOf(node), cells, position);
+            }
+            else {
+                int k = END_ANCHOR - link;
+                int from = position;
+                position = walk(adjacency, endCell, endAnchorBits[k], graph.cellOf(parents[node]), cells, position);
+                // Коридор пройден от конца к узлу: разворачиваем его и заменяем узел на конечную точку.
+                reverse(cells, from, position - 1);
+                System.arraycopy(cells, from + 1, cells, from, position - from - 1);
+                cells[position - 1] = endCell;
+            }
+        }
+
+        Point[] points = new Point[position];
+        for (int i = 0; i < position; i++) {
+            points[i] = maze.pointAt(cells[i]);
+        }
+        return new Path(points);
+    }
+
+    /**
+     * Записывает ячейки коридора от ячейки {@code from} в направлении {@code bit} до ячейки {@code target}
+     * включительно, не записывая саму ячейку {@code from}.
+     */
+    private static int walk(AdjacencyMasks adjacency, int from, int bit, int target, int[] cells, int position) {
+        int current = from;
+        int step = bit;
+        while (true) {
+            current = adjacency.neighbor(current, step);
+            cells[position++] = current;
+            if (current == target) {
+                return position;
+            }
+            step = adjacency.mask(current) & ~oppositeBit(step);
+        }
+    }
+
+    private static void reverse(int[] values, int from, int to) {
+        for (int i = from, j = to; i < j; i++, j--) {
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+
+    /**
+     * Подготавливает буферы к новому поиску.
+     *
+     * @param size количество узлов с учетом виртуальных
+     */
+    private void reset(int size) {
+        if (openSet.capacity() < size) {
+            openSet = new IndexedMinHeap(size);
+            gScores = new int[size];
+            parents = new int[size];
+            parentLinks = new int[size];
+            stamps = new int[size];
+            epoch = 0;
+        }
+        else {
+            openSet.clear();
+        }
+        expanded = 0;
+        if (++epoch == 0) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+}
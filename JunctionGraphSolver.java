@@ -0,0 +1,84 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import static academy.maze.solver.SolverUtils.validateInput;
+
+/**
+ * Решатель, ищущий путь по графу развилок {@link JunctionGraph} вместо сетки ячеек.
+ * В идеальных лабиринтах большинство ячеек лежит в коридорах, поэтому граф во много раз меньше сетки.
+ * Граф строится при первом запросе к лабиринту и переиспользуется, пока лабиринт не изменится;
+ * лабиринты, не помещающиеся в массивы, решаются обычным {@link AStarSolver}.
+ */
+public class JunctionGraphSolver implements SolverStrategy {
+    private final ThreadLocal<JunctionGraphEngine> engine = ThreadLocal.withInitial(JunctionGraphEngine::new);
+    private final AStarSolver fallback = new AStarSolver();
+    private volatile JunctionGraph graph;
+
+    /**
+     * Создает решатель, строящий граф развилок при первом запросе.
+     */
+    public JunctionGraphSolver() {
+    }
+
+    /**
+     * Создает решатель с заранее построенным графом развилок.
+     *
+     * @param graph граф развилок
+     */
+    public JunctionGraphSolver(JunctionGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Решает лабиринт поиском по графу развилок.
+     * Если путь не найден, возвращается пустой путь.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return найденный путь или пустой путь, если решение не найдено
+     */
+    @Override
+    public Path solve(Maze maze, Point start, Point end) {
+        if (!validateInput(maze, start, end)) {
+            return Path.empty();
+        }
+
+        if (BFSEngine.supports(maze)) {
+            return engine.get().findPath(graphFor(maze), start, end);
+        }
+        return fallback.solve(maze, start, end);
+    }
+
+    /**
+     * Возвращает граф развилок для лабиринта, перестраивая его, если лабиринт другой или был изменен.
+     *
+     * @param maze лабиринт
+     * @return актуальный граф развилок
+     */
+    public JunctionGraph graphFor(Maze maze) {
+        JunctionGraph current = graph;
+        if (current != null && current.isCurrent(maze)) {
+            return current;
+        }
+        synchronized (this) {
+            current = graph;
+            if (current == null || !current.isCurrent(maze)) {
+                current = JunctionGraph.build(maze);
+                graph = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Возвращает количество узлов графа, раскрытых последним решением в текущем потоке.
+     *
+     * @return количество раскрытых узлов
+     */
+    public int lastExpanded() {
+        return engine.get().lastExpanded();
+    }
+}
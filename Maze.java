@@ -1,23 +1,61 @@
 package academy.maze.dto;
 
+import academy.maze.dto.storage.ByteCellStorage;
+import academy.maze.dto.storage.CellStorage;
+import academy.maze.dto.storage.MazeStorageType;
+import academy.maze.dto.storage.OffHeapCellStorage;
+import academy.maze.dto.storage.OverlayCellStorage;
+import academy.maze.dto.storage.TiledCellStorage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Лабиринт.
- *
- * @param cells Массив ячеек лабиринта.
- * @param width Ширина лабиринта
- * @param height Высота лабиринта
+ * Ячейки хранятся в плоском хранилище {@link CellStorage} в порядке строк (row-major),
+ * индекс ячейки (x, y) равен {@code y * width + x}. По умолчанию используется {@link ByteCellStorage}.
+ * Индексы имеют тип {@code long}, поэтому внешние хранилища (например, {@link OffHeapCellStorage})
+ * могут содержать больше {@code 2^31} ячеек; {@link #index(int, int)} применим только к лабиринтам,
+ * у которых {@link #cellCount()} помещается в {@code int}.
  */
-public record Maze(CellType[][] cells, int width, int height) {
-    public Maze {
+public final class Maze {
+    private final CellStorage storage;
+    private final int width;
+    private final int height;
+    private final boolean readOnly;
+    private AdjacencyMasks adjacency;
+    private int modCount;
+    private volatile ContentHash contentHash;
+
+    /**
+     * Вычисленный хэш содержимого вместе со счетчиком изменений, для которого он действителен.
+     *
+     * @param modCount счетчик изменений на момент вычисления
+     * @param value значение хэша
+     */
+    private record ContentHash(int modCount, long value) {
+    }
+
+    /**
+     * Создает лабиринт из массива ячеек указанного размера.
+     *
+     * @param cells Массив ячеек лабиринта.
+     * @param width Ширина лабиринта
+     * @param height Высота лабиринта
+     */
+    public Maze(CellType[][] cells, int width, int height) {
         if (cells == null) {
             throw new IllegalArgumentException("Cells array cannot be null");
         }
-        if (width <= 0 || height <= 0) {
-            throw new IllegalArgumentException("Width and height must be positive");
-        }
+        validateSize(width, height);
         if (cells.length != height || cells[0].length != width) {
             throw new IllegalArgumentException("Cells array dimensions do not match width and height");
         }
+        this.storage = pack(cells, width, height);
+        this.width = width;
+        this.height = height;
+        this.readOnly = false;
     }
 
     /**
@@ -32,29 +70,329 @@ public record Maze(CellType[][] cells, int width, int height) {
 
     /**
      * Создает новый лабиринт указанного размера, заполненный стенами.
+     * Порядковый номер {@link CellType#WALL} равен нулю, поэтому новое хранилище уже заполнено стенами.
      *
      * @param width ширина лабиринта
      * @param height высота лабиринта
      */
     public Maze(int width, int height) {
-        this(createEmptyMaze(width, height), width, height);
+        this(width, height, MazeStorageType.BYTE);
+    }
+
+    /**
+     * Создает новый лабиринт указанного размера, заполненный стенами, с выбранным способом хранения.
+     *
+     * @param width ширина лабиринта
+     * @param height высота лабиринта
+     * @param storageType способ хранения ячеек
+     */
+    public Maze(int width, int height, MazeStorageType storageType) {
+        this(createStorage(width, height, storageType), width, height);
+    }
+
+    /**
+     * Создает лабиринт поверх готового хранилища ячеек без копирования.
+     *
+     * @param storage хранилище ячеек
+     * @param width ширина лабиринта
+     * @param height высота лабиринта
+     * @throws IllegalArgumentException если размер хранилища не совпадает с размерами лабиринта
+     */
+    public Maze(CellStorage storage, int width, int height) {
+        this(storage, width, height, false);
+    }
+
+    /**
+     * Создает лабиринт поверх готового хранилища ячеек с указанием режима доступа.
+     *
+     * @param storage хранилище ячеек
+     * @param width ширина лабиринта
+     * @param height высота лабиринта
+     * @param readOnly true если лабиринт доступен только для чтения
+     * @throws IllegalArgumentException если размер хранилища не совпадает с размерами лабиринта
+     */
+    private Maze(CellStorage storage, int width, int height, boolean readOnly) {
+        if (storage == null) {
+            throw new IllegalArgumentException("Cell storage cannot be null");
+        }
+        if (storage.size() != cellCount(width, height)) {
+            throw new IllegalArgumentException("Cell storage size does not match width and height");
+        }
+        this.storage = storage;
+        this.width = width;
+        this.height = height;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Проверяет размеры лабиринта и вычисляет количество ячеек.
+     *
+     * @param width ширина лабиринта
+     * @param height высота лабиринта
+     * @return количество ячеек лабиринта
+     * @throws IllegalArgumentException если размеры некорректны
+     */
+    static long cellCount(int width, int height) {
+        validateSize(width, height);
+        return (long) width * height;
+    }
+
+    /**
+     * Проверяет размеры лабиринта и вычисляет количество ячеек для хранения в массиве.
+     *
+     * @param width ширина лабиринта
+     * @param height высота лабиринта
+     * @return количество ячеек лабиринта
+     * @throws IllegalArgumentException если размеры некорректны или лабиринт не помещается в массив
+     */
+    private static int checkedCellCount(int width, int height) {
+        long count = cellCount(width, height);
+        if (count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Maze is too large: " + width + "x" + height);
+        }
+        return (int) count;
     }
 
     /**
-     * Создает пустой лабиринт (все ячейки - стены) указанного размера.
+     * Создает хранилище для лабиринта указанного размера.
      *
      * @param width ширина лабиринта
      * @param height высота лабиринта
-     * @return массив ячеек, заполненный стенами
+     * @param storageType способ хранения ячеек
+     * @return новое хранилище, заполненное стенами
      */
-    private static CellType[][] createEmptyMaze(int width, int height) {
-        CellType[][] cells = new CellType[height][width];
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                cells[i][j] = CellType.WALL;
+    private static CellStorage createStorage(int width, int height, MazeStorageType storageType) {
+        validateSize(width, height);
+        return storageType.create(width, height);
+    }
+
+    /**
+     * Проверяет, что ширина и высота положительны.
+     *
+     * @param width ширина лабиринта
+     * @param height высота лабиринта
+     * @throws IllegalArgumentException если размеры некорректны
+     */
+    private static void validateSize(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Width and height must be positive");
+        }
+    }
+
+    /**
+     * Упаковывает двумерный массив ячеек в плоское хранилище.
+     *
+     * @param cells двумерный массив ячеек
+     * @param width ширина лабиринта
+     * @param height высота лабиринта
+     * @return хранилище с порядковыми номерами ячеек
+     */
+    private static CellStorage pack(CellType[][] cells, int width, int height) {
+        byte[] packed = new byte[checkedCellCount(width, height)];
+        for (int y = 0; y < height; y++) {
+            if (cells[y].length != width) {
+                throw new IllegalArgumentException("Cells array dimensions do not match width and height");
+            }
+            for (int x = 0; x < width; x++) {
+                packed[y * width + x] = (byte) cells[y][x].ordinal();
+            }
+        }
+        return new ByteCellStorage(packed);
+    }
+
+    /**
+     * Возвращает ширину лабиринта.
+     *
+     * @return ширина лабиринта
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Возвращает высоту лабиринта.
+     *
+     * @return высота лабиринта
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Возвращает ячейки лабиринта в виде нового двумерного массива.
+     * Изменения возвращенного массива не отражаются на лабиринте.
+     *
+     * @return двумерный массив ячеек
+     */
+    public CellType[][] cells() {
+        CellType[][] result = new CellType[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                result[y][x] = storage.get((long) y * width + x);
             }
         }
-        return cells;
+        return result;
+    }
+
+    /**
+     * Возвращает количество ячеек лабиринта.
+     *
+     * @return width * height
+     */
+    public long cellCount() {
+        return storage.size();
+    }
+
+    /**
+     * Возвращает хранилище ячеек лабиринта.
+     *
+     * @return хранилище ячеек
+     */
+    public CellStorage storage() {
+        return storage;
+    }
+
+    /**
+     * Создает копию лабиринта с другим способом хранения ячеек.
+     *
+     * @param storageType способ хранения ячеек копии
+     * @return новый лабиринт с теми же ячейками
+     */
+    public Maze withStorage(MazeStorageType storageType) {
+        Maze result = new Maze(width, height, storageType);
+        for (MazeTile tile : tiles()) {
+            if (tile.untouched()) {
+                continue;
+            }
+            for (int y = tile.y(); y < tile.y() + tile.height(); y++) {
+                for (int x = tile.x(); x < tile.x() + tile.width(); x++) {
+                    CellType type = storage.get(longIndex(x, y));
+                    if (type != CellType.WALL) {
+                        result.storage.set(longIndex(x, y), type);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает плитки лабиринта для обхода по областям.
+     * Для {@link TiledCellStorage} возвращаются его плитки с признаком нетронутости,
+     * для остальных хранилищ - одна плитка на весь лабиринт.
+     * Нетронутые плитки целиком состоят из стен и могут быть пропущены при обходе.
+     *
+     * @return список плиток, покрывающих лабиринт
+     */
+    public List<MazeTile> tiles() {
+        if (storage instanceof TiledCellStorage tiled) {
+            return tiled.tiles();
+        }
+        return List.of(new MazeTile(0, 0, width, height, false));
+    }
+
+    /**
+     * Находит все ячейки указанного типа, пропуская нетронутые плитки.
+     *
+     * @param type искомый тип ячейки
+     * @return координаты ячеек в порядке обхода плиток и строк внутри них
+     */
+    public List<Point> findCells(CellType type) {
+        List<Point> result = new ArrayList<>();
+        for (MazeTile tile : tiles()) {
+            if (tile.untouched()) {
+                continue;
+            }
+            for (int y = tile.y(); y < tile.y() + tile.height(); y++) {
+                for (int x = tile.x(); x < tile.x() + tile.width(); x++) {
+                    if (storage.get(longIndex(x, y)) == type) {
+                        result.add(new Point(x, y));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Вычисляет индекс ячейки (x, y) в плоском массиве.
+     * Применим только к лабиринтам, у которых количество ячеек помещается в {@code int}.
+     *
+     * @param x координата X
+     * @param y координата Y
+     * @return индекс ячейки {@code y * width + x}
+     */
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * Вычисляет индекс ячейки (x, y) для лабиринтов любого размера.
+     *
+     * @param x координата X
+     * @param y координата Y
+     * @return индекс ячейки {@code y * width + x}
+     */
+    public long longIndex(int x, int y) {
+        return (long) y * width + x;
+    }
+
+    /**
+     * Вычисляет индекс ячейки в указанной точке.
+     *
+     * @param point координаты точки
+     * @return индекс ячейки
+     */
+    public int index(Point point) {
+        return index(point.x(), point.y());
+    }
+
+    /**
+     * Восстанавливает точку по индексу ячейки.
+     *
+     * @param index индекс ячейки
+     * @return точка с координатами ячейки
+     */
+    public Point pointAt(long index) {
+        return new Point((int) (index % width), (int) (index / width));
+    }
+
+    /**
+     * Возвращает тип ячейки по индексу без проверки границ проходимой области.
+     *
+     * @param index индекс ячейки
+     * @return тип ячейки
+     * @throws IndexOutOfBoundsException если индекс вне лабиринта
+     */
+    public CellType getCellAt(long index) {
+        return storage.get(index);
+    }
+
+    /**
+     * Проверяет, проходима ли ячейка с указанным индексом.
+     *
+     * @param index индекс ячейки
+     * @return true если ячейка не является стеной
+     * @throws IndexOutOfBoundsException если индекс вне лабиринта
+     */
+    public boolean isPassableAt(long index) {
+        return storage.isPassable(index);
+    }
+
+    /**
+     * Устанавливает тип ячейки по индексу без проверки границ проходимой области.
+     *
+     * @param index индекс ячейки
+     * @param type тип ячейки для установки
+     * @throws IndexOutOfBoundsException если индекс вне лабиринта
+     */
+    public void setCellAt(long index, CellType type) {
+        checkWritable();
+        storage.set(index, type);
+        modCount++;
+        if (adjacency != null) {
+            adjacency.update((int) (index % width), (int) (index / width));
+        }
     }
 
     /**
@@ -75,7 +413,29 @@ public record Maze(CellType[][] cells, int width, int height) {
      * @return тип ячейки в указанных координатах или WALL, если позиция невалидна
      */
     public CellType getCell(int x, int y) {
-        return isValidPosition(x, y) ? cells[y][x] : CellType.WALL;
+        return isValidPosition(x, y) ? storage.get((long) y * width + x) : CellType.WALL;
+    }
+
+    /**
+     * Проверяет, проходима ли ячейка в указанной точке.
+     * Не требует определения точного типа ячейки, поэтому дешевле {@code getCell(point).isPassable()}.
+     *
+     * @param point координаты точки
+     * @return true если позиция валидна и ячейка не является стеной
+     */
+    public boolean isPassable(Point point) {
+        return isPassable(point.x(), point.y());
+    }
+
+    /**
+     * Проверяет, проходима ли ячейка по координатам (x, y).
+     *
+     * @param x координата X
+     * @param y координата Y
+     * @return true если позиция валидна и ячейка не является стеной
+     */
+    public boolean isPassable(int x, int y) {
+        return isValidPosition(x, y) && storage.isPassable((long) y * width + x);
     }
 
     /**
@@ -96,9 +456,49 @@ public record Maze(CellType[][] cells, int width, int height) {
      * @param type тип ячейки для установки
      */
     public void setCell(int x, int y, CellType type) {
+        checkWritable();
         if (isValidPosition(x, y)) {
-            cells[y][x] = type;
+            storage.set((long) y * width + x, type);
+            modCount++;
+            if (adjacency != null) {
+                adjacency.update(x, y);
+            }
+        }
+    }
+
+    /**
+     * Возвращает маски смежности ячеек, строя их при первом обращении.
+     * Маски поддерживаются в актуальном состоянии при изменении ячеек через {@code setCell} и {@code setCellAt};
+     * запись напрямую в {@link #storage()} их не обновляет.
+     *
+     * @return маски смежности
+     * @throws ArithmeticException если лабиринт слишком велик для массива масок
+     */
+    public AdjacencyMasks adjacency() {
+        AdjacencyMasks result = adjacency;
+        if (result == null) {
+            result = AdjacencyMasks.build(this);
+            adjacency = result;
         }
+        return result;
+    }
+
+    /**
+     * Возвращает маску открытых направлений ячейки (x, y).
+     * Для лабиринтов, не помещающихся в массив масок, маска вычисляется напрямую.
+     *
+     * @param x координата X
+     * @param y координата Y
+     * @return маска открытых направлений (см. {@link AdjacencyMasks})
+     */
+    public int adjacencyMask(int x, int y) {
+        if (!isValidPosition(x, y)) {
+            return 0;
+        }
+        if (storage.size() > Integer.MAX_VALUE) {
+            return AdjacencyMasks.computeMask(this, x, y);
+        }
+        return adjacency().mask(x, y);
     }
 
     /**
@@ -125,13 +525,137 @@ public record Maze(CellType[][] cells, int width, int height) {
     }
 
     /**
-     * Создает копию лабиринта.
+     * Возвращает счетчик изменений лабиринта.
+     * Увеличивается при каждом вызове {@code setCell} и {@code setCellAt}; позволяет кэшам,
+     * построенным по лабиринту, обнаруживать устаревание. Запись напрямую в {@link #storage()} его не меняет.
+     *
+     * @return количество изменений ячеек с момента создания лабиринта
+     */
+    public int modCount() {
+        return modCount;
+    }
+
+    /**
+     * Возвращает 64-битный хэш размеров и содержимого лабиринта.
+     * Лабиринты с одинаковыми ячейками имеют одинаковый хэш независимо от способа хранения.
+     * Хэш вычисляется за один проход по ячейкам и кэшируется до следующего изменения через {@code setCell}.
+     *
+     * @return хэш содержимого
+     */
+    public long contentHash() {
+        ContentHash cached = contentHash;
+        int currentModCount = modCount;
+        if (cached != null && cached.modCount() == currentModCount) {
+            return cached.value();
+        }
+        long hash = 0xcbf29ce484222325L;
+        hash = (hash ^ width) * 0x100000001b3L;
+        hash = (hash ^ height) * 0x100000001b3L;
+        long size = storage.size();
+        for (long index = 0; index < size; index++) {
+            hash = (hash ^ storage.get(index).ordinal()) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        contentHash = new ContentHash(currentModCount, hash);
+        return hash;
+    }
+
+    /**
+     * Проверяет, доступен ли лабиринт только для чтения.
+     *
+     * @return true для снимков и наложений
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Проверяет, что лабиринт можно изменять.
+     *
+     * @throws UnsupportedOperationException если лабиринт доступен только для чтения
+     */
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Maze is read-only");
+        }
+    }
+
+    /**
+     * Создает неизменяемый снимок лабиринта.
+     * Снимок разделяет данные с лабиринтом, пока лабиринт не будет изменен (copy-on-write),
+     * поэтому создание снимка дешево, а снимок можно безопасно читать из нескольких потоков.
+     *
+     * @return снимок только для чтения
+     */
+    public Maze snapshot() {
+        if (readOnly) {
+            return this;
+        }
+        return new Maze(storage.snapshot(), width, height, true);
+    }
+
+    /**
+     * Создает представление только для чтения, в котором поверх лабиринта наложены указанные ячейки.
+     * Ячейки лабиринта не копируются; наложение строится поверх снимка,
+     * поэтому последующие изменения лабиринта на него не влияют.
+     *
+     * @param cells ячейки наложения; точки вне проходимой области игнорируются
+     * @return лабиринт с наложением
+     */
+    public Maze overlay(Map<Point, CellType> cells) {
+        Map<Long, CellType> overrides = new HashMap<>();
+        for (Map.Entry<Point, CellType> entry : cells.entrySet()) {
+            Point point = entry.getKey();
+            if (isValidPosition(point)) {
+                overrides.put(longIndex(point.x(), point.y()), entry.getValue());
+            }
+        }
+        return new Maze(new OverlayCellStorage(snapshot().storage, overrides), width, height, true);
+    }
+
+    /**
+     * Создает представление только для чтения с наложенным путем решения.
+     * Первая точка пути отображается как START, последняя - как END, остальные - как SOLUTION_PATH;
+     * существующие в лабиринте START и END сохраняются.
+     *
+     * @param path путь решения
+     * @return лабиринт с наложенным путем
+     */
+    public Maze overlay(Path path) {
+        Map<Point, CellType> cells = new HashMap<>();
+        for (Point point : path.points()) {
+            CellType current = getCell(point);
+            if (current != CellType.START && current != CellType.END) {
+                cells.put(point, CellType.SOLUTION_PATH);
+            }
+        }
+        if (!path.isEmpty()) {
+            cells.put(path.getStart(), CellType.START);
+            cells.put(path.getEnd(), CellType.END);
+        }
+        return overlay(cells);
+    }
+
+    /**
+     * Создает изменяемую копию лабиринта.
+     * Копия разделяет данные с исходным лабиринтом до первой записи в любой из них (copy-on-write).
      *
      * @param maze исходный лабиринт для копирования
      * @return новая копия лабиринта
      */
     public static Maze copy(Maze maze) {
-        return new Maze(maze.cells);
+        return new Maze(maze.storage.snapshot(), maze.width, maze.height);
     }
 
+    /**
+     * Возвращает строковое представление лабиринта.
+     *
+     * @return строка в формате "Maze[width=w, height=h]"
+     */
+    @Override
+    public String toString() {
+        return "Maze[width=" + width + ", height=" + height + "]";
+    }
 }
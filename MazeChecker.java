@@ -2,9 +2,12 @@ package academy.maze.utils;
 
 import academy.maze.dto.CellType;
 import academy.maze.dto.Maze;
+import academy.maze.dto.MazeTile;
 import academy.maze.dto.Point;
+import academy.maze.solver.BitParallelBFS;
+import academy.maze.solver.ComponentLabels;
 import academy.maze.solver.Direction;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
 import java.util.Queue;
 import static academy.maze.dto.Point.add;
 import static academy.maze.dto.Point.createPoint;
@@ -14,46 +17,53 @@ import static academy.maze.dto.Point.createPoint;
  * Проверяет, существует ли путь от начальной точки до конечной.
  */
 public class MazeChecker {
+    private static final ThreadLocal<BitParallelBFS> BIT_BFS = ThreadLocal.withInitial(BitParallelBFS::new);
 
     /**
      * Проверяет, связан ли лабиринт - существует ли путь от начальной до конечной точки.
-     * Использует алгоритм BFS (поиск в ширину) для проверки связности.
+     * Использует разметку компонент связности {@link ComponentLabels}, которая запоминается и позволяет
+     * решателям сразу отклонять недостижимые пары точек в том же лабиринте; лабиринты, не помещающиеся
+     * в массив разметки, проверяются поиском по строкам-битсетам {@link BitParallelBFS},
+     * а слишком большие и для него - последовательным BFS на точках.
      *
      * @param maze лабиринт для проверки
      * @return true если существует путь от START до END, false в противном случае
      * @throws AssertionError если начальная точка не найдена в лабиринте
      */
     public static boolean isMazeConnected(Maze maze) {
-        boolean[][] visited = new boolean[maze.width()][maze.height()];
-        Queue<Point> queue = new LinkedList<>();
-
-        Point start = null;
-        for (int y = 0; y < maze.height(); y++) {
-            for (int x = 0; x < maze.width(); x++) {
-                if (maze.getCell(x, y) == CellType.START) {
-                    start = createPoint(x, y);
-                    queue.add(start);
-                    break;
-                }
-            }
-        }
+        Point start = findCell(maze, CellType.START);
         assert start != null;
-        visited[start.y()][start.x()] = true;
+        Point exit = findCell(maze, CellType.END);
+        assert exit != null;
 
-        Point exit = null;
-        for (int y = 0; y < maze.height(); y++) {
-            for (int x = 0; x < maze.width(); x++) {
-                if (maze.getCell(x, y) == CellType.END) {
-                    exit = createPoint(x, y);
-                    break;
-                }
-            }
+        if (ComponentLabels.supports(maze)) {
+            return ComponentLabels.of(maze).connected(start, exit);
         }
+        if (BitParallelBFS.supports(maze)) {
+            return BIT_BFS.get().isReachable(maze, start, exit);
+        }
+        return isConnectedSequential(maze, start, exit);
+    }
+
+    /**
+     * Проверяет связность последовательным поиском в ширину по точкам.
+     * Посещенные ячейки отмечаются битами в отдельном массиве для каждой строки,
+     * поэтому размер лабиринта не ограничен пределами одного массива Java.
+     *
+     * @param maze лабиринт для проверки
+     * @param start начальная точка
+     * @param exit конечная точка
+     * @return true если существует путь от start до exit
+     */
+    private static boolean isConnectedSequential(Maze maze, Point start, Point exit) {
+        long[][] visited = new long[maze.height()][(maze.width() + 63) >>> 6];
+        Queue<Point> queue = new ArrayDeque<>();
+        queue.add(start);
+        visited[start.y()][start.x() >>> 6] |= 1L << start.x();
 
         while (!queue.isEmpty()) {
             Point point = queue.poll();
 
-            assert exit != null;
             if (point.x() == exit.x() && point.y() == exit.y()) {
                 return true;
             }
@@ -61,13 +71,40 @@ public class MazeChecker {
             for (Direction dir : Direction.values()) {
                 Point neighbor = add(point, dir.toPoint());
 
-                if (maze.isValidPosition(neighbor) && !visited[neighbor.y()][neighbor.x()] && maze.getCell(neighbor) != CellType.WALL) {
-                    visited[neighbor.y()][neighbor.x()] = true;
-                    queue.add(neighbor);
+                if (maze.isValidPosition(neighbor) && maze.getCell(neighbor) != CellType.WALL) {
+                    long[] row = visited[neighbor.y()];
+                    long bit = 1L << neighbor.x();
+                    if ((row[neighbor.x() >>> 6] & bit) == 0) {
+                        row[neighbor.x() >>> 6] |= bit;
+                        queue.add(neighbor);
+                    }
                 }
             }
         }
 
         return false;
     }
+
+    /**
+     * Ищет первую ячейку указанного типа, пропуская нетронутые плитки лабиринта.
+     *
+     * @param maze лабиринт для поиска
+     * @param type искомый тип ячейки
+     * @return координаты найденной ячейки или null, если ячейка не найдена
+     */
+    private static Point findCell(Maze maze, CellType type) {
+        for (MazeTile tile : maze.tiles()) {
+            if (tile.untouched()) {
+                continue;
+            }
+            for (int y = tile.y(); y < tile.y() + tile.height(); y++) {
+                for (int x = tile.x(); x < tile.x() + tile.width(); x++) {
+                    if (maze.getCell(x, y) == type) {
+                        return createPoint(x, y);
+                    }
+                }
+            }
+        }
+        return null;
+    }
 }
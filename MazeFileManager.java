@@ -81,7 +81,11 @@ public class MazeFileManager {
 
             for (int x = 0; x < width; x++) {
                 char c = line.charAt(x);
-                maze.setCell(x, y, CellType.getCellTypeByChar(c));
+                CellType cellType = CellType.getCellTypeByChar(c);
+                if (cellType == null) {
+                    throw new IllegalArgumentException("Unknown cell symbol '" + c + "' in line " + (y + 1));
+                }
+                maze.setCell(x, y, cellType);
             }
         }
 
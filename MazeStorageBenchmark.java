@@ -0,0 +1,64 @@
+package academy.maze.benchmark;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Point;
+import academy.maze.dto.storage.MazeStorageType;
+import academy.maze.generator.DFSGenerator;
+import academy.maze.solver.BFSSolver;
+import academy.maze.solver.SolverStrategy;
+
+/**
+ * Бенчмарк способов хранения ячеек лабиринта.
+ * Генерирует один лабиринт алгоритмом DFS, копирует его в каждое хранилище
+ * и сравнивает занимаемую память и время решения алгоритмом BFS.
+ *
+ * Запуск: {@code java academy.maze.benchmark.MazeStorageBenchmark [size] [runs]}
+ */
+public final class MazeStorageBenchmark {
+    private static final int DEFAULT_SIZE = 1001;
+    private static final int DEFAULT_RUNS = 5;
+
+    private MazeStorageBenchmark() {}
+
+    /**
+     * Точка входа бенчмарка.
+     *
+     * @param args необязательные размер лабиринта (нечетный) и количество замеров
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RUNS;
+
+        Maze source = new DFSGenerator().generate(size, size);
+        Point start = new Point(1, 1);
+        Point end = new Point(size - 2, size - 2);
+
+        System.out.printf("Maze %dx%d, %d runs%n", size, size, runs);
+        for (MazeStorageType type : MazeStorageType.values()) {
+            Maze maze = source.withStorage(type);
+            double millis = measureSolve(new BFSSolver(), maze, start, end, runs);
+            System.out.printf("%-8s footprint=%,d bytes, bfs=%.2f ms%n", type, maze.storage().footprintBytes(), millis);
+        }
+    }
+
+    /**
+     * Замеряет среднее время решения лабиринта после одного прогревочного запуска.
+     *
+     * @param solver алгоритм решения
+     * @param maze лабиринт
+     * @param start начальная точка
+     * @param end конечная точка
+     * @param runs количество замеров
+     * @return среднее время решения в миллисекундах
+     */
+    private static double measureSolve(SolverStrategy solver, Maze maze, Point start, Point end, int runs) {
+        solver.solve(maze, start, end);
+        long total = 0;
+        for (int i = 0; i < runs; i++) {
+            long begin = System.nanoTime();
+            solver.solve(maze, start, end);
+            total += System.nanoTime() - begin;
+        }
+        return total / 1_000_000.0 / runs;
+    }
+}
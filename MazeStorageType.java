@@ -0,0 +1,56 @@
+package academy.maze.dto.storage;
+
+/**
+ * Способ хранения ячеек лабиринта.
+ */
+public enum MazeStorageType {
+    /** Один байт на ячейку, {@link ByteCellStorage} */
+    BYTE,
+
+    /** Один бит на ячейку с таблицей особых ячеек, {@link BitmapCellStorage} */
+    BITMAP,
+
+    /**
+     * Один байт на ячейку во внешней памяти, {@link OffHeapCellStorage}.
+     * Память освобождается сборщиком мусора вместе с хранилищем.
+     */
+    OFF_HEAP,
+
+    /** Плитки 64x64, выделяемые при первой записи, {@link TiledCellStorage} */
+    TILED;
+
+    /** Максимальный размер массива в куче. */
+    private static final long MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Создает хранилище для лабиринта указанного размера, заполненное стенами.
+     *
+     * @param width ширина лабиринта
+     * @param height высота лабиринта
+     * @return новое хранилище
+     * @throws IllegalArgumentException если хранилище такого размера не поддерживается
+     */
+    public CellStorage create(int width, int height) {
+        long size = (long) width * height;
+        return switch (this) {
+            case BYTE -> new ByteCellStorage(checkedArraySize(size));
+            case BITMAP -> new BitmapCellStorage(size);
+            case OFF_HEAP -> OffHeapCellStorage.allocate(size);
+            case TILED -> new TiledCellStorage(width, height);
+        };
+    }
+
+    /**
+     * Проверяет, что хранилище указанного размера помещается в массив.
+     *
+     * @param size количество ячеек
+     * @return количество ячеек
+     * @throws IllegalArgumentException если хранилище не помещается в массив
+     */
+    private static int checkedArraySize(long size) {
+        if (size < 0 || size > MAX_ARRAY_SIZE) {
+            throw new IllegalArgumentException("Maze of " + size + " cells does not fit into a heap array");
+        }
+        return (int) size;
+    }
+}
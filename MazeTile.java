@@ -0,0 +1,25 @@
+package academy.maze.dto;
+
+/**
+ * Прямоугольная область (плитка) лабиринта.
+ * Используется для обхода лабиринта по плиткам, чтобы пропускать нетронутые области.
+ *
+ * @param x координата X левого верхнего угла плитки
+ * @param y координата Y левого верхнего угла плитки
+ * @param width ширина плитки
+ * @param height высота плитки
+ * @param untouched true если в плитку ничего не записывалось и она целиком состоит из стен
+ */
+public record MazeTile(int x, int y, int width, int height, boolean untouched) {
+
+    /**
+     * Проверяет, содержит ли плитка указанные координаты.
+     *
+     * @param px координата X
+     * @param py координата Y
+     * @return true если точка находится внутри плитки
+     */
+    public boolean contains(int px, int py) {
+        return px >= x && px < x + width && py >= y && py < y + height;
+    }
+}
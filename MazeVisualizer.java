@@ -3,10 +3,9 @@ package academy.maze.utils;
 import academy.maze.dto.CellType;
 import academy.maze.dto.Maze;
 import academy.maze.dto.Path;
-import academy.maze.dto.Point;
 import java.io.PrintWriter;
-import static academy.maze.dto.Maze.copy;
-import static academy.maze.utils.Utils.createStartAndEnd;
+import java.util.Map;
+import static academy.maze.dto.Point.createPoint;
 
 /**
  * Визуализатор лабиринтов для отображения в консоли и сохранения в файлы.
@@ -69,35 +68,20 @@ public class MazeVisualizer {
     }
 
     /**
-     * Создает копию лабиринта с визуализацией пути решения.
+     * Создает представление лабиринта с визуализацией пути решения.
+     * Исходный лабиринт не изменяется и не копируется: путь накладывается поверх снимка лабиринта,
+     * поэтому одновременная отрисовка разных решений одного лабиринта безопасна.
      *
      * @param maze исходный лабиринт
      * @param path путь решения для визуализации
-     * @return лабиринт с отображением пути решения
+     * @return лабиринт только для чтения с отображением пути решения
      */
     public Maze createSolutionMaze(Maze maze, Path path) {
-        Maze solutionMaze = copy(maze);
-
         if (maze.width() <= 3 || maze.height() <= 3) {
-            solutionMaze.setCell(1, 1, CellType.PATH);
-            return solutionMaze;
-        }
-
-        if (!path.isEmpty()) {
-            Point start = path.getStart();
-            Point end = path.getEnd();
-
-            createStartAndEnd(maze, start, end);
-
-            for (Point point : path.points()) {
-                CellType current = maze.getCell(point);
-                if (current != CellType.START && current != CellType.END) {
-                    solutionMaze.setCell(point, CellType.SOLUTION_PATH);
-                }
-            }
+            return maze.overlay(Map.of(createPoint(1, 1), CellType.PATH));
         }
 
-        return solutionMaze;
+        return maze.overlay(path);
     }
 
     /**
@@ -0,0 +1,256 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Стек шагов текущего маршрута для решателей с постоянной памятью ({@link WallFollowerSolver}, {@link TremauxSolver}).
+ * Шаг добавляется при продвижении и снимается при возврате, поэтому в стеке всегда лежит маршрут
+ * от начальной точки до текущей. Коды шагов совпадают с номерами битов {@link academy.maze.dto.AdjacencyMasks}.
+ * Реализации: {@link InMemory} хранит по 2 бита на шаг и собирает компактный {@link Path},
+ * {@link ToFile} пишет точки маршрута прямо в файл и держит в памяти только буфер постоянного размера.
+ */
+abstract class MoveTrail {
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    /**
+     * Добавляет шаг в конец маршрута.
+     *
+     * @param code код направления шага
+     */
+    abstract void push(int code);
+
+    /**
+     * Снимает последний шаг маршрута.
+     *
+     * @return код направления снятого шага
+     */
+    abstract int pop();
+
+    /**
+     * Возвращает код последнего шага маршрута.
+     *
+     * @return код направления
+     */
+    abstract int top();
+
+    /**
+     * Возвращает количество шагов маршрута.
+     *
+     * @return количество шагов
+     */
+    abstract long size();
+
+    /**
+     * Маршрут в памяти: 2 бита на шаг в растущем массиве {@code long[]}.
+     */
+    static final class InMemory extends MoveTrail {
+        private long[] moves = new long[16];
+        private long size;
+
+        @Override
+        void push(int code) {
+            if (size == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Route is too long for an in-memory path, write it to a file instead");
+            }
+            int word = (int) (size >>> 5);
+            if (word == moves.length) {
+                moves = Arrays.copyOf(moves, moves.length << 1);
+            }
+            Path.setMove(moves, (int) size, code);
+            size++;
+        }
+
+        @Override
+        int pop() {
+            int code = top();
+            size--;
+            return code;
+        }
+
+        @Override
+        int top() {
+            long index = size - 1;
+            return (int) (moves[(int) (index >>> 5)] >>> ((index & 31) << 1)) & 3;
+        }
+
+        @Override
+        long size() {
+            return size;
+        }
+
+        /**
+         * Собирает путь из начальной точки и накопленных шагов.
+         *
+         * @param start начальная точка
+         * @return компактный путь
+         */
+        Path toPath(Point start) {
+            return Path.fromMoves(start, moves, (int) size);
+        }
+    }
+
+    /**
+     * Маршрут, записываемый в файл парами {@code int} (x, затем y, big-endian) - по 8 байт на точку.
+     * Конец маршрута держится в буфере; при переполнении старшая половина буфера сбрасывается в файл,
+     * а при возврате за пределы буфера точки дочитываются из файла обратно.
+     */
+    static final class ToFile extends MoveTrail implements Closeable {
+        private static final int BUFFER_POINTS = 1 << 13;
+        private static final int POINT_BYTES = 2 * Integer.BYTES;
+
+        private final FileChannel channel;
+        private final int[] xs = new int[BUFFER_POINTS];
+        private final int[] ys = new int[BUFFER_POINTS];
+        private final ByteBuffer io = ByteBuffer.allocate(BUFFER_POINTS / 2 * POINT_BYTES);
+        private int buffered;
+        private long flushed;
+
+        /**
+         * Открывает файл маршрута, перезаписывая его, и записывает начальную точку.
+         *
+         * @param file файл для записи точек
+         * @param start начальная точка
+         * @throws UncheckedIOException если файл не удалось открыть
+         */
+        ToFile(java.nio.file.Path file, Point start) {
+            try {
+                this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open path file " + file, e);
+            }
+            xs[0] = start.x();
+            ys[0] = start.y();
+            buffered = 1;
+        }
+
+        @Override
+        void push(int code) {
+            if (buffered == BUFFER_POINTS) {
+                spill();
+            }
+            xs[buffered] = xs[buffered - 1] + DX[code];
+            ys[buffered] = ys[buffered - 1] + DY[code];
+            buffered++;
+        }
+
+        @Override
+        int pop() {
+            int code = top();
+            buffered--;
+            return code;
+        }
+
+        @Override
+        int top() {
+            if (buffered < 2) {
+                refill();
+            }
+            int dx = xs[buffered - 1] - xs[buffered - 2];
+            int dy = ys[buffered - 1] - ys[buffered - 2];
+            return dy != 0 ? (dy < 0 ? 0 : 1) : (dx < 0 ? 2 : 3);
+        }
+
+        @Override
+        long size() {
+            return flushed + buffered - 1;
+        }
+
+        /**
+         * Дописывает буфер в файл и обрезает файл по концу маршрута.
+         *
+         * @param found true если маршрут ведет в конечную точку; иначе файл очищается
+         * @return количество записанных точек
+         * @throws UncheckedIOException при ошибке записи
+         */
+        long finish(boolean found) {
+            try {
+                if (!found) {
+                    channel.truncate(0);
+                    return 0;
+                }
+                write(0, buffered);
+                long points = flushed + buffered;
+                channel.truncate(points * POINT_BYTES);
+                return points;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write path file", e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        /**
+         * Сбрасывает старшую половину буфера в файл.
+         */
+        private void spill() {
+            int half = BUFFER_POINTS / 2;
+            try {
+                write(0, half);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write path file", e);
+            }
+            flushed += half;
+            System.arraycopy(xs, half, xs, 0, buffered - half);
+            System.arraycopy(ys, half, ys, 0, buffered - half);
+            buffered -= half;
+        }
+
+        /**
+         * Дочитывает из файла точки, предшествующие буферу.
+         */
+        private void refill() {
+            int count = (int) Math.min(BUFFER_POINTS / 2, flushed);
+            System.arraycopy(xs, 0, xs, count, buffered);
+            System.arraycopy(ys, 0, ys, count, buffered);
+            io.clear().limit(count * POINT_BYTES);
+            try {
+                long position = (flushed - count) * POINT_BYTES;
+                while (io.hasRemaining()) {
+                    if (channel.read(io, position + io.position()) < 0) {
+                        throw new IOException("Unexpected end of path file");
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read path file", e);
+            }
+            io.flip();
+            for (int i = 0; i < count; i++) {
+                xs[i] = io.getInt();
+                ys[i] = io.getInt();
+            }
+            flushed -= count;
+            buffered += count;
+        }
+
+        /**
+         * Записывает точки буфера {@code [from, from + count)} в файл сразу после уже сброшенных.
+         */
+        private void write(int from, int count) throws IOException {
+            long position = flushed * POINT_BYTES;
+            for (int offset = 0; offset < count; offset += BUFFER_POINTS / 2) {
+                int chunk = Math.min(BUFFER_POINTS / 2, count - offset);
+                io.clear();
+                for (int i = from + offset; i < from + offset + chunk; i++) {
+                    io.putInt(xs[i]).putInt(ys[i]);
+                }
+                io.flip();
+                while (io.hasRemaining()) {
+                    position += channel.write(io, position);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import static academy.maze.solver.DistanceField.UNREACHABLE;
+import static academy.maze.solver.SolverUtils.buildPath;
+import static academy.maze.solver.SolverUtils.parentIndex;
+
+/**
+ * Поиск ближайших целей одной заливкой от множества исходных точек.
+ * Все исходные точки получают расстояние 0, поэтому каждая ячейка получает расстояние
+ * до ближайшей из них; цели собираются в порядке окончательного вычисления расстояний,
+ * и поиск останавливается, как только найдено нужное количество целей.
+ * Заливку выполняет {@link FloodFillEngine}: без стоимостей - поиск в ширину, со стоимостями - алгоритм Дайала.
+ * Исходная точка каждой цели находится подъемом по родителям до отмеченной ячейки.
+ * Буферы переиспользуются между поисками; экземпляр не потокобезопасен.
+ */
+public final class NearestTargetEngine {
+    private final FloodFillEngine floodFill = new FloodFillEngine();
+    private final PackedDirections parents = new PackedDirections();
+    private int[] distances = new int[0];
+    private int[] sourceMarks = new int[0];
+    private int[] targetMarks = new int[0];
+    private int epoch;
+
+    /**
+     * Находит ближайшие к исходным точкам цели.
+     *
+     * @param maze лабиринт
+     * @param sources исходные точки
+     * @param targets цели; повторы не учитываются
+     * @param limit максимальное количество целей
+     * @param costs стоимости входа в ячейки или null для поиска по количеству шагов
+     * @return найденные цели в порядке неубывания расстояния
+     */
+    public List<TargetMatch> findNearest(Maze maze, Collection<Point> sources, Collection<Point> targets,
+                                         int limit, CellCosts costs) {
+        AdjacencyMasks adjacency = maze.adjacency();
+        reset((int) maze.cellCount());
+        for (Point target : targets) {
+            targetMarks[maze.index(target)] = epoch;
+        }
+        int[] sourceIndexes = new int[sources.size()];
+        int count = 0;
+        for (Point source : sources) {
+            int index = maze.index(source);
+            sourceMarks[index] = epoch;
+            sourceIndexes[count++] = index;
+        }
+
+        List<TargetMatch> matches = new ArrayList<>(Math.min(limit, targets.size()));
+        floodFill.flood(maze, sourceIndexes, distances, parents, costs,
+            current -> targetMarks[current] == epoch && collect(maze, adjacency, matches, current, limit));
+        return matches;
+    }
+
+    /**
+     * Добавляет цель в результат и снимает с нее отметку, чтобы она не попала в результат повторно.
+     *
+     * @return true если найдено нужное количество целей
+     */
+    private boolean collect(Maze maze, AdjacencyMasks adjacency, List<TargetMatch> matches, int target, int limit) {
+        targetMarks[target] = 0;
+        int source = target;
+        while (sourceMarks[source] != epoch) {
+            source = parentIndex(adjacency, parents, source);
+        }
+        matches.add(new TargetMatch(maze.pointAt(source), maze.pointAt(target), distances[target],
+            buildPath(maze, adjacency, parents, source, target)));
+        return matches.size() == limit;
+    }
+
+    /**
+     * Подготавливает буферы к новому поиску.
+     *
+     * @param cellCount количество ячеек лабиринта
+     */
+    private void reset(int cellCount) {
+        if (distances.length < cellCount) {
+            distances = new int[cellCount];
+            sourceMarks = new int[cellCount];
+            targetMarks = new int[cellCount];
+            epoch = 0;
+        }
+        Arrays.fill(distances, 0, cellCount, UNREACHABLE);
+        parents.ensureCapacity(cellCount);
+        if (++epoch == 0) {
+            Arrays.fill(sourceMarks, 0);
+            Arrays.fill(targetMarks, 0);
+            epoch = 1;
+        }
+    }
+}
@@ -3,18 +3,18 @@ package academy.maze.solver.Iterator;
 import academy.maze.dto.Maze;
 import academy.maze.dto.Point;
 import academy.maze.solver.Direction;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.NoSuchElementException;
-import static academy.maze.dto.Point.add;
+import static academy.maze.dto.Point.createPoint;
 
 /**
  * Итератор для обхода проходимых соседних ячеек в лабиринте.
  * Реализует обход в 4 направлениях (вверх, вниз, влево, вправо).
+ * Соседи читаются из предвычисленной маски смежности {@link academy.maze.dto.AdjacencyMasks},
+ * поэтому итерация сводится к перебору установленных битов маски.
  */
 public class NeighborIterator implements NeighborIteratorInterface {
-    private final List<Point> neighbors;
-    private int index;
+    private final Point point;
+    private int remaining;
 
     /**
      * Создает итератор соседних ячеек для указанной точки.
@@ -23,35 +23,8 @@ public class NeighborIterator implements NeighborIteratorInterface {
      * @param maze лабиринт, в котором происходит поиск
      */
     public NeighborIterator(Point point, Maze maze) {
-        this.neighbors = new ArrayList<>();
-        this.index = 0;
-        initNeighbors(point, maze);
-    }
-
-    /**
-     * Инициализирует список валидных соседних ячеек.
-     *
-     * @param point исходная точка
-     * @param maze лабиринт для проверки валидности
-     */
-    private void initNeighbors(Point point, Maze maze) {
-        for (Direction dir : Direction.values()) {
-            Point neighbor = add(point, dir.toPoint());
-            if (isValidNeighbor(neighbor, maze)) {
-                neighbors.add(neighbor);
-            }
-        }
-    }
-
-    /**
-     * Проверяет, является ли соседняя ячейка валидной для перемещения.
-     *
-     * @param neighbor соседняя точка для проверки
-     * @param maze лабиринт
-     * @return true если ячейка находится в пределах лабиринта и проходима
-     */
-    private boolean isValidNeighbor(Point neighbor, Maze maze) {
-        return maze.isValidPosition(neighbor) && maze.getCell(neighbor).isPassable();
+        this.point = point;
+        this.remaining = maze.adjacencyMask(point.x(), point.y());
     }
 
     /**
@@ -61,7 +34,7 @@ public class NeighborIterator implements NeighborIteratorInterface {
      */
     @Override
     public boolean hasNext() {
-        return index < neighbors.size();
+        return remaining != 0;
     }
 
     /**
@@ -75,8 +48,9 @@ public class NeighborIterator implements NeighborIteratorInterface {
         if (!hasNext()) {
             throw new NoSuchElementException();
         }
-        Point neighbor = neighbors.get(index);
-        index++;
-        return neighbor;
+        int bit = Integer.lowestOneBit(remaining);
+        remaining &= remaining - 1;
+        Direction direction = Direction.ofBit(bit);
+        return createPoint(point.x() + direction.dx(), point.y() + direction.dy());
     }
 }
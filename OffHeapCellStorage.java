@@ -0,0 +1,273 @@
+package academy.maze.dto.storage;
+
+import academy.maze.dto.CellType;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Хранилище ячеек во внешней памяти (вне кучи) на основе {@link MemorySegment}.
+ * Один байт (порядковый номер {@link CellType}) на ячейку, индексы типа {@code long},
+ * поэтому размер ограничен только доступной памятью или размером файла, а не пределами массивов Java.
+ * Временем жизни памяти управляет {@link Arena}, переданная при создании.
+ * Запись должна попадать в исходный сегмент (в том числе в отображенный файл), поэтому снимок
+ * читает тот же сегмент, а исходное хранилище перед первой записью в блок из {@link #BLOCK_SIZE} ячеек
+ * копирует прежнее содержимое блока в кучу для всех живых снимков, у которых его еще нет.
+ * Снимки хранятся по слабым ссылкам; запись в снимок копирует в кучу только затронутый блок.
+ */
+public final class OffHeapCellStorage implements CellStorage {
+    /** Количество ячеек в блоке копирования при записи */
+    public static final int BLOCK_SIZE = 1 << 12;
+
+    private static final int BLOCK_SHIFT = 12;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final byte WALL_ORDINAL = (byte) CellType.WALL.ordinal();
+
+    private final MemorySegment segment;
+
+    /** Хранилище, владеющее сегментом; null у самого владельца */
+    private final OffHeapCellStorage source;
+
+    /** Живые снимки владельца; доступ под блокировкой списка */
+    private final List<WeakReference<OffHeapCellStorage>> snapshots;
+
+    /** Блоки владельца, прежнее содержимое которых уже передано всем живым снимкам */
+    private boolean[] preservedBlocks;
+
+    /** Скопированные блоки снимка; null у владельца */
+    private final AtomicReferenceArray<byte[]> blocks;
+    private final boolean[] ownedBlocks;
+    private int copiedBlocks;
+
+    /**
+     * Создает хранилище поверх готового сегмента памяти.
+     *
+     * @param segment сегмент, один байт на ячейку
+     */
+    public OffHeapCellStorage(MemorySegment segment) {
+        this.segment = segment;
+        this.source = null;
+        this.snapshots = new ArrayList<>();
+        this.blocks = null;
+        this.ownedBlocks = null;
+    }
+
+    /**
+     * Создает снимок поверх сегмента владельца и скопированных блоков родителя.
+     *
+     * @param owner хранилище, владеющее сегментом
+     * @param parent хранилище, с которого снимается снимок: владелец или другой снимок
+     */
+    private OffHeapCellStorage(OffHeapCellStorage owner, OffHeapCellStorage parent) {
+        this.segment = owner.segment;
+        this.source = owner;
+        this.snapshots = null;
+        int blockCount = Math.toIntExact((segment.byteSize() + BLOCK_MASK) >>> BLOCK_SHIFT);
+        this.blocks = new AtomicReferenceArray<>(blockCount);
+        this.ownedBlocks = new boolean[blockCount];
+        if (parent.blocks != null) {
+            for (int block = 0; block < blockCount; block++) {
+                blocks.setPlain(block, parent.blocks.get(block));
+            }
+            this.copiedBlocks = parent.copiedBlocks;
+        }
+    }
+
+    /**
+     * Выделяет анонимный сегмент памяти, заполненный стенами.
+     *
+     * @param size количество ячеек
+     * @param arena арена, которой принадлежит память
+     * @return новое хранилище
+     */
+    public static OffHeapCellStorage allocate(long size, Arena arena) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Storage size must be positive: " + size);
+        }
+        // Арена возвращает обнуленную память, а порядковый номер WALL равен нулю
+        return new OffHeapCellStorage(arena.allocate(size, 1));
+    }
+
+    /**
+     * Выделяет сегмент памяти, заполненный стенами, который освобождается сборщиком мусора.
+     * Сигнатура не содержит типов FFM, поэтому вызывающий код не требует {@code --enable-preview}.
+     *
+     * @param size количество ячеек
+     * @return новое хранилище
+     */
+    public static OffHeapCellStorage allocate(long size) {
+        return allocate(size, Arena.ofAuto());
+    }
+
+    /**
+     * Отображает файл в память и создает поверх него хранилище.
+     * Если файл короче требуемого размера, он дополняется нулями, то есть стенами.
+     *
+     * @param file файл с ячейками, один байт на ячейку
+     * @param size количество ячеек
+     * @param arena арена, которой принадлежит отображение
+     * @return хранилище поверх файла
+     * @throws IOException если файл не удалось открыть или отобразить
+     */
+    public static OffHeapCellStorage map(java.nio.file.Path file, long size, Arena arena) throws IOException {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Storage size must be positive: " + size);
+        }
+        try (FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new OffHeapCellStorage(channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena));
+        }
+    }
+
+    @Override
+    public CellType get(long index) {
+        return CELL_TYPES[ordinalAt(index)];
+    }
+
+    @Override
+    public void set(long index, CellType type) {
+        int blockIndex = (int) (index >>> BLOCK_SHIFT);
+        if (blocks == null) {
+            if (preservedBlocks != null && !preservedBlocks[blockIndex]) {
+                preserve(blockIndex);
+            }
+            segment.set(ValueLayout.JAVA_BYTE, index, (byte) type.ordinal());
+            return;
+        }
+        if (!ownedBlocks[blockIndex]) {
+            byte[] block = blocks.get(blockIndex);
+            if (block == null) {
+                block = copyBlock(blockIndex);
+                if (!blocks.compareAndSet(blockIndex, null, block)) {
+                    // Владелец успел передать прежнее содержимое блока раньше
+                    block = blocks.get(blockIndex).clone();
+                }
+                copiedBlocks++;
+            }
+            else {
+                block = block.clone();
+            }
+            blocks.set(blockIndex, block);
+            ownedBlocks[blockIndex] = true;
+        }
+        blocks.getPlain(blockIndex)[(int) (index & BLOCK_MASK)] = (byte) type.ordinal();
+    }
+
+    @Override
+    public boolean isPassable(long index) {
+        return ordinalAt(index) != WALL_ORDINAL;
+    }
+
+    @Override
+    public long size() {
+        return segment.byteSize();
+    }
+
+    @Override
+    public long footprintBytes() {
+        if (blocks == null) {
+            return segment.byteSize();
+        }
+        return (long) copiedBlocks * BLOCK_SIZE;
+    }
+
+    @Override
+    public synchronized CellStorage snapshot() {
+        OffHeapCellStorage owner = source == null ? this : source;
+        if (blocks == null) {
+            if (preservedBlocks == null) {
+                preservedBlocks = new boolean[Math.toIntExact((segment.byteSize() + BLOCK_MASK) >>> BLOCK_SHIFT)];
+            }
+            else {
+                Arrays.fill(preservedBlocks, false);
+            }
+        }
+        else {
+            Arrays.fill(ownedBlocks, false);
+        }
+        // Копирование таблицы блоков и регистрация выполняются атомарно относительно передачи блоков владельцем
+        synchronized (owner.snapshots) {
+            OffHeapCellStorage snapshot = new OffHeapCellStorage(owner, this);
+            owner.snapshots.add(new WeakReference<>(snapshot));
+            return snapshot;
+        }
+    }
+
+    /**
+     * Сбрасывает изменения отображенного файла на диск.
+     * Для анонимной памяти и снимков ничего не делает.
+     */
+    public void force() {
+        if (blocks == null && segment.isMapped()) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Читает порядковый номер ячейки из скопированного блока или из сегмента владельца.
+     * Значение из сегмента принимается, только если после чтения блок все еще не передан снимку:
+     * владелец передает блок до записи в сегмент, поэтому иначе значение могло быть уже новым.
+     */
+    private byte ordinalAt(long index) {
+        if (blocks == null) {
+            return segment.get(ValueLayout.JAVA_BYTE, index);
+        }
+        int blockIndex = (int) (index >>> BLOCK_SHIFT);
+        byte[] block = blocks.get(blockIndex);
+        if (block == null) {
+            byte value = segment.get(ValueLayout.JAVA_BYTE, index);
+            VarHandle.loadLoadFence();
+            block = blocks.get(blockIndex);
+            if (block == null) {
+                return value;
+            }
+        }
+        return block[(int) (index & BLOCK_MASK)];
+    }
+
+    /**
+     * Передает прежнее содержимое блока владельца всем живым снимкам, у которых его еще нет.
+     * Все снимки получают одну общую копию, которую каждый из них копирует заново при своей записи.
+     */
+    private void preserve(int blockIndex) {
+        synchronized (snapshots) {
+            byte[] copy = null;
+            for (Iterator<WeakReference<OffHeapCellStorage>> it = snapshots.iterator(); it.hasNext(); ) {
+                OffHeapCellStorage snapshot = it.next().get();
+                if (snapshot == null) {
+                    it.remove();
+                    continue;
+                }
+                if (snapshot.blocks.get(blockIndex) == null) {
+                    if (copy == null) {
+                        copy = copyBlock(blockIndex);
+                    }
+                    snapshot.blocks.compareAndSet(blockIndex, null, copy);
+                }
+            }
+            preservedBlocks[blockIndex] = true;
+        }
+        VarHandle.storeStoreFence();
+    }
+
+    /**
+     * Копирует блок сегмента владельца в кучу; последний блок может быть короче остальных.
+     */
+    private byte[] copyBlock(int blockIndex) {
+        long from = (long) blockIndex << BLOCK_SHIFT;
+        byte[] block = new byte[(int) Math.min(BLOCK_SIZE, segment.byteSize() - from)];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, from, block, 0, block.length);
+        return block;
+    }
+}
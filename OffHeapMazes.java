@@ -0,0 +1,47 @@
+package academy.maze.dto;
+
+import academy.maze.dto.storage.OffHeapCellStorage;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+
+/**
+ * Фабрики лабиринтов во внешней памяти и поверх отображенных файлов.
+ * Вынесены из {@link Maze}, потому что API внешней памяти в JDK 21 является preview:
+ * классы, ссылающиеся на {@link Arena}, загружаются только с {@code --enable-preview},
+ * а обычные лабиринты в куче не должны от этого зависеть.
+ */
+public final class OffHeapMazes {
+    private OffHeapMazes() {
+    }
+
+    /**
+     * Создает лабиринт указанного размера, заполненный стенами, во внешней памяти (вне кучи).
+     * Память освобождается при закрытии арены.
+     *
+     * @param width ширина лабиринта
+     * @param height высота лабиринта
+     * @param arena арена, которой принадлежит память лабиринта
+     * @return новый лабиринт
+     * @throws IllegalArgumentException если размеры некорректны
+     */
+    public static Maze offHeap(int width, int height, Arena arena) {
+        return new Maze(OffHeapCellStorage.allocate(Maze.cellCount(width, height), arena), width, height);
+    }
+
+    /**
+     * Создает лабиринт указанного размера поверх файла, отображенного в память.
+     * Если файл короче требуемого, он дополняется нулями, то есть стенами.
+     * Изменения ячеек записываются в файл.
+     *
+     * @param file файл с ячейками лабиринта (один байт на ячейку)
+     * @param width ширина лабиринта
+     * @param height высота лабиринта
+     * @param arena арена, которой принадлежит отображение файла
+     * @return лабиринт поверх файла
+     * @throws IllegalArgumentException если размеры некорректны
+     * @throws IOException если файл не удалось открыть или отобразить
+     */
+    public static Maze mapped(java.nio.file.Path file, int width, int height, Arena arena) throws IOException {
+        return new Maze(OffHeapCellStorage.map(file, Maze.cellCount(width, height), arena), width, height);
+    }
+}
@@ -0,0 +1,61 @@
+package academy.maze.dto.storage;
+
+import academy.maze.dto.CellType;
+import java.util.Map;
+
+/**
+ * Представление хранилища только для чтения, накладывающее набор ячеек поверх базового хранилища.
+ * Базовые данные не копируются; ячейки, отсутствующие в наложении, читаются из базового хранилища.
+ */
+public final class OverlayCellStorage implements CellStorage {
+    private final CellStorage base;
+    private final Map<Long, CellType> overrides;
+
+    /**
+     * Создает наложение поверх базового хранилища.
+     *
+     * @param base базовое хранилище
+     * @param overrides ячейки наложения по индексам; карта не должна изменяться после передачи
+     */
+    public OverlayCellStorage(CellStorage base, Map<Long, CellType> overrides) {
+        this.base = base;
+        this.overrides = overrides;
+    }
+
+    @Override
+    public CellType get(long index) {
+        CellType type = overrides.get(index);
+        return type != null ? type : base.get(index);
+    }
+
+    /**
+     * Наложение доступно только для чтения.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void set(long index, CellType type) {
+        throw new UnsupportedOperationException("Overlay storage is read-only");
+    }
+
+    @Override
+    public boolean isPassable(long index) {
+        CellType type = overrides.get(index);
+        return type != null ? type.isPassable() : base.isPassable(index);
+    }
+
+    @Override
+    public long size() {
+        return base.size();
+    }
+
+    @Override
+    public long footprintBytes() {
+        return base.footprintBytes();
+    }
+
+    @Override
+    public CellStorage snapshot() {
+        return new OverlayCellStorage(base.snapshot(), overrides);
+    }
+}
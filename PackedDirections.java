@@ -0,0 +1,54 @@
+package academy.maze.solver;
+
+/**
+ * Массив 2-битных направлений, упакованных по 32 в {@code long}.
+ * Используется поисковыми движками для хранения направления, по которому пришли в ячейку.
+ * Номера направлений совпадают с порядковыми номерами {@link Direction}.
+ */
+public final class PackedDirections {
+    private long[] words = new long[0];
+
+    /**
+     * Гарантирует, что массив вмещает указанное количество направлений.
+     * Содержимое при этом не очищается.
+     *
+     * @param size количество направлений
+     */
+    public void ensureCapacity(int size) {
+        int required = (size + 31) >>> 5;
+        if (words.length < required) {
+            words = new long[required];
+        }
+    }
+
+    /**
+     * Возвращает направление по индексу.
+     *
+     * @param index индекс ячейки
+     * @return номер направления (0-3)
+     */
+    public int get(int index) {
+        return (int) (words[index >>> 5] >>> ((index & 31) << 1)) & 3;
+    }
+
+    /**
+     * Сохраняет направление по индексу.
+     *
+     * @param index индекс ячейки
+     * @param direction номер направления (0-3)
+     */
+    public void set(int index, int direction) {
+        int shift = (index & 31) << 1;
+        words[index >>> 5] = (words[index >>> 5] & ~(3L << shift)) | ((long) direction << shift);
+    }
+
+    /**
+     * Возвращает номер противоположного направления: UP и DOWN, LEFT и RIGHT.
+     *
+     * @param direction номер направления
+     * @return номер противоположного направления
+     */
+    public static int opposite(int direction) {
+        return direction ^ 1;
+    }
+}
@@ -0,0 +1,309 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Поуровневый параллельный поиск в ширину на {@link ForkJoinPool}.
+ * Каждый уровень фронта делится на части, которые раскрываются параллельно; ячейки захватываются
+ * атомарной установкой бита (CAS) в общем битовом массиве посещенных, а каждая задача собирает
+ * свою часть следующего фронта в локальный буфер. Для каждого уровня выбирается направление:
+ * сверху вниз (раскрытие фронта) при малом фронте или снизу вверх (каждая непосещенная ячейка ищет соседа во фронте),
+ * когда фронт сравним с непосещенной частью лабиринта.
+ * Расстояния совпадают с последовательным BFS; путь восстанавливается по расстояниям и
+ * может отличаться от пути {@link BFSEngine} среди равных по длине.
+ * Экземпляр не хранит состояния поиска и может использоваться несколькими потоками.
+ */
+public final class ParallelBFS {
+    /** Минимальное количество ячеек фронта на одну задачу */
+    private static final int GRAIN = 512;
+
+    /** Фронт, больший непосещенной части лабиринта, деленной на это число, раскрывается снизу вверх */
+    private static final int BOTTOM_UP_RATIO = 14;
+
+    private static final int UNREACHED = -1;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Создает поиск, использующий общий пул fork/join.
+     */
+    public ParallelBFS() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Создает поиск, использующий указанный пул.
+     *
+     * @param pool пул потоков
+     */
+    public ParallelBFS(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Проверяет, поддерживает ли поиск лабиринт: ячейки должны индексироваться типом {@code int}.
+     *
+     * @param maze лабиринт
+     * @return true если лабиринт помещается в массивы поиска
+     */
+    public static boolean supports(Maze maze) {
+        return BFSEngine.supports(maze);
+    }
+
+    /**
+     * Вычисляет расстояния от точки до всех достижимых ячеек.
+     *
+     * @param maze лабиринт
+     * @param source начальная точка
+     * @return массив расстояний по индексам ячеек; -1 для недостижимых ячеек
+     */
+    public int[] distances(Maze maze, Point source) {
+        return new Search(maze, maze.index(source), -1).run();
+    }
+
+    /**
+     * Вычисляет длину кратчайшего пути между двумя точками в шагах.
+     * Поиск останавливается на уровне, на котором достигнута конечная точка.
+     *
+     * @param maze лабиринт
+     * @param start начальная точка
+     * @param end конечная точка
+     * @return количество шагов или -1, если конечная точка недостижима
+     */
+    public int distance(Maze maze, Point start, Point end) {
+        int target = maze.index(end);
+        return new Search(maze, maze.index(start), target).run()[target];
+    }
+
+    /**
+     * Находит кратчайший путь между двумя точками.
+     *
+     * @param maze лабиринт
+     * @param start начальная точка
+     * @param end конечная точка
+     * @return кратчайший путь или пустой путь, если конечная точка недостижима
+     */
+    public Path findPath(Maze maze, Point start, Point end) {
+        int target = maze.index(end);
+        int[] levels = new Search(maze, maze.index(start), target).run();
+        int length = levels[target];
+        if (length == UNREACHED) {
+            return Path.empty();
+        }
+
+        AdjacencyMasks adjacency = maze.adjacency();
+        Point[] points = new Point[length + 1];
+        int current = target;
+        for (int level = length; level > 0; level--) {
+            points[level] = maze.pointAt(current);
+            int mask = adjacency.mask(current);
+            while (mask != 0) {
+                int neighbor = adjacency.neighbor(current, Integer.lowestOneBit(mask));
+                mask &= mask - 1;
+                if (levels[neighbor] == level - 1) {
+                    current = neighbor;
+                    break;
+                }
+            }
+        }
+        points[0] = maze.pointAt(current);
+        return new Path(points);
+    }
+
+    /**
+     * Состояние одного поиска.
+     */
+    private final class Search {
+        private final AdjacencyMasks adjacency;
+        private final int cellCount;
+        private final int source;
+        private final int target;
+        private final int[] levels;
+        private final AtomicLongArray visited;
+        private volatile boolean found;
+
+        private Search(Maze maze, int source, int target) {
+            this.adjacency = maze.adjacency();
+            this.cellCount = (int) maze.cellCount();
+            this.source = source;
+            this.target = target;
+            this.levels = new int[cellCount];
+            this.visited = new AtomicLongArray((cellCount + 63) >>> 6);
+            Arrays.fill(levels, UNREACHED);
+        }
+
+        /**
+         * Выполняет поиск по уровням.
+         *
+         * @return массив расстояний
+         */
+        private int[] run() {
+            claim(source);
+            levels[source] = 0;
+            int[] frontier = {source};
+            long visitedCount = 1;
+            int level = 0;
+
+            while (frontier.length > 0 && !found && source != target) {
+                boolean bottomUp = (long) frontier.length * BOTTOM_UP_RATIO > cellCount - visitedCount;
+                frontier = bottomUp ? bottomUp(level) : topDown(frontier, level);
+                visitedCount += frontier.length;
+                level++;
+            }
+            return levels;
+        }
+
+        /**
+         * Раскрывает фронт: каждая задача захватывает непосещенных соседей своей части фронта.
+         */
+        private int[] topDown(int[] frontier, int level) {
+            int tasks = taskCount(frontier.length);
+            int chunk = (frontier.length + tasks - 1) / tasks;
+            return collect(tasks, task -> {
+                IntBuffer next = new IntBuffer();
+                int to = Math.min(frontier.length, (task + 1) * chunk);
+                for (int i = task * chunk; i < to; i++) {
+                    int current = frontier[i];
+                    int mask = adjacency.mask(current);
+                    while (mask != 0) {
+                        int neighbor = adjacency.neighbor(current, Integer.lowestOneBit(mask));
+                        mask &= mask - 1;
+                        if (claim(neighbor)) {
+                            reach(neighbor, level + 1, next);
+                        }
+                    }
+                }
+                return next.toArray();
+            });
+        }
+
+        /**
+         * Проходит все непосещенные ячейки: ячейка попадает в следующий фронт, если ее сосед лежит в текущем.
+         * Диапазоны задач выровнены по 64 ячейкам, поэтому каждое слово битового массива пишет одна задача.
+         */
+        private int[] bottomUp(int level) {
+            int tasks = taskCount(cellCount);
+            int chunk = ((cellCount + tasks - 1) / tasks + 63) & ~63;
+            return collect(tasks, task -> {
+                IntBuffer next = new IntBuffer();
+                int to = (int) Math.min(cellCount, (long) (task + 1) * chunk);
+                for (int cell = task * chunk; cell < to; cell++) {
+                    int mask = adjacency.mask(cell);
+                    if (mask == 0 || isVisited(cell)) {
+                        continue;
+                    }
+                    while (mask != 0) {
+                        int neighbor = adjacency.neighbor(cell, Integer.lowestOneBit(mask));
+                        mask &= mask - 1;
+                        if (levels[neighbor] == level && isVisited(neighbor)) {
+                            claim(cell);
+                            reach(cell, level + 1, next);
+                            break;
+                        }
+                    }
+                }
+                return next.toArray();
+            });
+        }
+
+        private void reach(int cell, int level, IntBuffer next) {
+            levels[cell] = level;
+            next.add(cell);
+            if (cell == target) {
+                found = true;
+            }
+        }
+
+        /**
+         * Выполняет задачи в пуле и склеивает их локальные фронты.
+         * Единственная задача выполняется в текущем потоке.
+         */
+        private int[] collect(int tasks, ChunkTask body) {
+            if (tasks == 1) {
+                return body.run(0);
+            }
+            List<ForkJoinTask<int[]>> futures = new ArrayList<>(tasks);
+            for (int task = 0; task < tasks; task++) {
+                int id = task;
+                futures.add(pool.submit(() -> body.run(id)));
+            }
+            int[][] parts = new int[tasks][];
+            int total = 0;
+            for (int task = 0; task < tasks; task++) {
+                parts[task] = futures.get(task).join();
+                total += parts[task].length;
+            }
+            int[] next = new int[total];
+            int position = 0;
+            for (int[] part : parts) {
+                System.arraycopy(part, 0, next, position, part.length);
+                position += part.length;
+            }
+            return next;
+        }
+
+        private int taskCount(int work) {
+            return Math.max(1, Math.min(pool.getParallelism() * 4, work / GRAIN));
+        }
+
+        /**
+         * Атомарно отмечает ячейку посещенной.
+         *
+         * @param cell индекс ячейки
+         * @return true если ячейку отметил этот вызов
+         */
+        private boolean claim(int cell) {
+            int word = cell >>> 6;
+            long bit = 1L << cell;
+            long current = visited.get(word);
+            while ((current & bit) == 0) {
+                long witness = visited.compareAndExchange(word, current, current | bit);
+                if (witness == current) {
+                    return true;
+                }
+                current = witness;
+            }
+            return false;
+        }
+
+        private boolean isVisited(int cell) {
+            return (visited.get(cell >>> 6) & (1L << cell)) != 0;
+        }
+    }
+
+    /**
+     * Тело задачи, обрабатывающей одну часть уровня.
+     */
+    @FunctionalInterface
+    private interface ChunkTask {
+        int[] run(int task);
+    }
+
+    /**
+     * Растущий локальный буфер следующего фронта.
+     */
+    private static final class IntBuffer {
+        private int[] values = new int[64];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package academy.maze.benchmark;
+
+import academy.maze.dto.CellType;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Point;
+import academy.maze.generator.DFSGenerator;
+import academy.maze.solver.BFSSolver;
+import academy.maze.solver.ParallelBFS;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Бенчмарк масштабирования параллельного поиска в ширину.
+ * Генерирует лабиринт алгоритмом DFS, убирает часть внутренних стен, чтобы появились циклы и широкие фронты,
+ * и замеряет полный обход {@link ParallelBFS} на пулах от 1 до N потоков. Ускорение считается относительно
+ * того же обхода на одном потоке; время поиска пути однопоточным {@link BFSSolver} выводится отдельно для справки.
+ * Для каждого числа потоков проверяется, что расстояние до дальнего угла совпадает с последовательным.
+ *
+ * Запуск: {@code java academy.maze.benchmark.ParallelBfsBenchmark [size] [runs] [threads] [openness]}
+ */
+public final class ParallelBfsBenchmark {
+    private static final int DEFAULT_SIZE = 4001;
+    private static final int DEFAULT_RUNS = 5;
+    private static final double DEFAULT_OPENNESS = 0.3;
+
+    private ParallelBfsBenchmark() {}
+
+    /**
+     * Точка входа бенчмарка.
+     *
+     * @param args необязательные размер лабиринта (нечетный), количество замеров,
+     *             максимальное число потоков и доля убираемых внутренних стен
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RUNS;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        double openness = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_OPENNESS;
+
+        Maze maze = openWalls(new DFSGenerator().generate(size, size), openness, new Random(size));
+        Point start = new Point(1, 1);
+        Point end = new Point(size - 2, size - 2);
+
+        BFSSolver sequential = new BFSSolver();
+        int expected = sequential.solve(maze, start, end).length() - 1;
+        double sequentialMillis = measure(() -> sequential.solve(maze, start, end), runs);
+        System.out.printf("Maze %dx%d, openness %.2f, %d runs, distance %d%n", size, size, openness, runs, expected);
+        System.out.printf("sequential bfs (path search): %.2f ms%n", sequentialMillis);
+
+        double baseline = 0;
+
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                ParallelBFS parallel = new ParallelBFS(pool);
+                int distance = parallel.distances(maze, start)[maze.index(end)];
+                if (distance != expected) {
+                    throw new IllegalStateException("Parallel distance " + distance + " differs from sequential " + expected);
+                }
+                double millis = measure(() -> parallel.distances(maze, start), runs);
+                if (threads == 1) {
+                    baseline = millis;
+                }
+                System.out.printf("threads=%-3d flood=%.2f ms, speedup vs 1 thread baseline=%.2fx%n",
+                    threads, millis, baseline / millis);
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Убирает случайные внутренние стены между двумя проходами, создавая циклы.
+     *
+     * @param maze идеальный лабиринт
+     * @param openness доля убираемых стен
+     * @param random генератор случайных чисел
+     * @return тот же лабиринт
+     */
+    private static Maze openWalls(Maze maze, double openness, Random random) {
+        for (int y = 1; y < maze.height() - 1; y++) {
+            for (int x = 1; x < maze.width() - 1; x++) {
+                boolean between = (x % 2 == 0) != (y % 2 == 0);
+                if (between && maze.getCell(x, y) == CellType.WALL && random.nextDouble() < openness) {
+                    maze.setCell(x, y, CellType.PATH);
+                }
+            }
+        }
+        return maze;
+    }
+
+    /**
+     * Замеряет среднее время выполнения после одного прогревочного запуска.
+     *
+     * @param action замеряемое действие
+     * @param runs количество замеров
+     * @return среднее время в миллисекундах
+     */
+    private static double measure(Runnable action, int runs) {
+        action.run();
+        long total = 0;
+        for (int i = 0; i < runs; i++) {
+            long begin = System.nanoTime();
+            action.run();
+            total += System.nanoTime() - begin;
+        }
+        return total / 1_000_000.0 / runs;
+    }
+}
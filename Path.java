@@ -1,15 +1,52 @@
 package academy.maze.dto;
 
+import java.util.AbstractList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 
 /**
  * Путь в лабиринте. Точки в лабиринте находятся в порядке следования. Первой точкой является стартовая, последняя —
  * финишная.
- *
- * @param points координаты точек пути.
+ * Путь из соседних клеток хранится компактно: начальная точка и 2-битные коды шагов в {@code long[]}
+ * (32 шага в слове) вместо списка объектов {@link Point}. Коды шагов совпадают с номерами битов
+ * {@link AdjacencyMasks}: 0 - вверх, 1 - вниз, 2 - влево, 3 - вправо. Каждые {@value #CHECKPOINT_MOVES} шагов
+ * запоминаются координаты, поэтому точка по номеру вычисляется подсчетом битов не более чем
+ * по {@value #CHECKPOINT_MOVES} / 32 словам. Список точек, в котором соседние точки не являются соседними клетками,
+ * хранится как есть. Путь неизменяем.
  */
-public record Path(List<Point> points) {
+public final class Path implements Iterable<Point> {
+    /** Количество шагов между запомненными координатами */
+    private static final int CHECKPOINT_MOVES = 1024;
+
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    /** Младшие биты всех 2-битных кодов слова */
+    private static final long LOW_BITS = 0x5555555555555555L;
+
+    private static final long[] EMPTY_MOVES = new long[0];
+
+    private static final Path EMPTY = new Path(0, 0, EMPTY_MOVES, -1, null);
+
+    private final long[] moves;
+    private final int moveCount;
+    private final int[] checkpoints;
+    private final int endX;
+    private final int endY;
+    private final List<Point> explicit;
+    private List<Point> view;
+
+    /**
+     * Создает путь из списка точек.
+     *
+     * @param points точки пути в порядке следования
+     */
+    public Path(List<Point> points) {
+        this(points.toArray(new Point[0]));
+    }
 
     /**
      * Создает путь из массива точек.
@@ -17,7 +54,112 @@ public record Path(List<Point> points) {
      * @param points массив точек пути
      */
     public Path(Point[] points) {
-        this(Arrays.asList(points));
+        if (points.length == 0) {
+            this.moves = EMPTY_MOVES;
+            this.moveCount = -1;
+            this.checkpoints = new int[0];
+            this.endX = 0;
+            this.endY = 0;
+            this.explicit = List.of();
+            return;
+        }
+        if (!isContiguous(points)) {
+            this.moves = EMPTY_MOVES;
+            this.moveCount = points.length - 1;
+            this.checkpoints = new int[0];
+            this.endX = points[points.length - 1].x();
+            this.endY = points[points.length - 1].y();
+            this.explicit = List.of(points);
+            return;
+        }
+        long[] encoded = new long[wordCount(points.length - 1)];
+        for (int i = 1; i < points.length; i++) {
+            int dx = points[i].x() - points[i - 1].x();
+            int dy = points[i].y() - points[i - 1].y();
+            int code = dy != 0 ? (dy < 0 ? 0 : 1) : (dx < 0 ? 2 : 3);
+            encoded[(i - 1) >>> 5] |= (long) code << (((i - 1) & 31) << 1);
+        }
+        this.moves = encoded;
+        this.moveCount = points.length - 1;
+        this.checkpoints = checkpoints(points[0].x(), points[0].y(), encoded, moveCount);
+        this.endX = points[points.length - 1].x();
+        this.endY = points[points.length - 1].y();
+        this.explicit = null;
+    }
+
+    private Path(int startX, int startY, long[] moves, int moveCount, List<Point> explicit) {
+        this.moves = moves;
+        this.moveCount = moveCount;
+        this.explicit = explicit;
+        if (moveCount < 0) {
+            this.checkpoints = new int[0];
+            this.endX = 0;
+            this.endY = 0;
+            return;
+        }
+        this.checkpoints = checkpoints(startX, startY, moves, moveCount);
+        long end = walk(checkpoints[checkpoints.length - 2], checkpoints[checkpoints.length - 1],
+            (checkpoints.length / 2 - 1) * CHECKPOINT_MOVES, moveCount);
+        this.endX = (int) (end >> 32);
+        this.endY = (int) end;
+    }
+
+    /**
+     * Создает путь из начальной точки и 2-битных кодов шагов без промежуточных объектов {@link Point}.
+     * Шаг {@code i} хранится в битах {@code 2 * (i % 32)} слова {@code i / 32}. Массив передается пути во владение
+     * и не должен меняться после вызова.
+     *
+     * @param start начальная точка
+     * @param moves коды шагов
+     * @param moveCount количество шагов
+     * @return путь из {@code moveCount + 1} точек
+     * @throws IllegalArgumentException если массив слишком мал для указанного количества шагов
+     */
+    public static Path fromMoves(Point start, long[] moves, int moveCount) {
+        if (moveCount < 0 || moves.length < wordCount(moveCount)) {
+            throw new IllegalArgumentException("Moves array of " + moves.length + " words cannot hold " + moveCount + " moves");
+        }
+        return new Path(start.x(), start.y(), moves, moveCount, null);
+    }
+
+    /**
+     * Возвращает количество слов {@code long}, необходимое для хранения шагов.
+     *
+     * @param moveCount количество шагов
+     * @return количество слов
+     */
+    public static int wordCount(int moveCount) {
+        return (moveCount + 31) >>> 5;
+    }
+
+    /**
+     * Записывает код шага в массив шагов.
+     *
+     * @param moves массив шагов
+     * @param index номер шага
+     * @param code код направления: 0 - вверх, 1 - вниз, 2 - влево, 3 - вправо
+     */
+    public static void setMove(long[] moves, int index, int code) {
+        int shift = (index & 31) << 1;
+        moves[index >>> 5] = (moves[index >>> 5] & ~(3L << shift)) | ((long) code << shift);
+    }
+
+    /**
+     * Возвращает неизменяемое представление пути списком точек.
+     * Для компактного пути точки вычисляются при обращении и не хранятся.
+     *
+     * @return точки пути в порядке следования
+     */
+    public List<Point> points() {
+        if (explicit != null) {
+            return explicit;
+        }
+        List<Point> result = view;
+        if (result == null) {
+            result = new PointsView();
+            view = result;
+        }
+        return result;
     }
 
     /**
@@ -26,7 +168,7 @@ public record Path(List<Point> points) {
      * @return true если путь не содержит точек, false в противном случае
      */
     public boolean isEmpty() {
-        return points.isEmpty();
+        return moveCount < 0;
     }
 
     /**
@@ -35,7 +177,7 @@ public record Path(List<Point> points) {
      * @return количество точек в пути
      */
     public int length() {
-        return points.size();
+        return moveCount + 1;
     }
 
     /**
@@ -45,7 +187,7 @@ public record Path(List<Point> points) {
      * @throws IndexOutOfBoundsException если путь пуст
      */
     public Point getStart() {
-        return points.getFirst();
+        return pointAt(0);
     }
 
     /**
@@ -55,7 +197,63 @@ public record Path(List<Point> points) {
      * @throws IndexOutOfBoundsException если путь пуст
      */
     public Point getEnd() {
-        return points.getLast();
+        if (isEmpty()) {
+            throw new IndexOutOfBoundsException("Path is empty");
+        }
+        return new Point(endX, endY);
+    }
+
+    /**
+     * Возвращает точку пути по номеру.
+     *
+     * @param index номер точки от 0 до {@code length() - 1}
+     * @return точка пути
+     * @throws IndexOutOfBoundsException если номер вне пути
+     */
+    public Point pointAt(int index) {
+        long position = positionAt(index);
+        return new Point((int) (position >> 32), (int) position);
+    }
+
+    /**
+     * Возвращает координату x точки пути по номеру без создания объекта {@link Point}.
+     *
+     * @param index номер точки
+     * @return координата x
+     * @throws IndexOutOfBoundsException если номер вне пути
+     */
+    public int xAt(int index) {
+        return (int) (positionAt(index) >> 32);
+    }
+
+    /**
+     * Возвращает координату y точки пути по номеру без создания объекта {@link Point}.
+     *
+     * @param index номер точки
+     * @return координата y
+     * @throws IndexOutOfBoundsException если номер вне пути
+     */
+    public int yAt(int index) {
+        return (int) positionAt(index);
+    }
+
+    /**
+     * Создает курсор для последовательного обхода координат пути без создания объектов {@link Point}.
+     *
+     * @return курсор, стоящий перед первой точкой
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Возвращает итератор по точкам пути.
+     *
+     * @return итератор по точкам в порядке следования
+     */
+    @Override
+    public Iterator<Point> iterator() {
+        return points().iterator();
     }
 
     /**
@@ -64,6 +262,265 @@ public record Path(List<Point> points) {
      * @return путь без точек
      */
     public static Path empty() {
-        return new Path(new Point[0]);
+        return EMPTY;
+    }
+
+    /**
+     * Сравнивает пути по последовательности точек независимо от способа хранения.
+     *
+     * @param other объект для сравнения
+     * @return true если пути состоят из одних и тех же точек в том же порядке
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Path path) || moveCount != path.moveCount) {
+            return false;
+        }
+        if (explicit == null && path.explicit == null && moveCount >= 0) {
+            return checkpoints[0] == path.checkpoints[0] && checkpoints[1] == path.checkpoints[1]
+                && sameMoves(path);
+        }
+        Cursor mine = cursor();
+        Cursor theirs = path.cursor();
+        while (mine.next() && theirs.next()) {
+            if (mine.x() != theirs.x() || mine.y() != theirs.y()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Вычисляет хеш-код по координатам точек пути.
+     *
+     * @return хеш-код пути
+     */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            hash = 31 * hash + 31 * cursor.x() + cursor.y();
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "Path[]";
+        }
+        return "Path[length=" + length() + ", start=" + getStart() + ", end=" + getEnd() + "]";
+    }
+
+    /**
+     * Курсор для обхода пути: хранит текущие координаты в полях и не создает объектов на шаг.
+     */
+    public final class Cursor {
+        private int index = -1;
+        private int x;
+        private int y;
+
+        private Cursor() {
+        }
+
+        /**
+         * Переходит к следующей точке пути.
+         *
+         * @return true если точка есть, false если путь пройден
+         */
+        public boolean next() {
+            if (index >= moveCount) {
+                return false;
+            }
+            index++;
+            if (explicit != null) {
+                Point point = explicit.get(index);
+                x = point.x();
+                y = point.y();
+            }
+            else if (index == 0) {
+                x = checkpoints[0];
+                y = checkpoints[1];
+            }
+            else {
+                int code = (int) (moves[(index - 1) >>> 5] >>> (((index - 1) & 31) << 1)) & 3;
+                x += DX[code];
+                y += DY[code];
+            }
+            return true;
+        }
+
+        /**
+         * Возвращает номер текущей точки.
+         *
+         * @return номер точки или -1 до первого вызова {@link #next()}
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * Возвращает координату x текущей точки.
+         *
+         * @return координата x
+         */
+        public int x() {
+            return x;
+        }
+
+        /**
+         * Возвращает координату y текущей точки.
+         *
+         * @return координата y
+         */
+        public int y() {
+            return y;
+        }
+    }
+
+    /**
+     * Представление компактного пути списком, вычисляющее точки при обращении.
+     */
+    private final class PointsView extends AbstractList<Point> implements RandomAccess {
+        @Override
+        public Point get(int index) {
+            return pointAt(index);
+        }
+
+        @Override
+        public int size() {
+            return length();
+        }
+
+        @Override
+        public Iterator<Point> iterator() {
+            Cursor cursor = cursor();
+            return new Iterator<>() {
+                private boolean ready = cursor.next();
+
+                @Override
+                public boolean hasNext() {
+                    return ready;
+                }
+
+                @Override
+                public Point next() {
+                    if (!ready) {
+                        throw new NoSuchElementException();
+                    }
+                    Point point = new Point(cursor.x(), cursor.y());
+                    ready = cursor.next();
+                    return point;
+                }
+            };
+        }
+    }
+
+    /**
+     * Возвращает упакованные координаты точки: x в старших 32 битах, y в младших.
+     */
+    private long positionAt(int index) {
+        if (index < 0 || index > moveCount) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for path length " + length());
+        }
+        if (explicit != null) {
+            Point point = explicit.get(index);
+            return ((long) point.x() << 32) | (point.y() & 0xFFFFFFFFL);
+        }
+        int checkpoint = index / CHECKPOINT_MOVES;
+        return walk(checkpoints[2 * checkpoint], checkpoints[2 * checkpoint + 1], checkpoint * CHECKPOINT_MOVES, index);
+    }
+
+    /**
+     * Смещается от точки с номером {@code from} до точки с номером {@code to}, суммируя шаги целыми словами
+     * подсчетом битов.
+     *
+     * @return упакованные координаты: x в старших 32 битах, y в младших
+     */
+    private long walk(int x, int y, int from, int to) {
+        // Начало всегда выровнено по слову: from кратно CHECKPOINT_MOVES.
+        for (int word = from >>> 5; word < (to >>> 5); word++) {
+            long displacement = displacement(moves[word], 32);
+            x += (int) (displacement >> 32);
+            y += (int) displacement;
+        }
+        if ((to & 31) != 0) {
+            long displacement = displacement(moves[to >>> 5], to & 31);
+            x += (int) (displacement >> 32);
+            y += (int) displacement;
+        }
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Вычисляет суммарное смещение первых {@code count} шагов слова.
+     * Старший бит кода отличает горизонтальный шаг от вертикального, младший - положительное направление.
+     *
+     * @return упакованное смещение: dx в старших 32 битах, dy в младших
+     */
+    private static long displacement(long word, int count) {
+        long valid = count == 32 ? LOW_BITS : LOW_BITS & ((1L << (count << 1)) - 1);
+        long low = word & valid;
+        long high = (word >>> 1) & valid;
+        int horizontal = Long.bitCount(high);
+        int right = Long.bitCount(high & low);
+        int down = Long.bitCount(low & ~high);
+        int dx = 2 * right - horizontal;
+        int dy = 2 * down - (count - horizontal);
+        return ((long) dx << 32) | (dy & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Вычисляет координаты через каждые {@value #CHECKPOINT_MOVES} шагов, начиная с начальной точки.
+     */
+    private static int[] checkpoints(int startX, int startY, long[] moves, int moveCount) {
+        int[] result = new int[2 * (moveCount / CHECKPOINT_MOVES + 1)];
+        result[0] = startX;
+        result[1] = startY;
+        int x = startX;
+        int y = startY;
+        int wordsPerCheckpoint = CHECKPOINT_MOVES >>> 5;
+        for (int k = 1; k < result.length / 2; k++) {
+            for (int word = (k - 1) * wordsPerCheckpoint; word < k * wordsPerCheckpoint; word++) {
+                long displacement = displacement(moves[word], 32);
+                x += (int) (displacement >> 32);
+                y += (int) displacement;
+            }
+            result[2 * k] = x;
+            result[2 * k + 1] = y;
+        }
+        return result;
+    }
+
+    /**
+     * Проверяет, что каждая следующая точка - соседняя клетка предыдущей.
+     */
+    private static boolean isContiguous(Point[] points) {
+        for (int i = 1; i < points.length; i++) {
+            if (Math.abs(points[i].x() - points[i - 1].x()) + Math.abs(points[i].y() - points[i - 1].y()) != 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Сравнивает коды шагов двух компактных путей одинаковой длины.
+     */
+    private boolean sameMoves(Path other) {
+        int fullWords = moveCount >>> 5;
+        if (!Arrays.equals(moves, 0, fullWords, other.moves, 0, fullWords)) {
+            return false;
+        }
+        int rest = moveCount & 31;
+        if (rest == 0) {
+            return true;
+        }
+        long mask = (1L << (rest << 1)) - 1;
+        return (moves[fullWords] & mask) == (other.moves[fullWords] & mask);
     }
 }
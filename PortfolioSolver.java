@@ -0,0 +1,240 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import static academy.maze.solver.SolverUtils.validateInput;
+
+/**
+ * Решатель-портфель, запускающий несколько стратегий одновременно.
+ * Все стратегии портфеля находят кратчайший путь, поэтому первый полученный результат оптимален;
+ * он возвращается сразу, а остальные стратегии прерываются и останавливаются на ближайшей проверке
+ * прерывания, не задерживая победителя. У каждой стратегии свой пул потоков-демонов, переиспользующих
+ * потоки между гонками, поэтому буферы движков стратегий (хранящиеся в {@link ThreadLocal})
+ * выделяются один раз на поток, а не заново в каждой гонке; простаивающие потоки завершаются.
+ * Виртуальные потоки здесь не используются: каждая задача получала бы новый поток, и буферы в
+ * {@link ThreadLocal} выделялись бы в каждой гонке заново, а сами гонки упираются в процессор, а не в ожидание.
+ * Для каждого лабиринта (по {@link Maze#contentHash()}) ведется статистика побед: после
+ * {@link #WARMUP_RACES} гонок на лабиринте стратегии без единой победы больше не запускаются.
+ * Экземпляр потокобезопасен.
+ */
+public class PortfolioSolver implements SolverStrategy {
+    /** Количество гонок на лабиринте, после которого стратегии без побед исключаются */
+    public static final int WARMUP_RACES = 8;
+
+    /** Максимальное количество лабиринтов со статистикой; при переполнении статистика сбрасывается */
+    private static final int MAX_TRACKED_MAZES = 1024;
+
+    private final List<String> names;
+    private final List<SolverStrategy> strategies;
+    private final List<ExecutorService> lanes;
+    private final Map<Long, WinStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Создает портфель из стратегий, находящих кратчайший путь: bfs, astar, bibfs, biastar, jps, junction и tree.
+     */
+    public PortfolioSolver() {
+        this(defaultStrategies());
+    }
+
+    /**
+     * Создает портфель из указанных стратегий. Стратегии должны находить кратчайший путь,
+     * иначе первый результат гонки может оказаться неоптимальным.
+     *
+     * @param strategies стратегии по именам в порядке приоритета
+     * @throws IllegalArgumentException если стратегий нет
+     */
+    public PortfolioSolver(Map<String, SolverStrategy> strategies) {
+        if (strategies.isEmpty()) {
+            throw new IllegalArgumentException("Portfolio needs at least one strategy");
+        }
+        this.names = List.copyOf(strategies.keySet());
+        this.strategies = List.copyOf(strategies.values());
+        List<ExecutorService> pools = new ArrayList<>(names.size());
+        for (String name : names) {
+            pools.add(Executors.newCachedThreadPool(laneThreads(name)));
+        }
+        this.lanes = List.copyOf(pools);
+    }
+
+    /**
+     * Решает лабиринт гонкой стратегий и возвращает первый полученный путь.
+     * Стратегия, завершившаяся исключением, выбывает из гонки; проигравшие стратегии прерываются без ожидания.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return кратчайший путь или пустой путь, если решение не найдено
+     * @throws CancellationException если вызывающий поток прерван во время гонки
+     */
+    @Override
+    public Path solve(Maze maze, Point start, Point end) {
+        if (!validateInput(maze, start, end)) {
+            return Path.empty();
+        }
+
+        // Ленивые данные лабиринта вычисляются до гонки, чтобы стратегии не строили их одновременно.
+        maze.adjacency();
+        WinStats mazeStats = statsFor(maze);
+
+        BlockingQueue<Future<Win>> finished = new LinkedBlockingQueue<>();
+        List<Future<Win>> tasks = new ArrayList<>();
+        for (int i = 0; i < strategies.size(); i++) {
+            if (mazeStats.isEntrant(i)) {
+                int strategy = i;
+                RaceTask task = new RaceTask(() -> new Win(strategy, strategies.get(strategy).solve(maze, start, end)),
+                    finished);
+                tasks.add(task);
+                lanes.get(i).execute(task);
+            }
+        }
+
+        try {
+            Throwable failure = null;
+            for (int i = 0; i < tasks.size(); i++) {
+                try {
+                    Win win = finished.take().get();
+                    mazeStats.record(win.strategy());
+                    return win.path();
+                } catch (ExecutionException e) {
+                    failure = e.getCause();
+                }
+            }
+            if (failure instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("All portfolio strategies failed", failure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Portfolio race was interrupted");
+        } finally {
+            for (Future<Win> task : tasks) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество побед каждой стратегии на лабиринте в его текущем состоянии.
+     *
+     * @param maze лабиринт
+     * @return количество побед по именам стратегий в порядке портфеля
+     */
+    public Map<String, Long> wins(Maze maze) {
+        WinStats mazeStats = stats.get(maze.contentHash());
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            result.put(names.get(i), mazeStats == null ? 0 : mazeStats.wins.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает статистику лабиринта, создавая ее при первой гонке.
+     */
+    private WinStats statsFor(Maze maze) {
+        long key = maze.contentHash();
+        WinStats existing = stats.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (stats.size() >= MAX_TRACKED_MAZES) {
+            stats.clear();
+        }
+        return stats.computeIfAbsent(key, k -> new WinStats(strategies.size()));
+    }
+
+    /**
+     * Создает фабрику потоков-демонов для пула стратегии.
+     *
+     * @param name имя стратегии
+     * @return фабрика потоков
+     */
+    private static ThreadFactory laneThreads(String name) {
+        return Thread.ofPlatform().name("portfolio-" + name + "-", 0).daemon(true).factory();
+    }
+
+    /**
+     * Создает стратегии портфеля по умолчанию.
+     *
+     * @return стратегии по именам
+     */
+    private static Map<String, SolverStrategy> defaultStrategies() {
+        Map<String, SolverStrategy> result = new LinkedHashMap<>();
+        result.put("bfs", new BFSSolver());
+        result.put("astar", new AStarSolver());
+        result.put("bibfs", new BidirectionalBFSSolver());
+        result.put("biastar", new BidirectionalAStarSolver());
+        result.put("jps", new JumpPointSolver());
+        result.put("junction", new JunctionGraphSolver());
+        result.put("tree", new TreeSolver());
+        return result;
+    }
+
+    /**
+     * Результат стратегии, первой завершившей гонку.
+     *
+     * @param strategy номер стратегии в портфеле
+     * @param path найденный путь
+     */
+    private record Win(int strategy, Path path) {}
+
+    /**
+     * Задача стратегии, которая по завершении (успешном, с ошибкой или отмене) помещает себя в очередь гонки.
+     */
+    private static final class RaceTask extends FutureTask<Win> {
+        private final BlockingQueue<Future<Win>> finished;
+
+        RaceTask(Callable<Win> callable, BlockingQueue<Future<Win>> finished) {
+            super(callable);
+            this.finished = finished;
+        }
+
+        @Override
+        protected void done() {
+            finished.add(this);
+        }
+    }
+
+    /**
+     * Статистика побед стратегий на одном лабиринте.
+     */
+    private static final class WinStats {
+        private final AtomicLongArray wins;
+        private final AtomicLong races = new AtomicLong();
+
+        WinStats(int strategyCount) {
+            this.wins = new AtomicLongArray(strategyCount);
+        }
+
+        /**
+         * Проверяет, участвует ли стратегия в гонке: до конца разогрева участвуют все,
+         * после - только побеждавшие хотя бы раз.
+         */
+        boolean isEntrant(int strategy) {
+            return races.get() < WARMUP_RACES || wins.get(strategy) > 0;
+        }
+
+        void record(int strategy) {
+            wins.incrementAndGet(strategy);
+            races.incrementAndGet();
+        }
+    }
+}
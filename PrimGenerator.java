@@ -4,6 +4,7 @@ import academy.maze.dto.CellType;
 import academy.maze.dto.Edge;
 import academy.maze.dto.Maze;
 import academy.maze.dto.Point;
+import academy.maze.dto.storage.MazeStorageType;
 import academy.maze.generator.Iterator.FrontierIterator;
 import static academy.maze.dto.Point.createPoint;
 import static academy.maze.utils.Utils.createStartAndEnd;
@@ -14,10 +15,23 @@ import static academy.maze.utils.Utils.createStartAndEnd;
  */
 public class PrimGenerator implements GeneratorStrategy {
 
+    private final MazeStorageType storageType;
+
     /**
      * Создает новый генератор лабиринтов по алгоритму Прима.
      */
-    public PrimGenerator() {}
+    public PrimGenerator() {
+        this(MazeStorageType.BYTE);
+    }
+
+    /**
+     * Создает новый генератор лабиринтов по алгоритму Прима с указанным способом хранения ячеек.
+     *
+     * @param storageType способ хранения ячеек генерируемых лабиринтов
+     */
+    public PrimGenerator(MazeStorageType storageType) {
+        this.storageType = storageType;
+    }
 
     /**
      * Генерирует лабиринт указанного размера с использованием алгоритма Прима.
@@ -29,7 +43,7 @@ public class PrimGenerator implements GeneratorStrategy {
      */
     @Override
     public Maze generate(int width, int height) {
-        Maze maze = new Maze(width, height);
+        Maze maze = new Maze(width, height, storageType);
         Point start = createPoint(1, 1);
 
         maze.setCell(start.x(), start.y(), CellType.PATH);
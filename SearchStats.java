@@ -0,0 +1,19 @@
+package academy.maze.solver;
+
+/**
+ * Статистика двунаправленного поиска.
+ *
+ * @param forwardExpanded количество узлов, раскрытых поиском от начальной точки
+ * @param backwardExpanded количество узлов, раскрытых поиском от конечной точки
+ */
+public record SearchStats(int forwardExpanded, int backwardExpanded) {
+
+    /**
+     * Возвращает общее количество раскрытых узлов.
+     *
+     * @return сумма раскрытых узлов обеих сторон
+     */
+    public int totalExpanded() {
+        return forwardExpanded + backwardExpanded;
+    }
+}
@@ -53,7 +53,17 @@ public class Solver {
             case "astar" -> Solver.createAStarSolver();
             case "dijkstra" -> Solver.createDijkstraSolver();
             case "bfs" -> Solver.createBFSSolver();
-            default -> throw new IllegalArgumentException("Unknown algorithm: " + algorithm + ". Supported algorithms: astar, dijkstra, bfs");
+            case "bibfs" -> Solver.createBidirectionalBFSSolver();
+            case "biastar" -> Solver.createBidirectionalAStarSolver();
+            case "jps" -> Solver.createJumpPointSolver();
+            case "junction" -> Solver.createJunctionGraphSolver();
+            case "hpa" -> Solver.createHierarchicalSolver();
+            case "tree" -> Solver.createTreeSolver();
+            case "wall" -> Solver.createWallFollowerSolver();
+            case "tremaux" -> Solver.createTremauxSolver();
+            case "portfolio" -> Solver.createPortfolioSolver();
+            default -> throw new IllegalArgumentException("Unknown algorithm: " + algorithm
+                + ". Supported algorithms: astar, dijkstra, bfs, bibfs, biastar, jps, junction, hpa, tree, wall, tremaux, portfolio");
         };
     }
 
@@ -83,4 +93,85 @@ public class Solver {
     private static Solver createBFSSolver() {
         return new Solver(new BFSSolver());
     }
+
+    /**
+     * Создает решатель, использующий двунаправленный BFS.
+     *
+     * @return решатель с двунаправленным BFS
+     */
+    private static Solver createBidirectionalBFSSolver() {
+        return new Solver(new BidirectionalBFSSolver());
+    }
+
+    /**
+     * Создает решатель, использующий двунаправленный алгоритм A*.
+     *
+     * @return решатель с двунаправленным алгоритмом A*
+     */
+    private static Solver createBidirectionalAStarSolver() {
+        return new Solver(new BidirectionalAStarSolver());
+    }
+
+    /**
+     * Создает решатель, использующий Jump Point Search.
+     *
+     * @return решатель с алгоритмом Jump Point Search
+     */
+    private static Solver createJumpPointSolver() {
+        return new Solver(new JumpPointSolver());
+    }
+
+    /**
+     * Создает решатель, ищущий путь по графу развилок.
+     *
+     * @return решатель с графом развилок
+     */
+    private static Solver createJunctionGraphSolver() {
+        return new Solver(new JunctionGraphSolver());
+    }
+
+    /**
+     * Создает решатель, использующий иерархический поиск HPA*.
+     *
+     * @return решатель с алгоритмом HPA*
+     */
+    private static Solver createHierarchicalSolver() {
+        return new Solver(new HierarchicalSolver());
+    }
+
+    /**
+     * Создает решатель для идеальных лабиринтов по индексу общих предков.
+     *
+     * @return решатель с индексом общих предков
+     */
+    private static Solver createTreeSolver() {
+        return new Solver(new TreeSolver());
+    }
+
+    /**
+     * Создает решатель, идущий вдоль правой стены.
+     *
+     * @return решатель по правилу правой руки
+     */
+    private static Solver createWallFollowerSolver() {
+        return new Solver(new WallFollowerSolver());
+    }
+
+    /**
+     * Создает решатель, использующий метод Тремо.
+     *
+     * @return решатель по методу Тремо
+     */
+    private static Solver createTremauxSolver() {
+        return new Solver(new TremauxSolver());
+    }
+
+    /**
+     * Создает решатель, запускающий гонку оптимальных стратегий.
+     *
+     * @return решатель-портфель
+     */
+    private static Solver createPortfolioSolver() {
+        return new Solver(new PortfolioSolver());
+    }
 }
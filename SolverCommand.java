@@ -1,13 +1,24 @@
 package academy.maze.command;
 
+import academy.maze.dto.CellType;
 import academy.maze.dto.Maze;
 import academy.maze.dto.Path;
 import academy.maze.dto.Point;
+import academy.maze.solver.AStarSolver;
+import academy.maze.solver.AnytimeResult;
+import academy.maze.solver.BFSSolver;
+import academy.maze.solver.DijkstraSolver;
 import academy.maze.solver.Solver;
+import academy.maze.solver.TargetMatch;
 import academy.maze.utils.MazeOutputService;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.Callable;
 import static academy.maze.solver.Solver.createSolver;
 import static academy.maze.utils.MazeInputService.loadMaze;
@@ -23,6 +34,26 @@ import static academy.maze.utils.Utils.validateStartAndEnd;
  * Алгоритмы решения:
  * - astar (A* Search): алгоритм поиска с эвристикой, находит кратчайший путь
  * - dijkstra (Dijkstra): алгоритм поиска по графу, гарантирует оптимальность
+ * - bfs (Breadth-First Search): поиск в ширину, находит кратчайший путь
+ * - bibfs (Bidirectional BFS): поиск в ширину одновременно от начальной и конечной точек
+ * - biastar (Bidirectional A*): A* одновременно от начальной и конечной точек
+ * - jps (Jump Point Search): A* по точкам прыжка, быстрее на открытых участках и лабиринтах с циклами
+ * - junction (Junction graph): A* по графу развилок, в котором коридоры стянуты в ребра
+ * - hpa (Hierarchical A*): поиск по кластерам для очень больших лабиринтов, путь не обязательно кратчайший
+ * - tree (Tree LCA): путь через общего предка в идеальном лабиринте, для лабиринтов с циклами - BFS
+ * - wall (Wall follower): правило правой руки без дополнительной памяти, для идеальных лабиринтов
+ * - tremaux (Tremaux): обход в глубину с метками по 1 биту на ячейку, путь не обязательно кратчайший
+ * - portfolio (Portfolio): гонка оптимальных стратегий в пулах потоков-демонов (по пулу на стратегию), побеждает первый найденный путь
+ *
+ * Ограниченный поиск (только для astar):
+ * - --time-budget-ms и --max-expansions включают anytime-поиск ARA*: сначала быстро находится
+ *   путь взвешенным A*, затем он улучшается, пока не исчерпан бюджет; выводится признак оптимальности
+ *   и достигнутая оценка субоптимальности
+ *
+ * Поиск ближайших целей (только для bfs и dijkstra):
+ * - --targets вместо --end задает множество целей: тип ячейки (например, COIN) или файл с точками x,y
+ *   по одной на строку; все цели ищутся одной заливкой от начальной точки
+ * - --nearest задает количество ближайших целей; выводится путь до ближайшей и расстояния до всех найденных
  *
  * Выходные данные:
  * - Если путь найден: визуализация решения с подсветкой пути
@@ -32,13 +63,15 @@ import static academy.maze.utils.Utils.validateStartAndEnd;
  * Примеры использования:
  * solve --algorithm=astar --file=maze.txt --start=1,1 --end=19,19
  * solve --algorithm=dijkstra --file=maze.txt --start=0,0 --end=20,20 --output=solution.txt --unicode
+ * solve --algorithm=astar --file=maze.txt --start=1,1 --end=1999,1999 --time-budget-ms=50
+ * solve --algorithm=dijkstra --file=maze.txt --start=1,1 --targets=COIN --nearest=3
  */
 @Command(name = "solve", description = "Solve a maze with specified algorithm and points.")
 public class SolverCommand implements Callable<Integer> {
 
     @Option(
         names = {"-a", "--algorithm"},
-        description = "Алгоритм решения: astar или dijkstra",
+        description = "Алгоритм решения: astar, dijkstra, bfs, bibfs, biastar, jps, junction, hpa, tree, wall, tremaux или portfolio",
         required = true
     )
     private String algorithm;
@@ -59,11 +92,23 @@ public class SolverCommand implements Callable<Integer> {
 
     @Option(
         names = {"-e", "--end"},
-        description = "Конечная точка в формате: x,y",
-        required = true
+        description = "Конечная точка в формате: x,y (не задается вместе с --targets)"
     )
     private String endPoint;
 
+    @Option(
+        names = {"-t", "--targets"},
+        description = "Цели вместо конечной точки: тип ячейки (например, COIN) или файл с точками x,y по одной на строку (только для bfs и dijkstra)"
+    )
+    private String targetsSpec;
+
+    @Option(
+        names = {"--nearest"},
+        description = "Количество ближайших целей для поиска (только с --targets, по умолчанию: 1)",
+        defaultValue = "1"
+    )
+    private int nearestCount;
+
     @Option(
         names = {"-o", "--output"},
         description = "Имя файла для сохранения (если не указано, решение выводится в консоль)"
@@ -77,6 +122,18 @@ public class SolverCommand implements Callable<Integer> {
     )
     private boolean useUnicode;
 
+    @Option(
+        names = {"--time-budget-ms"},
+        description = "Бюджет времени поиска в миллисекундах (только для astar); возвращается лучший найденный путь"
+    )
+    private Long timeBudgetMs;
+
+    @Option(
+        names = {"--max-expansions"},
+        description = "Максимальное количество раскрытых узлов (только для astar); возвращается лучший найденный путь"
+    )
+    private Long maxExpansions;
+
     /**
      * Основной метод выполнения команды решения лабиринта.
      *
@@ -93,11 +150,26 @@ public class SolverCommand implements Callable<Integer> {
     public Integer call() throws Exception {
         try {
             Point start = parsePoint(startPoint);
+            if (targetsSpec != null) {
+                if (endPoint != null) {
+                    throw new IllegalArgumentException("--end and --targets cannot be used together");
+                }
+                Maze maze = loadMaze(inputFile);
+                isValidAlgorithm(algorithm, false);
+                return solveNearest(maze, start);
+            }
+            if (endPoint == null) {
+                throw new IllegalArgumentException("Either --end or --targets must be specified");
+            }
             Point end = parsePoint(endPoint);
             Maze maze = loadMaze(inputFile);
             validateStartAndEnd(start, end, maze);
             isValidAlgorithm(algorithm, false);
 
+            if (timeBudgetMs != null || maxExpansions != null) {
+                return solveWithinBudget(maze, start, end);
+            }
+
             Solver solver = createSolver(algorithm);
             Path solution = solver.solve(maze, start, end);
 
@@ -109,6 +181,99 @@ public class SolverCommand implements Callable<Integer> {
     }
 
 
+    /**
+     * Решает лабиринт anytime-поиском A* в пределах заданного бюджета и сообщает качество пути.
+     *
+     * @param maze лабиринт
+     * @param start начальная точка
+     * @param end конечная точка
+     * @return 0 если путь найден, 1 если путь не найден
+     * @throws IllegalArgumentException если бюджет задан не для astar или отрицателен
+     */
+    private int solveWithinBudget(Maze maze, Point start, Point end) {
+        if (!"astar".equalsIgnoreCase(algorithm)) {
+            throw new IllegalArgumentException("--time-budget-ms and --max-expansions are supported only by astar");
+        }
+        AnytimeResult result = new AStarSolver().solveWithin(maze, start, end,
+            maxExpansions == null ? 0 : maxExpansions, timeBudgetMs == null ? 0 : timeBudgetMs);
+
+        if (result.path().isEmpty()) {
+            System.out.println(result.optimal()
+                ? "No path found from " + start + " to " + end
+                : "No path found from " + start + " to " + end + " within the search budget");
+            return 1;
+        }
+        outputSolution(maze, result.path());
+        System.out.println(result.optimal()
+            ? "Path is optimal (" + result.expanded() + " nodes expanded)"
+            : String.format("Path is at most %.3f times longer than optimal (%d nodes expanded)", result.bound(), result.expanded()));
+        return 0;
+    }
+
+    /**
+     * Находит ближайшие к начальной точке цели одной заливкой и выводит путь до ближайшей из них.
+     *
+     * @param maze лабиринт
+     * @param start начальная точка
+     * @return 0 если найдена хотя бы одна цель, 1 если ни одна цель не достижима
+     * @throws IllegalArgumentException если алгоритм не поддерживает поиск целей, заданы ограничения бюджета
+     *      или цели некорректны
+     * @throws IOException при ошибке чтения файла целей
+     */
+    private int solveNearest(Maze maze, Point start) throws IOException {
+        if (timeBudgetMs != null || maxExpansions != null) {
+            throw new IllegalArgumentException("--time-budget-ms and --max-expansions cannot be used with --targets");
+        }
+        List<Point> targets = parseTargets(maze);
+        List<TargetMatch> matches = switch (algorithm.toLowerCase(Locale.ROOT)) {
+            case "bfs" -> new BFSSolver().nearestTargets(maze, List.of(start), targets, nearestCount);
+            case "dijkstra" -> new DijkstraSolver().nearestTargets(maze, List.of(start), targets, nearestCount);
+            default -> throw new IllegalArgumentException("--targets is supported only by bfs and dijkstra");
+        };
+
+        if (matches.isEmpty()) {
+            System.out.println("No target reachable from " + start);
+            return 1;
+        }
+        outputSolution(maze, matches.getFirst().path());
+        for (TargetMatch match : matches) {
+            System.out.println("Target " + match.target() + ": distance " + match.distance());
+        }
+        return 0;
+    }
+
+    /**
+     * Разбирает цели: имя типа ячейки или путь к файлу с точками.
+     *
+     * @param maze лабиринт, в котором ищутся ячейки указанного типа
+     * @return список целей
+     * @throws IllegalArgumentException если в лабиринте нет ячеек указанного типа или файл не найден
+     * @throws IOException при ошибке чтения файла целей
+     */
+    private List<Point> parseTargets(Maze maze) throws IOException {
+        for (CellType type : CellType.values()) {
+            if (type.name().equalsIgnoreCase(targetsSpec)) {
+                List<Point> cells = maze.findCells(type);
+                if (cells.isEmpty()) {
+                    throw new IllegalArgumentException("Maze has no cells of type " + type);
+                }
+                return cells;
+            }
+        }
+
+        java.nio.file.Path file = java.nio.file.Path.of(targetsSpec);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Targets must be a cell type or a file with points: " + targetsSpec);
+        }
+        List<Point> targets = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (!line.isBlank()) {
+                targets.add(parsePoint(line));
+            }
+        }
+        return targets;
+    }
+
     /**
      * Парсит строку с координатами точки в объект Point.
      *
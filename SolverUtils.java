@@ -1,13 +1,16 @@
 package academy.maze.solver;
 
+import academy.maze.dto.AdjacencyMasks;
 import academy.maze.dto.Maze;
 import academy.maze.dto.Path;
 import academy.maze.dto.Point;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 import static academy.maze.utils.Utils.validateStartAndEnd;
 
@@ -16,20 +19,40 @@ import static academy.maze.utils.Utils.validateStartAndEnd;
  * Содержит общую логику валидации и восстановления пути, используемую различными алгоритмами решения.
  */
 public class SolverUtils {
+    /** Маска номеров шагов поиска, на которых проверяется прерывание потока */
+    private static final long CANCEL_CHECK_MASK = (1 << 12) - 1;
+
+    /**
+     * Прерывает поиск, если поток решателя прерван. Поток опрашивается раз в {@code 4096} шагов,
+     * чтобы проверка не замедляла внутренние циклы; флаг прерывания не сбрасывается.
+     * Так гонка стратегий {@link PortfolioSolver} отменяет проигравшие решатели.
+     *
+     * @param step номер шага поиска
+     * @throws CancellationException если поток прерван
+     */
+    protected static void checkCancelled(long step) {
+        if ((step & CANCEL_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Search was cancelled");
+        }
+    }
 
     /**
      * Проверяет корректность входных данных для алгоритмов решения лабиринтов.
      * Выполняет комплексную проверку начальной и конечной точек.
      *
+     * Если для лабиринта уже построена актуальная разметка {@link ComponentLabels},
+     * дополнительно проверяется, что точки лежат в одной компоненте; сама разметка здесь не строится.
+     *
      * @param maze лабиринт для проверки
      * @param start начальная точка пути
      * @param end конечная точка пути
+     * @return false если точки заведомо недостижимы друг из друга и поиск можно не запускать
      * @throws IllegalArgumentException если maze, start или end равны null;
      *      если start или end находятся вне границ лабиринта;
      *      если start или end находятся на непроходимой ячейке;
      *      если start и end совпадают
      */
-    protected static void validateInput(Maze maze, Point start, Point end) {
+    protected static boolean validateInput(Maze maze, Point start, Point end) {
         validateStartAndEnd(start, end, maze);
 
         if (!maze.getCell(start.x(), start.y()).isPassable() ||
@@ -40,6 +63,62 @@ public class SolverUtils {
         if (start.equals(end)) {
             throw new IllegalArgumentException("Start and end points are the same");
         }
+
+        ComponentLabels labels = ComponentLabels.cached(maze);
+        return labels == null || labels.connected(start, end);
+    }
+
+    /**
+     * Проверяет исходную точку для построения поля расстояний.
+     *
+     * @param maze лабиринт
+     * @param source исходная точка
+     * @throws IllegalArgumentException если точка не задана, вне лабиринта или на непроходимой ячейке,
+     *      либо лабиринт слишком велик для массивов поля расстояний
+     */
+    protected static void validateSource(Maze maze, Point source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source point cannot be null");
+        }
+        if (!maze.isValidPosition(source)) {
+            throw new IllegalArgumentException("Source point " + source + " is outside maze boundaries");
+        }
+        if (!maze.isPassable(source)) {
+            throw new IllegalArgumentException("Source point " + source + " is on impassable cell: " + maze.getCell(source));
+        }
+        if (!BFSEngine.supports(maze)) {
+            throw new IllegalArgumentException("Maze is too large for a distance field: " + maze.cellCount() + " cells");
+        }
+    }
+
+    /**
+     * Проверяет входные данные поиска ближайших целей.
+     *
+     * @param maze лабиринт
+     * @param sources исходные точки
+     * @param targets цели
+     * @param limit количество искомых целей
+     * @throws IllegalArgumentException если исходных точек или целей нет, точка вне лабиринта
+     *      или на непроходимой ячейке, количество целей меньше 1 либо лабиринт слишком велик для массивов поиска
+     */
+    protected static void validateTargets(Maze maze, Collection<Point> sources, Collection<Point> targets, int limit) {
+        if (sources == null || sources.isEmpty()) {
+            throw new IllegalArgumentException("At least one source point is required");
+        }
+        if (targets == null || targets.isEmpty()) {
+            throw new IllegalArgumentException("At least one target point is required");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Number of targets to find must be positive: " + limit);
+        }
+        for (Point source : sources) {
+            validateSource(maze, source);
+        }
+        for (Point target : targets) {
+            if (target == null || !maze.isValidPosition(target) || !maze.isPassable(target)) {
+                throw new IllegalArgumentException("Target point " + target + " is outside maze or on impassable cell");
+            }
+        }
     }
 
     /**
@@ -72,4 +151,126 @@ public class SolverUtils {
         return new Path(pathPoints);
     }
 
+    /**
+     * Восстанавливает путь по 2-битным направлениям родителей, сохраненным поисковым движком.
+     *
+     * @param maze лабиринт
+     * @param adjacency маски смежности лабиринта
+     * @param parents направления, по которым пришли в каждую ячейку
+     * @param startIndex индекс начальной ячейки
+     * @param endIndex индекс конечной ячейки
+     * @return путь от начальной до конечной ячейки
+     */
+    protected static Path buildPath(Maze maze, AdjacencyMasks adjacency, PackedDirections parents, int startIndex, int endIndex) {
+        int moveCount = chainLength(adjacency, parents, startIndex, endIndex) - 1;
+        long[] moves = new long[Path.wordCount(moveCount)];
+        writeChain(adjacency, parents, startIndex, endIndex, moves, moveCount - 1, false);
+        return Path.fromMoves(maze.pointAt(startIndex), moves, moveCount);
+    }
+
+    /**
+     * Собирает путь двунаправленного поиска из двух цепочек родителей.
+     * Прямая цепочка ведет от начала к {@code forwardMeet}, обратная - от конца к {@code backwardMeet};
+     * точки встречи либо совпадают, либо являются соседними ячейками.
+     *
+     * @param maze лабиринт
+     * @param adjacency маски смежности лабиринта
+     * @param forwardParents направления родителей прямого поиска
+     * @param startIndex индекс начальной ячейки
+     * @param forwardMeet индекс точки встречи со стороны прямого поиска
+     * @param backwardParents направления родителей обратного поиска
+     * @param backwardMeet индекс точки встречи со стороны обратного поиска
+     * @param endIndex индекс конечной ячейки
+     * @return путь от начальной до конечной ячейки
+     */
+    protected static Path joinPaths(Maze maze, AdjacencyMasks adjacency,
+                                    PackedDirections forwardParents, int startIndex, int forwardMeet,
+                                    PackedDirections backwardParents, int backwardMeet, int endIndex) {
+        int forwardMoves = chainLength(adjacency, forwardParents, startIndex, forwardMeet) - 1;
+        int backwardMoves = chainLength(adjacency, backwardParents, endIndex, backwardMeet) - 1;
+        int bridge = forwardMeet == backwardMeet ? 0 : 1;
+
+        int moveCount = forwardMoves + bridge + backwardMoves;
+        long[] moves = new long[Path.wordCount(moveCount)];
+        writeChain(adjacency, forwardParents, startIndex, forwardMeet, moves, forwardMoves - 1, false);
+        if (bridge == 1) {
+            Path.setMove(moves, forwardMoves, directionBetween(maze.width(), forwardMeet, backwardMeet));
+        }
+        writeChain(adjacency, backwardParents, endIndex, backwardMeet, moves, forwardMoves + bridge, true);
+        return Path.fromMoves(maze.pointAt(startIndex), moves, moveCount);
+    }
+
+    /**
+     * Вычисляет количество ячеек в цепочке родителей от {@code to} до {@code from} включительно.
+     *
+     * @param adjacency маски смежности лабиринта
+     * @param parents направления родителей
+     * @param from индекс корня цепочки
+     * @param to индекс последней ячейки цепочки
+     * @return количество ячеек в цепочке
+     */
+    private static int chainLength(AdjacencyMasks adjacency, PackedDirections parents, int from, int to) {
+        int length = 1;
+        for (int index = to; index != from; index = parentIndex(adjacency, parents, index)) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Записывает шаги цепочки родителей от {@code to} к корню {@code from} в массив шагов пути.
+     * Прямая цепочка записывается от позиции {@code position} к началу пути направлениями прихода,
+     * обратная - к концу пути противоположными направлениями.
+     *
+     * @param adjacency маски смежности лабиринта
+     * @param parents направления родителей
+     * @param from индекс корня цепочки
+     * @param to индекс последней ячейки цепочки
+     * @param moves коды шагов пути
+     * @param position номер шага для ячейки {@code to}
+     * @param reversed true если цепочка проходится от {@code to} к корню в направлении пути
+     */
+    private static void writeChain(AdjacencyMasks adjacency, PackedDirections parents, int from, int to,
+                                   long[] moves, int position, boolean reversed) {
+        for (int index = to; index != from; index = parentIndex(adjacency, parents, index)) {
+            int direction = parents.get(index);
+            if (reversed) {
+                Path.setMove(moves, position++, PackedDirections.opposite(direction));
+            }
+            else {
+                Path.setMove(moves, position--, direction);
+            }
+        }
+    }
+
+    /**
+     * Возвращает код направления шага между соседними ячейками.
+     *
+     * @param width ширина лабиринта
+     * @param from индекс исходной ячейки
+     * @param to индекс соседней ячейки
+     * @return код направления: 0 - вверх, 1 - вниз, 2 - влево, 3 - вправо
+     */
+    private static int directionBetween(int width, int from, int to) {
+        int delta = to - from;
+        if (delta == -width) {
+            return 0;
+        }
+        if (delta == width) {
+            return 1;
+        }
+        return delta < 0 ? 2 : 3;
+    }
+
+    /**
+     * Возвращает индекс родителя ячейки по сохраненному направлению.
+     *
+     * @param adjacency маски смежности лабиринта
+     * @param parents направления родителей
+     * @param index индекс ячейки
+     * @return индекс родительской ячейки
+     */
+    protected static int parentIndex(AdjacencyMasks adjacency, PackedDirections parents, int index) {
+        return adjacency.neighbor(index, 1 << PackedDirections.opposite(parents.get(index)));
+    }
 }
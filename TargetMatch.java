@@ -0,0 +1,14 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+
+/**
+ * Найденная цель поиска ближайших целей.
+ *
+ * @param source исходная точка, от которой цель ближе всего
+ * @param target цель
+ * @param distance расстояние до цели: количество шагов или стоимость пути для взвешенного поиска
+ * @param path кратчайший путь от исходной точки до цели
+ */
+public record TargetMatch(Point source, Point target, int distance, Path path) {}
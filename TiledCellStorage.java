@@ -0,0 +1,201 @@
+package academy.maze.dto.storage;
+
+import academy.maze.dto.CellType;
+import academy.maze.dto.MazeTile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Хранилище ячеек, разбитое на квадратные плитки (по умолчанию 64x64).
+ * Плитка выделяется при первой записи в нее проходимой ячейки, до этого все плитки
+ * ссылаются на одну общую плитку из стен. Ячейки внутри плитки хранятся по строкам,
+ * поэтому соседние по вертикали ячейки остаются близко в памяти.
+ * Снимки разделяют плитки: перед записью в разделяемую плитку копируется только она.
+ */
+public final class TiledCellStorage implements CellStorage {
+    /** Размер плитки по умолчанию: 2^6 = 64 ячейки. */
+    public static final int DEFAULT_TILE_SHIFT = 6;
+
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final byte WALL_ORDINAL = (byte) CellType.WALL.ordinal();
+
+    private final int width;
+    private final int height;
+    private final int tileShift;
+    private final int tileMask;
+    private final int tilesPerRow;
+    private final byte[] wallTile;
+    private final byte[][] tiles;
+    private final boolean[] ownedTiles;
+    private int allocatedTiles;
+
+    /**
+     * Создает хранилище с плитками размера по умолчанию.
+     *
+     * @param width ширина лабиринта
+     * @param height высота лабиринта
+     */
+    public TiledCellStorage(int width, int height) {
+        this(width, height, DEFAULT_TILE_SHIFT);
+    }
+
+    /**
+     * Создает хранилище с плитками размера {@code 2^tileShift}.
+     *
+     * @param width ширина лабиринта
+     * @param height высота лабиринта
+     * @param tileShift двоичный логарифм стороны плитки
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public TiledCellStorage(int width, int height, int tileShift) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Width and height must be positive");
+        }
+        if (tileShift < 1 || tileShift > 12) {
+            throw new IllegalArgumentException("Tile shift must be in range [1, 12]: " + tileShift);
+        }
+        this.width = width;
+        this.height = height;
+        this.tileShift = tileShift;
+        this.tileMask = (1 << tileShift) - 1;
+        this.tilesPerRow = (width + tileMask) >>> tileShift;
+        long tileCount = (long) tilesPerRow * ((height + tileMask) >>> tileShift);
+        if (tileCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many tiles for maze " + width + "x" + height);
+        }
+        this.wallTile = new byte[1 << (tileShift << 1)];
+        this.tiles = new byte[(int) tileCount][];
+        this.ownedTiles = new boolean[(int) tileCount];
+        Arrays.fill(tiles, wallTile);
+    }
+
+    /**
+     * Создает снимок, разделяющий плитки с исходным хранилищем.
+     *
+     * @param source исходное хранилище
+     */
+    private TiledCellStorage(TiledCellStorage source) {
+        this.width = source.width;
+        this.height = source.height;
+        this.tileShift = source.tileShift;
+        this.tileMask = source.tileMask;
+        this.tilesPerRow = source.tilesPerRow;
+        this.wallTile = source.wallTile;
+        this.tiles = source.tiles.clone();
+        this.ownedTiles = new boolean[tiles.length];
+        this.allocatedTiles = source.allocatedTiles;
+    }
+
+    @Override
+    public CellType get(long index) {
+        int x = (int) (index % width);
+        int y = (int) (index / width);
+        return CELL_TYPES[tileAt(x, y)[offsetInTile(x, y)]];
+    }
+
+    @Override
+    public void set(long index, CellType type) {
+        int x = (int) (index % width);
+        int y = (int) (index / width);
+        int tileIndex = tileIndex(x, y);
+        byte[] tile = tiles[tileIndex];
+        if (tile == wallTile) {
+            if (type == CellType.WALL) {
+                return;
+            }
+            tile = new byte[wallTile.length];
+            tiles[tileIndex] = tile;
+            ownedTiles[tileIndex] = true;
+            allocatedTiles++;
+        }
+        else if (!ownedTiles[tileIndex]) {
+            tile = tile.clone();
+            tiles[tileIndex] = tile;
+            ownedTiles[tileIndex] = true;
+        }
+        tile[offsetInTile(x, y)] = (byte) type.ordinal();
+    }
+
+    @Override
+    public boolean isPassable(long index) {
+        int x = (int) (index % width);
+        int y = (int) (index / width);
+        return tileAt(x, y)[offsetInTile(x, y)] != WALL_ORDINAL;
+    }
+
+    @Override
+    public long size() {
+        return (long) width * height;
+    }
+
+    @Override
+    public long footprintBytes() {
+        return (long) tiles.length * Long.BYTES + (long) (allocatedTiles + 1) * wallTile.length;
+    }
+
+    @Override
+    public CellStorage snapshot() {
+        Arrays.fill(ownedTiles, false);
+        return new TiledCellStorage(this);
+    }
+
+    /**
+     * Возвращает количество выделенных плиток.
+     *
+     * @return количество плиток, в которые производилась запись
+     */
+    public int allocatedTiles() {
+        return allocatedTiles;
+    }
+
+    /**
+     * Возвращает все плитки хранилища в порядке строк.
+     * Крайние плитки обрезаются по границам лабиринта.
+     *
+     * @return список плиток с признаком того, что плитка не тронута
+     */
+    public List<MazeTile> tiles() {
+        int side = 1 << tileShift;
+        List<MazeTile> result = new ArrayList<>(tiles.length);
+        for (int i = 0; i < tiles.length; i++) {
+            int x = (i % tilesPerRow) << tileShift;
+            int y = (i / tilesPerRow) << tileShift;
+            result.add(new MazeTile(x, y, Math.min(side, width - x), Math.min(side, height - y), tiles[i] == wallTile));
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает плитку, содержащую ячейку (x, y).
+     *
+     * @param x координата X
+     * @param y координата Y
+     * @return массив ячеек плитки
+     */
+    private byte[] tileAt(int x, int y) {
+        return tiles[tileIndex(x, y)];
+    }
+
+    /**
+     * Вычисляет номер плитки, содержащей ячейку (x, y).
+     *
+     * @param x координата X
+     * @param y координата Y
+     * @return номер плитки
+     */
+    private int tileIndex(int x, int y) {
+        return (y >>> tileShift) * tilesPerRow + (x >>> tileShift);
+    }
+
+    /**
+     * Вычисляет смещение ячейки (x, y) внутри ее плитки.
+     *
+     * @param x координата X
+     * @param y координата Y
+     * @return смещение внутри плитки
+     */
+    private int offsetInTile(int x, int y) {
+        return ((y & tileMask) << tileShift) | (x & tileMask);
+    }
+}
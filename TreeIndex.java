@@ -0,0 +1,202 @@
+package academy.maze.solver;
+
+import academy.maze.dto.AdjacencyMasks;
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.util.Arrays;
+import java.util.Optional;
+import static academy.maze.solver.SolverUtils.checkCancelled;
+
+/**
+ * Индекс наименьших общих предков для идеальных лабиринтов.
+ * Идеальный лабиринт - дерево (или лес, если проходимая область несвязна), поэтому путь между двумя ячейками
+ * единственен и проходит через их наименьшего общего предка. Каждое дерево подвешивается за первую
+ * проходимую ячейку; для каждой ячейки хранятся глубина, родитель и указатель прыжка Майерса
+ * (skew-binary jump pointers): три {@code int} на ячейку, подъем на любую глубину за O(log n).
+ * Длина пути вычисляется за O(log n), сам путь - за O(длины пути).
+ * Индекс не меняется после построения и может использоваться несколькими потоками;
+ * после изменения лабиринта его нужно построить заново (см. {@link #isCurrent(Maze)}).
+ */
+public final class TreeIndex {
+    private static final int UNVISITED = -1;
+
+    private final Maze maze;
+    private final int modCount;
+    private final int[] parents;
+    private final int[] jumps;
+    private final int[] depths;
+
+    private TreeIndex(Maze maze, int[] parents, int[] jumps, int[] depths) {
+        this.maze = maze;
+        this.modCount = maze.modCount();
+        this.parents = parents;
+        this.jumps = jumps;
+        this.depths = depths;
+    }
+
+    /**
+     * Строит индекс, если проходимая область лабиринта не содержит циклов.
+     *
+     * @param maze лабиринт
+     * @return индекс или пустое значение, если в лабиринте есть цикл
+     * @throws IllegalArgumentException если лабиринт слишком велик для индексации ячеек типом {@code int}
+     * @throws java.util.concurrent.CancellationException если поток прерван во время построения
+     */
+    public static Optional<TreeIndex> build(Maze maze) {
+        if (!BFSEngine.supports(maze)) {
+            throw new IllegalArgumentException("Maze is too large for a tree index: " + maze.cellCount() + " cells");
+        }
+        AdjacencyMasks adjacency = maze.adjacency();
+        int cellCount = (int) maze.cellCount();
+        int[] parents = new int[cellCount];
+        int[] jumps = new int[cellCount];
+        int[] depths = new int[cellCount];
+        int[] queue = new int[cellCount];
+        Arrays.fill(parents, UNVISITED);
+
+        long visited = 0;
+        for (int root = 0; root < cellCount; root++) {
+            if (parents[root] != UNVISITED || !maze.isPassableAt(root)) {
+                continue;
+            }
+            parents[root] = root;
+            jumps[root] = root;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            while (head < tail) {
+                int current = queue[head++];
+                checkCancelled(++visited);
+                int mask = adjacency.mask(current);
+                while (mask != 0) {
+                    int bit = Integer.lowestOneBit(mask);
+                    mask &= mask - 1;
+                    int neighbor = adjacency.neighbor(current, bit);
+                    if (neighbor == parents[current] && current != root) {
+                        continue;
+                    }
+                    if (parents[neighbor] != UNVISITED) {
+                        return Optional.empty();
+                    }
+                    parents[neighbor] = current;
+                    depths[neighbor] = depths[current] + 1;
+                    jumps[neighbor] = jumpFor(current, jumps, depths);
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return Optional.of(new TreeIndex(maze, parents, jumps, depths));
+    }
+
+    /**
+     * Вычисляет указатель прыжка для ребенка ячейки {@code parent}: если два последовательных прыжка
+     * от родителя имеют одинаковую длину, ребенок прыгает через оба, иначе - на родителя.
+     */
+    private static int jumpFor(int parent, int[] jumps, int[] depths) {
+        int jump = jumps[parent];
+        int jumpOfJump = jumps[jump];
+        if (depths[parent] - depths[jump] == depths[jump] - depths[jumpOfJump]) {
+            return jumpOfJump;
+        }
+        return parent;
+    }
+
+    /**
+     * Проверяет, построен ли индекс по текущему состоянию лабиринта.
+     *
+     * @param maze лабиринт
+     * @return true если индекс построен для этого лабиринта и лабиринт с тех пор не менялся
+     */
+    public boolean isCurrent(Maze maze) {
+        return this.maze == maze && modCount == maze.modCount();
+    }
+
+    /**
+     * Возвращает длину пути между двумя ячейками в шагах.
+     *
+     * @param start начальная точка
+     * @param end конечная точка
+     * @return количество шагов или -1, если ячейки лежат в разных компонентах
+     */
+    public int distance(Point start, Point end) {
+        int from = maze.index(start);
+        int to = maze.index(end);
+        int ancestor = lowestCommonAncestor(from, to);
+        return ancestor < 0 ? -1 : depths[from] + depths[to] - 2 * depths[ancestor];
+    }
+
+    /**
+     * Возвращает единственный путь между двумя ячейками.
+     *
+     * @param start начальная точка
+     * @param end конечная точка
+     * @return путь или пустой путь, если ячейки лежат в разных компонентах
+     */
+    public Path findPath(Point start, Point end) {
+        int from = maze.index(start);
+        int to = maze.index(end);
+        int ancestor = lowestCommonAncestor(from, to);
+        if (ancestor < 0) {
+            return Path.empty();
+        }
+
+        int up = depths[from] - depths[ancestor];
+        Point[] points = new Point[up + depths[to] - depths[ancestor] + 1];
+        int position = 0;
+        for (int current = from; current != ancestor; current = parents[current]) {
+            points[position++] = maze.pointAt(current);
+        }
+        position = points.length - 1;
+        for (int current = to; current != ancestor; current = parents[current]) {
+            points[position--] = maze.pointAt(current);
+        }
+        points[up] = maze.pointAt(ancestor);
+        return new Path(points);
+    }
+
+    /**
+     * Находит наименьшего общего предка двух ячеек.
+     *
+     * @param first индекс первой ячейки
+     * @param second индекс второй ячейки
+     * @return индекс предка или -1, если ячейки лежат в разных деревьях либо непроходимы
+     */
+    private int lowestCommonAncestor(int first, int second) {
+        if (parents[first] == UNVISITED || parents[second] == UNVISITED) {
+            return -1;
+        }
+        int a = ancestorAtDepth(first, Math.min(depths[first], depths[second]));
+        int b = ancestorAtDepth(second, depths[a]);
+        // Глубина указателя прыжка зависит только от глубины ячейки, поэтому a и b прыгают синхронно.
+        while (a != b) {
+            if (parents[a] == a) {
+                return -1;
+            }
+            if (jumps[a] != jumps[b]) {
+                a = jumps[a];
+                b = jumps[b];
+            }
+            else {
+                a = parents[a];
+                b = parents[b];
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Поднимается от ячейки к ее предку на указанной глубине.
+     *
+     * @param index индекс ячейки
+     * @param depth глубина предка, не больше глубины ячейки
+     * @return индекс предка
+     */
+    private int ancestorAtDepth(int index, int depth) {
+        int current = index;
+        while (depths[current] > depth) {
+            current = depths[jumps[current]] >= depth ? jumps[current] : parents[current];
+        }
+        return current;
+    }
+}
@@ -0,0 +1,91 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import static academy.maze.solver.SolverUtils.validateInput;
+
+/**
+ * Решатель для идеальных лабиринтов, отвечающий на запросы по индексу общих предков {@link TreeIndex}.
+ * Индекс строится один раз на лабиринт и окупается уже при нескольких запросах.
+ * Если в лабиринте есть циклы или он слишком велик для индекса, используется {@link BFSSolver}.
+ */
+public class TreeSolver implements SolverStrategy {
+    private final BFSSolver fallback = new BFSSolver();
+    private volatile Entry cache;
+
+    /**
+     * Результат проверки лабиринта: индекс или null, если лабиринт не является деревом.
+     *
+     * @param maze лабиринт
+     * @param modCount счетчик изменений лабиринта на момент проверки
+     * @param index индекс или null
+     */
+    private record Entry(Maze maze, int modCount, TreeIndex index) {
+    }
+
+    /**
+     * Решает лабиринт по индексу общих предков.
+     * Если путь не найден, возвращается пустой путь.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return найденный путь или пустой путь, если решение не найдено
+     */
+    @Override
+    public Path solve(Maze maze, Point start, Point end) {
+        if (!validateInput(maze, start, end)) {
+            return Path.empty();
+        }
+
+        TreeIndex index = indexFor(maze);
+        if (index != null) {
+            return index.findPath(start, end);
+        }
+        return fallback.solve(maze, start, end);
+    }
+
+    /**
+     * Возвращает длину пути между двумя точками в шагах.
+     * Для идеальных лабиринтов вычисляется за O(log n) без построения пути.
+     *
+     * @param maze лабиринт
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return количество шагов или -1, если путь не существует
+     */
+    public int distance(Maze maze, Point start, Point end) {
+        if (!validateInput(maze, start, end)) {
+            return -1;
+        }
+
+        TreeIndex index = indexFor(maze);
+        if (index != null) {
+            return index.distance(start, end);
+        }
+        return fallback.solve(maze, start, end).length() - 1;
+    }
+
+    /**
+     * Возвращает индекс для лабиринта, проверяя его заново, если лабиринт другой или был изменен.
+     *
+     * @param maze лабиринт
+     * @return индекс или null, если лабиринт содержит циклы или слишком велик
+     */
+    public TreeIndex indexFor(Maze maze) {
+        Entry current = cache;
+        if (current != null && current.maze() == maze && current.modCount() == maze.modCount()) {
+            return current.index();
+        }
+        synchronized (this) {
+            current = cache;
+            if (current == null || current.maze() != maze || current.modCount() != maze.modCount()) {
+                TreeIndex index = BFSEngine.supports(maze) ? TreeIndex.build(maze).orElse(null) : null;
+                current = new Entry(maze, maze.modCount(), index);
+                cache = current;
+            }
+            return current.index();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import static academy.maze.solver.PackedDirections.opposite;
+import static academy.maze.solver.SolverUtils.validateInput;
+import static academy.maze.solver.WallFollowerSolver.isPassable;
+
+/**
+ * Решатель по методу Тремо в виде обхода в глубину: ячейка помечается при первом входе,
+ * в помеченную ячейку решатель не входит, а из ячейки без непомеченных соседей возвращается назад.
+ * Метки хранятся в отдельном битовом массиве по 1 биту на ячейку (посещена или нет). Вторая метка Тремо
+ * (проход пройден дважды) не нужна: маршрут хранится в стеке шагов, который можно сразу писать в файл,
+ * и ячейки, снятые со стека при возврате, уже отличаются от ячеек маршрута. Лабиринт читается только через
+ * {@link Maze#isPassableAt(long)}, поэтому решатель работает и поверх файловых хранилищ и, в отличие от
+ * правила правой руки, находит путь в лабиринтах с циклами. Путь не обязательно кратчайший;
+ * при выборе соседа предпочитаются направления к конечной точке.
+ */
+public class TremauxSolver implements SolverStrategy {
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    /**
+     * Решает лабиринт методом Тремо. Путь хранится по 2 бита на шаг.
+     * Если путь не найден, возвращается пустой путь.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return найденный путь или пустой путь, если решение не найдено
+     */
+    @Override
+    public Path solve(Maze maze, Point start, Point end) {
+        if (!validateInput(maze, start, end)) {
+            return Path.empty();
+        }
+
+        MoveTrail.InMemory trail = new MoveTrail.InMemory();
+        return walk(maze, start, end, trail) ? trail.toPath(start) : Path.empty();
+    }
+
+    /**
+     * Решает лабиринт методом Тремо и записывает путь в файл парами {@code int} (x, y) по 8 байт на точку.
+     * Помимо меток в памяти держится только буфер постоянного размера.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @param file файл для записи пути; перезаписывается, а если путь не найден - остается пустым
+     * @return количество записанных точек или 0, если путь не найден
+     * @throws UncheckedIOException при ошибке записи файла
+     */
+    public long solveToFile(Maze maze, Point start, Point end, java.nio.file.Path file) {
+        boolean connected = validateInput(maze, start, end);
+
+        try (MoveTrail.ToFile trail = new MoveTrail.ToFile(file, start)) {
+            return trail.finish(connected && walk(maze, start, end, trail));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close path file " + file, e);
+        }
+    }
+
+    /**
+     * Обходит лабиринт в глубину с метками посещения, пока не дойдет до конечной точки.
+     *
+     * @return true если конечная точка достигнута
+     * @throws IllegalArgumentException если лабиринт слишком велик для битового массива меток
+     */
+    private static boolean walk(Maze maze, Point start, Point end, MoveTrail trail) {
+        long words = (maze.cellCount() + 63) >>> 6;
+        if (words > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Maze is too large for Tremaux marks: " + maze.cellCount() + " cells");
+        }
+        long[] marks = new long[(int) words];
+        int x = start.x();
+        int y = start.y();
+        mark(marks, maze.longIndex(x, y));
+
+        while (x != end.x() || y != end.y()) {
+            int next = chooseNeighbor(maze, marks, x, y, end);
+            if (next >= 0) {
+                x += DX[next];
+                y += DY[next];
+                mark(marks, maze.longIndex(x, y));
+                trail.push(next);
+                continue;
+            }
+            if (trail.size() == 0) {
+                return false;
+            }
+            int back = opposite(trail.pop());
+            x += DX[back];
+            y += DY[back];
+        }
+        return true;
+    }
+
+    /**
+     * Выбирает непомеченного проходимого соседа: сначала среди направлений, приближающих к конечной точке.
+     *
+     * @return код направления или -1, если таких соседей нет
+     */
+    private static int chooseNeighbor(Maze maze, long[] marks, int x, int y, Point end) {
+        int fallback = -1;
+        for (int code = 0; code < 4; code++) {
+            int nx = x + DX[code];
+            int ny = y + DY[code];
+            if (!isPassable(maze, nx, ny) || isMarked(marks, maze.longIndex(nx, ny))) {
+                continue;
+            }
+            if (Math.abs(nx - end.x()) + Math.abs(ny - end.y()) < Math.abs(x - end.x()) + Math.abs(y - end.y())) {
+                return code;
+            }
+            if (fallback < 0) {
+                fallback = code;
+            }
+        }
+        return fallback;
+    }
+
+    private static boolean isMarked(long[] marks, long index) {
+        return (marks[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    private static void mark(long[] marks, long index) {
+        marks[(int) (index >>> 6)] |= 1L << index;
+    }
+}
@@ -3,12 +3,16 @@ package academy.maze.utils;
 import academy.maze.dto.CellType;
 import academy.maze.dto.Maze;
 import academy.maze.dto.Point;
+import java.util.List;
 
 /**
  * Утилитарный класс с вспомогательными методами для работы с лабиринтами.
  * Содержит методы валидации, создания точек и проверки алгоритмов.
  */
 public final class Utils {
+    private static final List<String> GENERATOR_ALGORITHMS = List.of("dfs", "prim", "wilson");
+    private static final List<String> SOLVER_ALGORITHMS = List.of("astar", "dijkstra", "bfs", "bibfs", "biastar", "jps", "junction", "hpa", "tree", "wall", "tremaux", "portfolio");
+
     private Utils() {}
 
     /**
@@ -35,10 +39,7 @@ public final class Utils {
      * @return true если алгоритм поддерживается, false в противном случае
      */
     public static boolean isValidAlgorithm(String algo, boolean isGenerator) {
-        if (isGenerator)
-            return "dfs".equalsIgnoreCase(algo) || "prim".equalsIgnoreCase(algo) || "wilson".equalsIgnoreCase(algo);
-        else
-            return "astar".equalsIgnoreCase(algo) || "dijkstra".equalsIgnoreCase(algo) || "bfs".equalsIgnoreCase(algo);
+        return algo != null && (isGenerator ? GENERATOR_ALGORITHMS : SOLVER_ALGORITHMS).contains(algo.toLowerCase());
     }
 
     /**
@@ -53,7 +54,8 @@ public final class Utils {
     public static void validateInput(int width, int height, String algorithm, boolean isGenerator) {
         validateDimensions(width, height);
         if (!isValidAlgorithm(algorithm, isGenerator)) {
-            throw new IllegalArgumentException("Unsupported algorithm: " + algorithm + ". Supported algorithms: " + (isGenerator ? "dfs, prim, wilson" : "astar, dijkstra"));
+            throw new IllegalArgumentException("Unsupported algorithm: " + algorithm + ". Supported algorithms: "
+                + String.join(", ", isGenerator ? GENERATOR_ALGORITHMS : SOLVER_ALGORITHMS));
         }
     }
 
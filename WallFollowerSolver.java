@@ -0,0 +1,118 @@
+package academy.maze.solver;
+
+import academy.maze.dto.Maze;
+import academy.maze.dto.Path;
+import academy.maze.dto.Point;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import static academy.maze.solver.PackedDirections.opposite;
+import static academy.maze.solver.SolverUtils.validateInput;
+
+/**
+ * Решатель по правилу правой руки: на каждой ячейке выбирается поворот направо, прямо, налево или назад,
+ * первый из которых ведет в проходимую ячейку. Кроме текущей позиции и направления решатель ничего не хранит:
+ * лабиринт читается только через {@link Maze#isPassableAt(long)}, поэтому работает и поверх файловых хранилищ.
+ * Шаг, сразу отменяющий предыдущий, снимает его с маршрута, поэтому в односвязном лабиринте (дереве)
+ * результат - единственный путь без возвратов. В лабиринте с циклами правило может обходить остров с конечной точкой
+ * стороной; обход, вернувшийся в первое состояние, означает, что путь не найден.
+ */
+public class WallFollowerSolver implements SolverStrategy {
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    /** Порядок попыток для направлений UP, DOWN, LEFT, RIGHT: направо, прямо, налево, назад */
+    private static final int[][] TURNS = {{3, 0, 2, 1}, {2, 1, 3, 0}, {0, 2, 1, 3}, {1, 3, 0, 2}};
+
+    /**
+     * Решает лабиринт по правилу правой руки. Путь хранится по 2 бита на шаг.
+     * Если путь не найден, возвращается пустой путь.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @return найденный путь или пустой путь, если решение не найдено
+     */
+    @Override
+    public Path solve(Maze maze, Point start, Point end) {
+        if (!validateInput(maze, start, end)) {
+            return Path.empty();
+        }
+
+        MoveTrail.InMemory trail = new MoveTrail.InMemory();
+        return walk(maze, start, end, trail) ? trail.toPath(start) : Path.empty();
+    }
+
+    /**
+     * Решает лабиринт по правилу правой руки и записывает путь в файл парами {@code int} (x, y) по 8 байт на точку.
+     * В памяти держится только буфер постоянного размера.
+     *
+     * @param maze лабиринт для решения
+     * @param start начальная точка пути
+     * @param end конечная точка пути
+     * @param file файл для записи пути; перезаписывается, а если путь не найден - остается пустым
+     * @return количество записанных точек или 0, если путь не найден
+     * @throws UncheckedIOException при ошибке записи файла
+     */
+    public long solveToFile(Maze maze, Point start, Point end, java.nio.file.Path file) {
+        boolean connected = validateInput(maze, start, end);
+
+        try (MoveTrail.ToFile trail = new MoveTrail.ToFile(file, start)) {
+            return trail.finish(connected && walk(maze, start, end, trail));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close path file " + file, e);
+        }
+    }
+
+    /**
+     * Идет вдоль правой стены от начальной точки, пока не дойдет до конечной или не вернется в первое состояние.
+     *
+     * @return true если конечная точка достигнута
+     */
+    private static boolean walk(Maze maze, Point start, Point end, MoveTrail trail) {
+        int x = start.x();
+        int y = start.y();
+        int heading = 0;
+        int firstX = 0;
+        int firstY = 0;
+        int firstHeading = -1;
+
+        while (x != end.x() || y != end.y()) {
+            int next = -1;
+            for (int turn : TURNS[heading]) {
+                if (isPassable(maze, x + DX[turn], y + DY[turn])) {
+                    next = turn;
+                    break;
+                }
+            }
+            if (next < 0) {
+                return false;
+            }
+            x += DX[next];
+            y += DY[next];
+            heading = next;
+            if (trail.size() > 0 && trail.top() == opposite(next)) {
+                trail.pop();
+            }
+            else {
+                trail.push(next);
+            }
+
+            if (firstHeading < 0) {
+                firstX = x;
+                firstY = y;
+                firstHeading = heading;
+            }
+            else if (x == firstX && y == firstY && heading == firstHeading) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Проверяет, что клетка лежит внутри лабиринта (не на границе) и проходима.
+     */
+    static boolean isPassable(Maze maze, int x, int y) {
+        return maze.isValidPosition(x, y) && maze.isPassableAt(maze.longIndex(x, y));
+    }
+}
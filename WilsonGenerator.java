@@ -3,6 +3,7 @@ package academy.maze.generator;
 import academy.maze.dto.CellType;
 import academy.maze.dto.Maze;
 import academy.maze.dto.Point;
+import academy.maze.dto.storage.MazeStorageType;
 import academy.maze.solver.Direction;
 
 import java.util.ArrayList;
@@ -19,10 +20,23 @@ import static academy.maze.utils.Utils.createStartAndEnd;
  */
 public class WilsonGenerator implements GeneratorStrategy {
 
+    private final MazeStorageType storageType;
+
     /**
      * Создает новый генератор лабиринтов по алгоритму Уилсона.
      */
-    public WilsonGenerator() {}
+    public WilsonGenerator() {
+        this(MazeStorageType.BYTE);
+    }
+
+    /**
+     * Создает новый генератор лабиринтов по алгоритму Уилсона с указанным способом хранения ячеек.
+     *
+     * @param storageType способ хранения ячеек генерируемых лабиринтов
+     */
+    public WilsonGenerator(MazeStorageType storageType) {
+        this.storageType = storageType;
+    }
 
     /**
      * Генерирует лабиринт указанного размера с использованием алгоритма Уилсона.
@@ -34,7 +48,7 @@ public class WilsonGenerator implements GeneratorStrategy {
      */
     @Override
     public Maze generate(int width, int height) {
-        Maze maze = new Maze(width, height);
+        Maze maze = new Maze(width, height, storageType);
 
         Set<Point> visited = new HashSet<>();
 